@@ -0,0 +1,43 @@
+#!/usr/bin/env python3
+"""Compares two JMH JSON results (e.g. a release baseline and target/jmh-result.json).
+
+Usage: doc/benchmark/compare-jmh.py doc/benchmark/jmh-baseline.json target/jmh-result.json [threshold-percent]
+
+Prints the score and normalized allocation (gc.alloc.rate.norm, bytes per operation) of every benchmark and parameter
+combination present in both files, and exits with 1 when any score got worse by more than the threshold (default 10%).
+"""
+import json
+import sys
+
+
+def load(path):
+    results = {}
+    with open(path) as f:
+        for run in json.load(f):
+            params = ",".join(f"{k}={v}" for k, v in sorted(run.get("params", {}).items()))
+            key = f"{run['benchmark'].rsplit('.', 2)[-2]}.{run['benchmark'].rsplit('.', 1)[-1]}({params})"
+            alloc = run.get("secondaryMetrics", {}).get("gc.alloc.rate.norm", {}).get("score")
+            results[key] = (run["primaryMetric"]["score"], run["primaryMetric"]["scoreUnit"], alloc)
+    return results
+
+
+def main():
+    baseline, current = load(sys.argv[1]), load(sys.argv[2])
+    threshold = float(sys.argv[3]) if len(sys.argv) > 3 else 10.0
+    regressed = False
+    print(f"{'benchmark':70} {'baseline':>12} {'current':>12} {'change':>8} {'B/op base':>10} {'B/op now':>10}")
+    for key in sorted(baseline.keys() & current.keys()):
+        (base, unit, base_alloc), (now, _, now_alloc) = baseline[key], current[key]
+        change = (now - base) / base * 100 if base else 0.0
+        # AverageTime/SampleTime: higher is worse; Throughput: lower is worse
+        worse = change if "/op" in unit else -change
+        regressed |= worse > threshold
+        print(f"{key:70} {base:12.3f} {now:12.3f} {change:+7.1f}% {base_alloc or 0:10.0f} {now_alloc or 0:10.0f}"
+              f"{'  <-- regression' if worse > threshold else ''}")
+    for key in sorted(baseline.keys() - current.keys()):
+        print(f"{key:70} missing from current run")
+    sys.exit(1 if regressed else 0)
+
+
+if __name__ == "__main__":
+    main()
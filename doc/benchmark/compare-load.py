@@ -0,0 +1,30 @@
+#!/usr/bin/env python3
+"""Compares two load test reports, e.g. the same traffic on platform and on virtual threads.
+
+Usage: doc/benchmark/compare-load.py target/load-platform.json target/load-virtual.json
+
+Prints throughput, lock timeout and server error rates, and p50/p99/p99.9 latency per operation side by side.
+"""
+import json
+import sys
+
+
+def main():
+    with open(sys.argv[1]) as f:
+        first = json.load(f)
+    with open(sys.argv[2]) as f:
+        second = json.load(f)
+    a, b = first.get("threads", sys.argv[1]), second.get("threads", sys.argv[2])
+
+    print(f"{'':32} {a:>12} {b:>12}")
+    print(f"{'throughput/s':32} {first['throughputPerSecond']:12.1f} {second['throughputPerSecond']:12.1f}")
+    for rate in ("lockTimeoutRate", "allQueuesFullRate", "serverErrorRate"):
+        print(f"{rate:32} {100 * first[rate]:11.2f}% {100 * second[rate]:11.2f}%")
+    for operation in first["operations"].keys() & second["operations"].keys():
+        x, y = first["operations"][operation], second["operations"][operation]
+        for stat in ("p50Ms", "p99Ms", "p999Ms"):
+            print(f"{operation + ' ' + stat:32} {x[stat]:12.2f} {y[stat]:12.2f}")
+
+
+if __name__ == "__main__":
+    main()
@@ -0,0 +1,60 @@
+-- Compares the queue read queries with and without idx_orders_waiting_shop_queue_id_priority as the order history
+-- grows.
+--
+-- Run it against a scratch PostgreSQL database that Liquibase has migrated (start the app once against it), e.g.
+--   psql -d pos_bench -v history_rows=1000000  -f doc/benchmark/waiting-orders-index.sql
+--   psql -d pos_bench -v history_rows=30000000 -f doc/benchmark/waiting-orders-index.sql
+-- and compare the plans and "Buffers:" lines of both runs. It truncates orders and order_items.
+-- The plans of a 1M and a 30M row run are recorded in waiting-orders-index-1m.txt and waiting-orders-index-30m.txt.
+--
+-- The index is created as changelog-orders-priority.yaml creates it.
+
+\set ON_ERROR_STOP on
+\if :{?history_rows}
+\else
+  \set history_rows 20000000
+\endif
+\set shops 200
+\set queues 5
+\set waiting_per_queue 10
+
+TRUNCATE order_items, orders;
+
+-- history: SERVED/CANCELED orders spread over all shops and queues
+INSERT INTO orders (id, shop_id, queue_number, status)
+SELECT g,
+       ('00000000-0000-0000-0000-' || lpad(to_hex(g % :shops), 12, '0'))::uuid,
+       1 + (g / :shops) % :queues,
+       CASE WHEN g % 10 = 0 THEN 'CANCELED' ELSE 'SERVED' END
+FROM generate_series(1, :history_rows) AS g;
+
+-- live queues: the newest orders are WAITING, every fifth one from a GOLD member (priority 2)
+INSERT INTO orders (id, shop_id, queue_number, status, priority)
+SELECT :history_rows + g,
+       ('00000000-0000-0000-0000-' || lpad(to_hex(g % :shops), 12, '0'))::uuid,
+       1 + (g / :shops) % :queues,
+       'WAITING',
+       CASE WHEN g % 5 = 0 THEN 2 ELSE 0 END
+FROM generate_series(1, :shops * :queues * :waiting_per_queue) AS g;
+
+SELECT setval('orders_seq', (SELECT max(id) FROM orders));
+-- sets the visibility map so index-only scans do not visit the heap
+VACUUM ANALYZE orders;
+
+\set shop_id '\'00000000-0000-0000-0000-000000000007\''
+-- the last regular order of a queue, behind every other WAITING order of it
+SELECT max(id) AS last_waiting_id
+FROM orders
+WHERE shop_id = :shop_id AND queue_number = 1 AND status = 'WAITING' AND priority = 0
+\gset
+
+\echo '=== without the partial index'
+DROP INDEX IF EXISTS idx_orders_waiting_shop_queue_id_priority;
+VACUUM ANALYZE orders;
+\ir waiting-orders-queries.sql
+
+\echo '=== with the partial index'
+CREATE INDEX idx_orders_waiting_shop_queue_id_priority ON orders (shop_id, queue_number, id) INCLUDE (priority)
+  WHERE status = 'WAITING';
+VACUUM ANALYZE orders;
+\ir waiting-orders-queries.sql
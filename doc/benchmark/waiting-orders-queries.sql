@@ -0,0 +1,29 @@
+-- The SQL Hibernate generates for the queue reads in JpaOrderRepository, included by waiting-orders-index.sql.
+
+\echo '--- assignment: countWaitingByQueue'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT queue_number, count(*)
+FROM orders
+WHERE shop_id = :shop_id AND status = 'WAITING'
+GROUP BY queue_number;
+
+\echo '--- queue state rebuild: findWaitingOrderRows'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, queue_number, priority
+FROM orders
+WHERE shop_id = :shop_id AND status = 'WAITING';
+
+\echo '--- live position: findPositionInQueueOrderById'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(o2.id) + 1
+FROM orders o1
+JOIN orders o2 ON o2.shop_id = o1.shop_id AND o2.queue_number = o1.queue_number
+WHERE o1.id = :last_waiting_id
+  AND o2.status = 'WAITING'
+  AND (o2.priority > o1.priority OR o2.priority = o1.priority AND o2.id < o1.id);
+
+\echo '--- startup: findDistinctShopIdsByStatus(WAITING)'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT DISTINCT shop_id
+FROM orders
+WHERE status = 'WAITING';
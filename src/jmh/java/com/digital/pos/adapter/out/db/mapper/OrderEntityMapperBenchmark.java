@@ -0,0 +1,73 @@
+package com.digital.pos.adapter.out.db.mapper;
+
+import com.digital.pos.adapter.out.db.entity.OrderEntity;
+import com.digital.pos.domain.model.Order;
+import com.digital.pos.domain.model.OrderItem;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mapping between domain orders and JPA entities: one order on create, and the WAITING orders of a shop on reads that
+ * load them with items.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderEntityMapperBenchmark {
+
+  private static final int ITEMS_PER_ORDER = 5;
+
+  @Param({"1", "100", "10000"})
+  private int waitingOrders;
+
+  private final OrderEntityMapper mapper = new OrderEntityMapper();
+  private Order order;
+  private List<OrderEntity> entities;
+
+  private static Order order(UUID shopId, long id) {
+    List<OrderItem> items = new ArrayList<>(ITEMS_PER_ORDER);
+    for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+      items.add(new OrderItem(id * ITEMS_PER_ORDER + i, UUID.randomUUID(), 1 + i, 2.5));
+    }
+    Order order = Order.createNew(shopId, items);
+    order.setId(id);
+    order.assignQueue(1);
+    return order;
+  }
+
+  @Setup
+  public void setUp() {
+    UUID shopId = UUID.randomUUID();
+    order = order(shopId, 1);
+    entities = new ArrayList<>(waitingOrders);
+    for (int i = 0; i < waitingOrders; i++) {
+      entities.add(mapper.toJpaEntity(order(shopId, i + 1)));
+    }
+  }
+
+  @Benchmark
+  public OrderEntity toJpaEntity() {
+    return mapper.toJpaEntity(order);
+  }
+
+  @Benchmark
+  public List<Order> toDomainList() {
+    return mapper.toDomainList(entities);
+  }
+}
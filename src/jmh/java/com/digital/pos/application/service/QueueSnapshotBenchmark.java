@@ -0,0 +1,84 @@
+package com.digital.pos.application.service;
+
+import com.digital.pos.adapter.in.rest.model.ShopQueueResponse;
+import com.digital.pos.domain.model.OrderStatus;
+import com.digital.pos.domain.model.QueueChange;
+import com.digital.pos.domain.model.QueueEntry;
+import com.digital.pos.domain.model.ShopQueueState;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * In-memory work behind the queue reads: rebuilding a shop's queue state from the WAITING rows, rendering the
+ * snapshot response after a change, and looking up a live position.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueueSnapshotBenchmark {
+
+  @Param({"1", "5", "50"})
+  private int queues;
+
+  @Param({"1", "100", "10000"})
+  private int waitingOrders;
+
+  private final UUID shopId = UUID.randomUUID();
+  private List<QueueEntry> entries;
+  private Map<Integer, Integer> capacities;
+  private ShopQueueState state;
+  private long lastOrderId;
+  private int lastQueue;
+
+  @Setup
+  public void setUp() {
+    entries = new ArrayList<>(waitingOrders);
+    for (int i = 0; i < waitingOrders; i++) {
+      entries.add(new QueueEntry(i + 1, 1 + i % queues));
+    }
+    capacities = new HashMap<>();
+    for (int queueNumber = 1; queueNumber <= queues; queueNumber++) {
+      capacities.put(queueNumber, waitingOrders / queues + 1);
+    }
+    state = ShopQueueState.fromEntries(shopId, 0, entries);
+    QueueEntry last = entries.get(entries.size() - 1);
+    lastOrderId = last.orderId();
+    lastQueue = last.queueNumber();
+  }
+
+  @Benchmark
+  public ShopQueueState rebuildState() {
+    return ShopQueueState.fromEntries(shopId, 0, entries);
+  }
+
+  @Benchmark
+  public ShopQueueResponse renderSnapshotAfterChange() {
+    // a new version drops the memoized snapshot, as a committed change does
+    state.apply(new QueueChange(shopId, lastQueue, lastOrderId, OrderStatus.WAITING, state.getVersion() + 1));
+    return QueueService.toResponse(state.snapshot(), capacities);
+  }
+
+  @Benchmark
+  public OptionalInt livePositionOfLastOrder() {
+    return state.position(lastQueue, lastOrderId);
+  }
+}
@@ -0,0 +1,126 @@
+package com.digital.pos.domain.service;
+
+import com.digital.pos.config.ApplicationConfig;
+import com.digital.pos.domain.model.MembershipTier;
+import com.digital.pos.domain.model.Order;
+import com.digital.pos.domain.model.QueueAssignmentResult;
+import com.digital.pos.domain.model.QueueCapacities;
+import com.digital.pos.domain.model.QueueEntry;
+import com.digital.pos.domain.model.ShopConfiguration;
+import com.digital.pos.domain.model.ShopQueueState;
+import com.digital.pos.domain.service.strategy.MostAvailableQueueAssignmentStrategy;
+import com.digital.pos.domain.service.strategy.PowerOfTwoChoicesQueueStrategy;
+import com.digital.pos.domain.service.strategy.VipMemberShipQueueStrategy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of picking a queue for one order, as done on every create: the strategy alone over precompiled capacities and
+ * through the engine, which first looks up the compiled configuration and strategy of the shop.
+ * {@code twoChoicesAssign} samples two queues instead of scanning them all. {@code vipAssign} places a gold member
+ * among mixed-tier traffic, a fifth of the waiting orders being members of some tier.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueueAssignmentBenchmark {
+
+  @Param({"1", "5", "50"})
+  private int queues;
+
+  @Param({"1", "100", "10000"})
+  private int waitingOrders;
+
+  private MostAvailableQueueAssignmentStrategy strategy;
+  private QueueAssignmentEngineImpl engine;
+  private QueueAssignmentContext context;
+  private QueueCapacities compiledCapacities;
+  private VipMemberShipQueueStrategy vipStrategy;
+  private PowerOfTwoChoicesQueueStrategy twoChoicesStrategy;
+  private QueueAssignmentContext vipContext;
+
+  static ShopQueueState waitingState(UUID shopId, int queues, int waitingOrders) {
+    List<QueueEntry> entries = new ArrayList<>(waitingOrders);
+    for (int i = 0; i < waitingOrders; i++) {
+      entries.add(new QueueEntry(i + 1, 1 + i % queues));
+    }
+    return ShopQueueState.fromEntries(shopId, 0, entries);
+  }
+
+  static ShopQueueState mixedTierState(UUID shopId, int queues, int waitingOrders) {
+    MembershipTier[] tiers = MembershipTier.values();
+    List<QueueEntry> entries = new ArrayList<>(waitingOrders);
+    for (int i = 0; i < waitingOrders; i++) {
+      int priority = i % 5 == 0 ? tiers[1 + (i / 5) % (tiers.length - 1)].priority() : 0;
+      entries.add(new QueueEntry(i + 1, 1 + i % queues, priority));
+    }
+    return ShopQueueState.fromEntries(shopId, 0, entries);
+  }
+
+  static Map<Integer, Integer> capacities(int queues, int waitingOrders) {
+    // one free slot more than the fullest queue, so assignment never fails
+    int capacity = waitingOrders / queues + 2;
+    Map<Integer, Integer> capacities = new HashMap<>();
+    for (int queueNumber = 1; queueNumber <= queues; queueNumber++) {
+      capacities.put(queueNumber, capacity);
+    }
+    return capacities;
+  }
+
+  @Setup
+  public void setUp() {
+    UUID shopId = UUID.randomUUID();
+    ShopConfiguration config = new ShopConfiguration(shopId, "MOST_AVAILABLE", capacities(queues, waitingOrders));
+    context = new QueueAssignmentContext(Order.createNew(shopId, List.of()), config,
+        waitingState(shopId, queues, waitingOrders));
+    compiledCapacities = QueueCapacities.of(config.queueCapacities());
+    strategy = new MostAvailableQueueAssignmentStrategy();
+    // the strategies the application registers; no service times are known, as for a shop without serves yet
+    engine = new QueueAssignmentEngineImpl(new ApplicationConfig()
+        .queueAssignmentStrategies((serviceShopId, queueNumber) -> Double.NaN));
+
+    ShopConfiguration vipConfig = new ShopConfiguration(shopId, "VIP_MEMBERSHIP", capacities(queues, waitingOrders));
+    vipContext = new QueueAssignmentContext(Order.createNew(shopId, List.of(), MembershipTier.GOLD), vipConfig,
+        mixedTierState(shopId, queues, waitingOrders));
+    vipStrategy = new VipMemberShipQueueStrategy();
+    twoChoicesStrategy = new PowerOfTwoChoicesQueueStrategy();
+  }
+
+  @Benchmark
+  public QueueAssignmentResult strategyAssign() {
+    return strategy.assign(context, compiledCapacities);
+  }
+
+  @Benchmark
+  public QueueAssignmentResult engineAssign() {
+    return engine.assign(context);
+  }
+
+  @Benchmark
+  public QueueAssignmentResult twoChoicesAssign() {
+    return twoChoicesStrategy.assign(context, compiledCapacities);
+  }
+
+  @Benchmark
+  public QueueAssignmentResult vipAssign() {
+    return vipStrategy.assign(vipContext, compiledCapacities);
+  }
+}
@@ -0,0 +1,194 @@
+package com.digital.pos.domain.service;
+
+import com.digital.pos.domain.exception.AllQueueFullException;
+import com.digital.pos.domain.model.Order;
+import com.digital.pos.domain.model.QueueCapacities;
+import com.digital.pos.domain.model.ShopConfiguration;
+import com.digital.pos.domain.model.ShopQueueState;
+import com.digital.pos.domain.service.strategy.MostAvailableQueueAssignmentStrategy;
+import com.digital.pos.domain.service.strategy.QueueAssignmentStrategy;
+import com.digital.pos.domain.service.strategy.ShortestExpectedWaitQueueStrategy;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Discrete-event simulation of one shop whose queues are served at different speeds, comparing the time from order to
+ * served under MOST_AVAILABLE and SHORTEST_EXPECTED_WAIT. Both strategies see the same arrivals and the same work per
+ * order. SHORTEST_EXPECTED_WAIT learns the speeds online, from the serves, with the same EWMA as
+ * {@code RedisServiceRateStore}.
+ * <p>
+ * Not a JMH benchmark, run it after {@code mvn -Pbenchmarks test-compile}:
+ * {@code java -cp target/classes:target/test-classes com.digital.pos.domain.service.QueueWaitSimulation [orders]
+ * [load] [seed]}, where load is the arrival rate as a fraction of the shop's total service rate.
+ */
+public class QueueWaitSimulation {
+
+  // mean service time per queue, from a fast counter to one four times slower than average
+  private static final double[] SERVICE_MILLIS = {15_000, 30_000, 60_000, 120_000};
+  private static final int CAPACITY = 30;
+  private static final double ALPHA = 0.1;
+  private static final double MAX_INTERVAL_MILLIS = 300_000;
+
+  private final double[] arrivals;
+  private final double[] work;
+  private final int warmUp;
+
+  QueueWaitSimulation(int orders, double load, long seed) {
+    SplittableRandom random = new SplittableRandom(seed);
+    double serviceRatePerMilli = Arrays.stream(SERVICE_MILLIS).map(millis -> 1 / millis).sum();
+    double meanGapMillis = 1 / (load * serviceRatePerMilli);
+    arrivals = new double[orders];
+    work = new double[orders];
+    double now = 0;
+    for (int i = 0; i < orders; i++) {
+      now += exponential(random) * meanGapMillis;
+      arrivals[i] = now;
+      work[i] = exponential(random);
+    }
+    warmUp = orders / 10;
+  }
+
+  public static void main(String[] args) {
+    int orders = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+    double load = args.length > 1 ? Double.parseDouble(args[1]) : 0.85;
+    long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+    QueueWaitSimulation simulation = new QueueWaitSimulation(orders, load, seed);
+
+    System.out.printf("%d orders, load %.2f, service times %s ms, capacity %d per queue%n", orders, load,
+        Arrays.toString(SERVICE_MILLIS), CAPACITY);
+    System.out.printf("%-24s %12s %12s %10s%n", "strategy", "mean (s)", "p95 (s)", "rejected");
+    Result mostAvailable = simulation.run(estimates -> new MostAvailableQueueAssignmentStrategy());
+    Result shortestWait = simulation.run(ShortestExpectedWaitQueueStrategy::new);
+    mostAvailable.print("MOST_AVAILABLE");
+    shortestWait.print("SHORTEST_EXPECTED_WAIT");
+    System.out.printf("mean %+.1f%%, p95 %+.1f%%%n", change(mostAvailable.mean(), shortestWait.mean()),
+        change(mostAvailable.p95(), shortestWait.p95()));
+  }
+
+  private static double exponential(SplittableRandom random) {
+    return -Math.log(1 - random.nextDouble());
+  }
+
+  private static double change(double before, double after) {
+    return (after - before) / before * 100;
+  }
+
+  Result run(StrategyFactory strategyFactory) {
+    UUID shopId = UUID.randomUUID();
+    int queues = SERVICE_MILLIS.length;
+    Map<Integer, Integer> capacityMap = new HashMap<>();
+    for (int queueNumber = 1; queueNumber <= queues; queueNumber++) {
+      capacityMap.put(queueNumber, CAPACITY);
+    }
+    ShopConfiguration config = new ShopConfiguration(shopId, "SIMULATION", capacityMap);
+    QueueCapacities capacities = QueueCapacities.of(capacityMap);
+    ShopQueueState state = new ShopQueueState(shopId, 0);
+    Estimates estimates = new Estimates(queues);
+    QueueAssignmentStrategy strategy = strategyFactory.create(estimates);
+
+    List<ArrayDeque<Integer>> waiting = new ArrayList<>();
+    double[] nextServed = new double[queues + 1];
+    for (int queueNumber = 0; queueNumber <= queues; queueNumber++) {
+      waiting.add(new ArrayDeque<>());
+      nextServed[queueNumber] = Double.POSITIVE_INFINITY;
+    }
+
+    double[] waits = new double[arrivals.length];
+    int measured = 0;
+    int rejected = 0;
+    int next = 0;
+    while (true) {
+      int servedQueue = 0;
+      for (int queueNumber = 1; queueNumber <= queues; queueNumber++) {
+        if (nextServed[queueNumber] < nextServed[servedQueue]) {
+          servedQueue = queueNumber;
+        }
+      }
+      if (next < arrivals.length && arrivals[next] <= nextServed[servedQueue]) {
+        double now = arrivals[next];
+        Order order = Order.createNew(shopId, List.of());
+        try {
+          int queueNumber = strategy.assign(new QueueAssignmentContext(order, config, state), capacities)
+              .queueNumber();
+          state.add(queueNumber, next);
+          waiting.get(queueNumber).add(next);
+          if (waiting.get(queueNumber).size() == 1) {
+            nextServed[queueNumber] = now + work[next] * SERVICE_MILLIS[queueNumber - 1];
+          }
+        } catch (AllQueueFullException e) {
+          rejected++;
+        }
+        next++;
+      } else if (servedQueue != 0) {
+        double now = nextServed[servedQueue];
+        int served = waiting.get(servedQueue).poll();
+        state.remove(servedQueue, served);
+        estimates.served(servedQueue, arrivals[served], now);
+        if (served >= warmUp) {
+          waits[measured++] = now - arrivals[served];
+        }
+        Integer head = waiting.get(servedQueue).peek();
+        nextServed[servedQueue] = head == null
+            ? Double.POSITIVE_INFINITY
+            : now + work[head] * SERVICE_MILLIS[servedQueue - 1];
+      } else {
+        break;
+      }
+    }
+
+    double[] sorted = Arrays.copyOf(waits, measured);
+    Arrays.sort(sorted);
+    return new Result(Arrays.stream(sorted).average().orElse(0), sorted[(int) Math.ceil(0.95 * measured) - 1],
+        rejected);
+  }
+
+  @FunctionalInterface
+  interface StrategyFactory {
+
+    QueueAssignmentStrategy create(ServiceRateEstimator estimates);
+  }
+
+  record Result(double mean, double p95, int rejected) {
+
+    void print(String strategy) {
+      System.out.printf("%-24s %12.1f %12.1f %10d%n", strategy, mean / 1000, p95 / 1000, rejected);
+    }
+  }
+
+  // single-node counterpart of RedisServiceRateStore, on the simulated clock
+  private static final class Estimates implements ServiceRateEstimator {
+
+    private final double[] lastServed;
+    private final double[] means;
+
+    private Estimates(int queues) {
+      lastServed = new double[queues + 1];
+      means = new double[queues + 1];
+      Arrays.fill(lastServed, Double.NaN);
+      Arrays.fill(means, Double.NaN);
+    }
+
+    @Override
+    public double meanServiceMillis(UUID shopId, int queueNumber) {
+      return means[queueNumber];
+    }
+
+    private void served(int queueNumber, double queuedAt, double now) {
+      double last = lastServed[queueNumber];
+      lastServed[queueNumber] = now;
+      if (Double.isNaN(last)) {
+        return;
+      }
+      double interval = Math.min(now - Math.max(last, queuedAt), MAX_INTERVAL_MILLIS);
+      means[queueNumber] = Double.isNaN(means[queueNumber])
+          ? interval
+          : ALPHA * interval + (1 - ALPHA) * means[queueNumber];
+    }
+  }
+}
@@ -1,19 +1,24 @@
 package com.digital.pos.adapter.in.rest;
 
 import com.digital.pos.adapter.in.rest.api.OrdersApi;
+import com.digital.pos.adapter.in.rest.model.BatchCreateOrderRequest;
+import com.digital.pos.adapter.in.rest.model.BatchCreateOrderResponse;
 import com.digital.pos.adapter.in.rest.model.CreateOrderRequest;
 import com.digital.pos.adapter.in.rest.model.OrderCreatedResponse;
 import com.digital.pos.adapter.in.rest.model.OrderStatusResponse;
 import com.digital.pos.application.port.in.CancelOrderUseCase;
+import com.digital.pos.application.port.in.CreateOrderBatchUseCase;
 import com.digital.pos.application.port.in.CreateOrderUseCase;
 import com.digital.pos.application.port.in.GetOrderUseCase;
 import com.digital.pos.application.port.in.ServeOrderUseCase;
+import com.digital.pos.application.port.in.StreamQueueEventsUseCase;
 import io.swagger.v3.oas.annotations.Parameter;
 import lombok.AllArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * This controller implements the OrdersApi interface generated by OpenAPI. The interface has default methods that
@@ -26,9 +31,11 @@ import org.springframework.web.bind.annotation.RestController;
 public class OrderController implements OrdersApi {
 
   private final CreateOrderUseCase createOrderUseCase;
+  private final CreateOrderBatchUseCase createOrderBatchUseCase;
   private final ServeOrderUseCase serveOrderUseCase;
   private final CancelOrderUseCase cancelOrderUseCase;
   private final GetOrderUseCase getOrderUseCase;
+  private final StreamQueueEventsUseCase streamQueueEventsUseCase;
 
   /**
    * POST /api/orders : Place a new order
@@ -48,6 +55,21 @@ public class OrderController implements OrdersApi {
     return ResponseEntity.ok(response);
   }
 
+  /**
+   * POST /api/orders/batch : Place several orders for one shop in a single request
+   */
+  @Override
+  public ResponseEntity<BatchCreateOrderResponse> createOrderBatch(
+      @Parameter(description = "Batch create order request", required = true) BatchCreateOrderRequest request) {
+
+    log.info("Received request to create {} orders for shopId={}", request.getOrders().size(), request.getShopId());
+
+    BatchCreateOrderResponse response = createOrderBatchUseCase.createOrderBatch(request);
+
+    log.info("Order batch processed for shopId={}", request.getShopId());
+    return ResponseEntity.ok(response);
+  }
+
   @Override
   public ResponseEntity<Void> serveOrder(Long orderId) {
     log.info("Received request to serve an order for shopId={}", orderId);
@@ -76,4 +98,13 @@ public class OrderController implements OrdersApi {
     return ResponseEntity.ok(response);
   }
 
+  /**
+   * GET /api/orders/{orderId}/events : Stream queue position changes of an order
+   */
+  @Override
+  public ResponseEntity<SseEmitter> streamOrderEvents(Long orderId) {
+    log.info("Received request to stream position events for orderId={}", orderId);
+    return ResponseEntity.ok(streamQueueEventsUseCase.streamOrder(orderId));
+  }
+
 }
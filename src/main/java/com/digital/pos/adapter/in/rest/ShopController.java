@@ -3,6 +3,8 @@ package com.digital.pos.adapter.in.rest;
 import com.digital.pos.adapter.in.rest.api.ShopsApi;
 import com.digital.pos.adapter.in.rest.model.ShopQueueResponse;
 import com.digital.pos.application.port.in.GetQueueSnapshotUseCase;
+import com.digital.pos.application.port.in.InvalidateMenuCacheUseCase;
+import com.digital.pos.application.port.in.StreamQueueEventsUseCase;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
@@ -11,6 +13,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 
 @Tag(name = "Shops")
@@ -21,6 +24,8 @@ import org.springframework.web.bind.annotation.RestController;
 public class ShopController implements ShopsApi {
 
   private final GetQueueSnapshotUseCase getQueueSnapshotUseCase;
+  private final InvalidateMenuCacheUseCase invalidateMenuCacheUseCase;
+  private final StreamQueueEventsUseCase streamQueueEventsUseCase;
 
   public ResponseEntity<ShopQueueResponse> getShopQueueSnapshot(
       UUID shopId
@@ -29,4 +34,17 @@ public class ShopController implements ShopsApi {
     ShopQueueResponse response = getQueueSnapshotUseCase.getShopQueueSnapshot(shopId);
     return ResponseEntity.ok(response);
   }
+
+  @Override
+  public ResponseEntity<SseEmitter> streamShopQueueEvents(UUID shopId) {
+    log.info("Streaming queue events for shop {}", shopId);
+    return ResponseEntity.ok(streamQueueEventsUseCase.streamShopQueue(shopId));
+  }
+
+  @Override
+  public ResponseEntity<Void> invalidateMenuCache(UUID shopId) {
+    log.info("Invalidating menu cache for shop {}", shopId);
+    invalidateMenuCacheUseCase.invalidateMenuCache(shopId);
+    return ResponseEntity.noContent().build();
+  }
 }
@@ -0,0 +1,10 @@
+package com.digital.pos.adapter.out.cache;
+
+import java.io.Serializable;
+
+/**
+ * Published when a node changes a two-tier cache entry; {@code key} is null when the whole cache was cleared.
+ */
+public record CacheInvalidationMessage(String origin, String cacheName, Object key) implements Serializable {
+
+}
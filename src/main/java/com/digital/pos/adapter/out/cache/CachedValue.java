@@ -0,0 +1,21 @@
+package com.digital.pos.adapter.out.cache;
+
+import java.io.Serializable;
+
+/**
+ * What a {@link TwoTierCache} stores in both tiers: the value plus what probabilistic early refresh needs, namely when
+ * the shared copy expires and how long it took to load.
+ *
+ * @param storeValue  the value, {@code NullValue} for a cached null
+ * @param expiresAt   epoch millis at which the Redis copy expires, {@link Long#MAX_VALUE} when unknown
+ * @param loadMillis  how long the load took
+ */
+record CachedValue(Object storeValue, long expiresAt, long loadMillis) implements Serializable {
+
+  /**
+   * Wraps a value written before values carried their expiry; it is never refreshed early.
+   */
+  static CachedValue legacy(Object storeValue) {
+    return new CachedValue(storeValue, Long.MAX_VALUE, 0);
+  }
+}
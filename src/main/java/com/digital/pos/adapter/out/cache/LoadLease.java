@@ -0,0 +1,48 @@
+package com.digital.pos.adapter.out.cache;
+
+import java.time.Duration;
+
+/**
+ * Lets one node at a time load a missing cache entry, so a key that expires in the shared tier costs one call to the
+ * origin instead of one per node.
+ */
+public interface LoadLease {
+
+  /**
+   * Coordination within a node only: every node loads for itself.
+   */
+  LoadLease LOCAL = new LoadLease() {
+    @Override
+    public boolean tryAcquire(String cacheName, Object key) {
+      return true;
+    }
+
+    @Override
+    public boolean isHeld(String cacheName, Object key) {
+      return false;
+    }
+
+    @Override
+    public void release(String cacheName, Object key) {
+    }
+
+    @Override
+    public Duration ttl() {
+      return Duration.ZERO;
+    }
+  };
+
+  /**
+   * @return true if this node should load the entry; false if another node is loading it
+   */
+  boolean tryAcquire(String cacheName, Object key);
+
+  boolean isHeld(String cacheName, Object key);
+
+  void release(String cacheName, Object key);
+
+  /**
+   * Upper bound for how long a node waits for another node's load before loading itself.
+   */
+  Duration ttl();
+}
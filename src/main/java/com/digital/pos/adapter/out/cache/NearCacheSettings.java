@@ -0,0 +1,12 @@
+package com.digital.pos.adapter.out.cache;
+
+import java.time.Duration;
+
+/**
+ * Size and TTL of the in-process tier of a two-tier cache. The TTL should be shorter than the Redis one, so a node
+ * that missed an invalidation never serves an entry longer than the shared cache would. {@code remoteTtl} is the TTL
+ * of the Redis tier, which entries are refreshed ahead of.
+ */
+public record NearCacheSettings(Duration ttl, long maximumSize, Duration remoteTtl) {
+
+}
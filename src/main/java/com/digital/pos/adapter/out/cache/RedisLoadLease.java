@@ -0,0 +1,65 @@
+package com.digital.pos.adapter.out.cache;
+
+import java.time.Duration;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+
+/**
+ * A short-lived Redis key per cache entry being loaded, set only if absent. It expires on its own when the holder dies
+ * mid-load. When Redis cannot be reached the node loads for itself rather than failing the request.
+ */
+@Slf4j
+public class RedisLoadLease implements LoadLease {
+
+  private static final String KEY_PREFIX = "cache-load-lease:";
+
+  private final RedissonClient redissonClient;
+  private final Duration ttl;
+  private final String holder = UUID.randomUUID().toString();
+
+  public RedisLoadLease(RedissonClient redissonClient, Duration ttl) {
+    this.redissonClient = redissonClient;
+    this.ttl = ttl;
+  }
+
+  @Override
+  public boolean tryAcquire(String cacheName, Object key) {
+    try {
+      return bucket(cacheName, key).setIfAbsent(holder, ttl);
+    } catch (RuntimeException e) {
+      log.warn("Failed to acquire load lease for cache {} key {}, loading locally", cacheName, key, e);
+      return true;
+    }
+  }
+
+  @Override
+  public boolean isHeld(String cacheName, Object key) {
+    try {
+      return bucket(cacheName, key).isExists();
+    } catch (RuntimeException e) {
+      return false;
+    }
+  }
+
+  @Override
+  public void release(String cacheName, Object key) {
+    try {
+      // only the holder's own lease; an expired one may have been taken over
+      bucket(cacheName, key).compareAndSet(holder, null);
+    } catch (RuntimeException e) {
+      log.warn("Failed to release load lease for cache {} key {}", cacheName, key, e);
+    }
+  }
+
+  @Override
+  public Duration ttl() {
+    return ttl;
+  }
+
+  private RBucket<String> bucket(String cacheName, Object key) {
+    return redissonClient.getBucket(KEY_PREFIX + cacheName + "::" + key, StringCodec.INSTANCE);
+  }
+}
@@ -0,0 +1,248 @@
+package com.digital.pos.adapter.out.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+/**
+ * A bounded in-process Caffeine cache in front of a shared (Redis) cache. Reads are served from the near tier when
+ * possible and fall back to the shared tier; writes go to both and are announced to the other nodes so they drop their
+ * near copy.
+ * <p>
+ * Loads for {@link #get(Object, Callable)} (used by {@code @Cacheable(sync = true)}) are coalesced:
+ * <ul>
+ *   <li>within a node, concurrent misses for a key wait on the first caller's load, which runs outside Caffeine's map
+ *   lock;</li>
+ *   <li>across nodes, the {@link LoadLease} lets one node load while the others wait for its result in Redis;</li>
+ *   <li>before the Redis copy expires, a caller refreshes it early with a probability that grows as expiry nears and
+ *   with how slow the load was ({@code earlyRefreshBeta}, 0 disables it). Other callers keep getting the current value
+ *   meanwhile, so a popular key is reloaded once instead of by every request that would miss at expiry.</li>
+ * </ul>
+ */
+@Slf4j
+public class TwoTierCache extends AbstractValueAdaptingCache {
+
+  private static final long LEASE_POLL_MILLIS = 20;
+
+  private final String name;
+  private final Cache<Object, Object> near;
+  private final org.springframework.cache.Cache remote;
+  private final Consumer<Object> invalidationPublisher;
+  private final Duration remoteTtl;
+  private final LoadLease lease;
+  private final double earlyRefreshBeta;
+  private final Map<Object, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+
+  public TwoTierCache(String name, Cache<Object, Object> near, org.springframework.cache.Cache remote,
+      Consumer<Object> invalidationPublisher) {
+    this(name, near, remote, invalidationPublisher, null, LoadLease.LOCAL, 0);
+  }
+
+  /**
+   * @param remoteTtl        TTL of the shared tier, null if unknown (no early refresh)
+   * @param lease            coordinates loads across nodes, {@link LoadLease#LOCAL} for none
+   * @param earlyRefreshBeta how eagerly entries are refreshed before expiry, 1 is the usual choice, 0 disables it
+   */
+  public TwoTierCache(String name, Cache<Object, Object> near, org.springframework.cache.Cache remote,
+      Consumer<Object> invalidationPublisher, Duration remoteTtl, LoadLease lease, double earlyRefreshBeta) {
+    super(true);
+    this.name = name;
+    this.near = near;
+    this.remote = remote;
+    this.invalidationPublisher = invalidationPublisher;
+    this.remoteTtl = remoteTtl;
+    this.lease = lease;
+    this.earlyRefreshBeta = earlyRefreshBeta;
+  }
+
+  private static Object await(CompletableFuture<Object> load) {
+    try {
+      return load.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public Object getNativeCache() {
+    return near;
+  }
+
+  public Cache<Object, Object> getNearCache() {
+    return near;
+  }
+
+  @Override
+  protected Object lookup(Object key) {
+    CachedValue cached = read(key);
+    return cached == null ? null : cached.storeValue();
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T get(Object key, Callable<T> valueLoader) {
+    CachedValue cached = read(key);
+    if (cached != null && !shouldRefreshEarly(cached)) {
+      return (T) fromStoreValue(cached.storeValue());
+    }
+    CompletableFuture<Object> load = new CompletableFuture<>();
+    CompletableFuture<Object> inFlight = loading.putIfAbsent(key, load);
+    if (inFlight != null) {
+      // an early refresh in progress is no reason to wait while the current value is still valid
+      return (T) fromStoreValue(cached != null ? cached.storeValue() : await(inFlight));
+    }
+    try {
+      Object storeValue = loadOnce(key, valueLoader, cached);
+      load.complete(storeValue);
+      return (T) fromStoreValue(storeValue);
+    } catch (RuntimeException e) {
+      load.completeExceptionally(e);
+      if (cached != null) {
+        log.warn("Early refresh of cache {} key {} failed, serving the current value", name, key, e);
+        return (T) fromStoreValue(cached.storeValue());
+      }
+      throw e;
+    } finally {
+      loading.remove(key, load);
+    }
+  }
+
+  @Override
+  public void put(Object key, Object value) {
+    CachedValue cached = new CachedValue(toStoreValue(value), expiresAt(System.currentTimeMillis()), 0);
+    remote.put(key, cached);
+    near.put(key, cached);
+    invalidationPublisher.accept(key);
+  }
+
+  @Override
+  public void evict(Object key) {
+    remote.evict(key);
+    near.invalidate(key);
+    invalidationPublisher.accept(key);
+  }
+
+  @Override
+  public void clear() {
+    remote.clear();
+    near.invalidateAll();
+    invalidationPublisher.accept(null);
+  }
+
+  /**
+   * Drops the near copy after another node changed the entry; {@code key} null drops everything.
+   */
+  public void invalidateLocal(Object key) {
+    if (key == null) {
+      near.invalidateAll();
+    } else {
+      near.invalidate(key);
+    }
+  }
+
+  private CachedValue read(Object key) {
+    Object value = near.getIfPresent(key);
+    if (value != null) {
+      return (CachedValue) value;
+    }
+    CachedValue shared = readRemote(key);
+    if (shared != null) {
+      near.put(key, shared);
+    }
+    return shared;
+  }
+
+  private CachedValue readRemote(Object key) {
+    ValueWrapper shared = remote.get(key);
+    if (shared == null) {
+      return null;
+    }
+    return shared.get() instanceof CachedValue cached ? cached : CachedValue.legacy(toStoreValue(shared.get()));
+  }
+
+  // XFetch: refresh when now - loadTime * beta * ln(random) reaches the expiry
+  private boolean shouldRefreshEarly(CachedValue cached) {
+    if (earlyRefreshBeta <= 0 || cached.expiresAt() == Long.MAX_VALUE) {
+      return false;
+    }
+    double gap = -cached.loadMillis() * earlyRefreshBeta * Math.log(1 - ThreadLocalRandom.current().nextDouble());
+    return System.currentTimeMillis() + gap >= cached.expiresAt();
+  }
+
+  // Loads the entry unless another node holds the lease, in which case its result is awaited.
+  private Object loadOnce(Object key, Callable<?> valueLoader, CachedValue current) {
+    if (!lease.tryAcquire(name, key)) {
+      if (current != null) {
+        // another node is refreshing early
+        return current.storeValue();
+      }
+      CachedValue loaded = awaitOtherNode(key);
+      if (loaded != null) {
+        near.put(key, loaded);
+        return loaded.storeValue();
+      }
+      log.debug("Load lease for cache {} key {} ended without a value, loading locally", name, key);
+      return loadAndStore(key, valueLoader);
+    }
+    try {
+      return loadAndStore(key, valueLoader);
+    } finally {
+      lease.release(name, key);
+    }
+  }
+
+  private CachedValue awaitOtherNode(Object key) {
+    long deadline = System.nanoTime() + lease.ttl().toNanos();
+    try {
+      while (System.nanoTime() < deadline && lease.isHeld(name, key)) {
+        TimeUnit.MILLISECONDS.sleep(LEASE_POLL_MILLIS);
+        CachedValue loaded = readRemote(key);
+        if (loaded != null) {
+          return loaded;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return readRemote(key);
+  }
+
+  private Object loadAndStore(Object key, Callable<?> valueLoader) {
+    long start = System.currentTimeMillis();
+    Object value = load(key, valueLoader);
+    long now = System.currentTimeMillis();
+    CachedValue cached = new CachedValue(toStoreValue(value), expiresAt(now), now - start);
+    remote.put(key, cached);
+    near.put(key, cached);
+    return cached.storeValue();
+  }
+
+  private long expiresAt(long now) {
+    return remoteTtl == null ? Long.MAX_VALUE : now + remoteTtl.toMillis();
+  }
+
+  private <T> T load(Object key, Callable<T> valueLoader) {
+    try {
+      return valueLoader.call();
+    } catch (Exception e) {
+      throw new ValueRetrievalException(key, valueLoader, e);
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package com.digital.pos.adapter.out.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.codec.SerializationCodec;
+import org.springframework.boot.actuate.metrics.cache.RedisCacheMetrics;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+
+/**
+ * Wraps the Redis cache manager and adds a Caffeine near tier to the caches listed in {@code nearCaches}; other caches
+ * are returned as plain Redis caches. Near-tier invalidations are fanned out to the other nodes over a Redis topic.
+ * <p>
+ * Both tiers export {@code cache.gets} hit/miss counts tagged with the cache name and {@code tier=near|remote}; the
+ * remote tier only sees near-tier misses.
+ * <p>
+ * Synchronized loads are coalesced across nodes through {@code loadLease} and refreshed ahead of the Redis TTL with
+ * {@code earlyRefreshBeta}, see {@link TwoTierCache}.
+ */
+@Slf4j
+public class TwoTierCacheManager implements CacheManager {
+
+  static final String INVALIDATION_TOPIC = "cache-invalidation";
+
+  private final CacheManager remote;
+  private final Map<String, NearCacheSettings> nearCaches;
+  private final MeterRegistry meterRegistry;
+  private final RTopic invalidationTopic;
+  private final LoadLease loadLease;
+  private final double earlyRefreshBeta;
+  private final String nodeId = UUID.randomUUID().toString();
+  private final Map<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+  public TwoTierCacheManager(CacheManager remote, Map<String, NearCacheSettings> nearCaches,
+      RedissonClient redissonClient, MeterRegistry meterRegistry, LoadLease loadLease, double earlyRefreshBeta) {
+    this.remote = remote;
+    this.nearCaches = nearCaches;
+    this.meterRegistry = meterRegistry;
+    this.loadLease = loadLease;
+    this.earlyRefreshBeta = earlyRefreshBeta;
+    this.invalidationTopic = redissonClient.getTopic(INVALIDATION_TOPIC, new SerializationCodec());
+    this.invalidationTopic.addListener(CacheInvalidationMessage.class, (channel, message) -> onInvalidation(message));
+  }
+
+  @Override
+  public org.springframework.cache.Cache getCache(String name) {
+    NearCacheSettings settings = nearCaches.get(name);
+    if (settings == null) {
+      return remote.getCache(name);
+    }
+    return caches.computeIfAbsent(name, cacheName -> createCache(cacheName, settings));
+  }
+
+  @Override
+  public Collection<String> getCacheNames() {
+    return remote.getCacheNames();
+  }
+
+  private TwoTierCache createCache(String name, NearCacheSettings settings) {
+    Cache<Object, Object> near = Caffeine.newBuilder()
+        .expireAfterWrite(settings.ttl())
+        .maximumSize(settings.maximumSize())
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, near, name, Tags.of("tier", "near"));
+    org.springframework.cache.Cache remoteCache = remote.getCache(name);
+    if (remoteCache instanceof RedisCache redisCache) {
+      new RedisCacheMetrics(redisCache, Tags.of("tier", "remote")).bindTo(meterRegistry);
+    }
+    return new TwoTierCache(name, near, remoteCache, key -> publishInvalidation(name, key), settings.remoteTtl(),
+        loadLease, earlyRefreshBeta);
+  }
+
+  private void publishInvalidation(String cacheName, Object key) {
+    try {
+      invalidationTopic.publish(new CacheInvalidationMessage(nodeId, cacheName, key));
+    } catch (RuntimeException e) {
+      // the near TTL bounds how long other nodes can serve the stale entry
+      log.warn("Failed to publish invalidation for cache {} key {}", cacheName, key, e);
+    }
+  }
+
+  private void onInvalidation(CacheInvalidationMessage message) {
+    if (nodeId.equals(message.origin())) {
+      return;
+    }
+    TwoTierCache cache = caches.get(message.cacheName());
+    if (cache != null) {
+      cache.invalidateLocal(message.key());
+    }
+  }
+}
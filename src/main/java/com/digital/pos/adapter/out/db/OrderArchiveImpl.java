@@ -0,0 +1,35 @@
+package com.digital.pos.adapter.out.db;
+
+import com.digital.pos.adapter.out.db.repository.JpaOrderRepository;
+import com.digital.pos.application.port.out.OrderArchive;
+import java.time.Instant;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Copies a batch of terminal orders and their items to {@code orders_archive}/{@code order_items_archive} and deletes
+ * them from the live tables. The batch rows stay locked until commit, and {@code SKIP LOCKED} lets archivers on
+ * several nodes work on disjoint batches. Status transitions only update WAITING rows, so they never touch a row the
+ * archiver selected.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderArchiveImpl implements OrderArchive {
+
+  private final JpaOrderRepository jpaOrderRepository;
+
+  @Override
+  @Transactional
+  public int archiveTerminalOrders(Instant changedBefore, int batchSize) {
+    List<Long> orderIds = jpaOrderRepository.lockTerminalOrderIds(changedBefore, batchSize);
+    if (orderIds.isEmpty()) {
+      return 0;
+    }
+    jpaOrderRepository.copyItemsToArchive(orderIds);
+    jpaOrderRepository.copyOrdersToArchive(orderIds);
+    jpaOrderRepository.deleteItemsByOrderIds(orderIds);
+    return jpaOrderRepository.deleteOrdersByIds(orderIds);
+  }
+}
@@ -3,12 +3,16 @@ package com.digital.pos.adapter.out.db;
 import com.digital.pos.adapter.out.db.entity.OrderEntity;
 import com.digital.pos.adapter.out.db.mapper.OrderEntityMapper;
 import com.digital.pos.adapter.out.db.repository.JpaOrderRepository;
+import com.digital.pos.adapter.out.db.repository.QueueCount;
 import com.digital.pos.application.port.out.OrderRepository;
 import com.digital.pos.domain.model.Order;
 import com.digital.pos.domain.model.OrderStatus;
+import com.digital.pos.domain.model.QueueEntry;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
@@ -27,10 +31,29 @@ public class OrderRepositoryImpl implements OrderRepository {
   }
 
   @Override
-  public List<Order> findByShopIdAndStatus(UUID shopId, OrderStatus orderStatus) {
+  public List<Order> saveAll(List<Order> orders) {
+    List<OrderEntity> entities = orders.stream()
+        .map(mapper::toJpaEntity)
+        .toList();
+    return mapper.toDomainList(jpaOrderRepository.saveAll(entities));
+  }
+
+  @Override
+  public List<QueueEntry> findWaitingQueueEntries(UUID shopId) {
+    return jpaOrderRepository.findWaitingOrderRows(shopId).stream()
+        .map(row -> new QueueEntry(row.id(), row.queueNumber(), row.priority()))
+        .toList();
+  }
 
-    List<OrderEntity> orderEntities = jpaOrderRepository.findByShopIdAndStatus(shopId, orderStatus);
-    return mapper.toDomainList(orderEntities);
+  @Override
+  public List<UUID> findShopIdsByStatus(OrderStatus orderStatus) {
+    return jpaOrderRepository.findDistinctShopIdsByStatus(orderStatus);
+  }
+
+  @Override
+  public Map<Integer, Integer> countWaitingByQueue(UUID shopId) {
+    return jpaOrderRepository.countWaitingByQueue(shopId).stream()
+        .collect(Collectors.toMap(QueueCount::queueNumber, count -> count.count().intValue()));
   }
 
   @Override
@@ -39,6 +62,17 @@ public class OrderRepositoryImpl implements OrderRepository {
         .map(mapper::toDomain);
   }
 
+  @Override
+  public Optional<Order> findWithoutItemsById(Long orderId) {
+    return jpaOrderRepository.findHeaderById(orderId)
+        .map(mapper::toDomain);
+  }
+
+  @Override
+  public boolean transitionStatus(Long orderId, OrderStatus expected, OrderStatus target) {
+    return jpaOrderRepository.updateStatus(orderId, expected, target) == 1;
+  }
+
   @Override
   public Integer findPositionInQueueOrderById(Long orderId) {
 
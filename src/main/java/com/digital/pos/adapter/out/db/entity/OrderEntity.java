@@ -2,6 +2,7 @@ package com.digital.pos.adapter.out.db.entity;
 
 import com.digital.pos.domain.model.OrderStatus;
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -11,6 +12,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -27,6 +29,8 @@ import lombok.Setter;
 @AllArgsConstructor
 public class OrderEntity {
 
+  // Kept at one id per nextval: queue positions follow id order, and per-node id blocks would let an order placed
+  // later on one node rank ahead of an earlier order placed on another.
   @Id
   @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
   @SequenceGenerator(
@@ -43,6 +47,13 @@ public class OrderEntity {
   @Enumerated(EnumType.STRING)
   private OrderStatus status;
 
+  // Membership priority, higher is served first within a queue
+  private int priority;
+
+  // Set by the database on insert and by the conditional status update
+  @Column(insertable = false, updatable = false)
+  private Instant statusChangedAt;
+
   @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
   private List<OrderItemEntity> items = new ArrayList<>();
 
@@ -23,10 +23,10 @@ import lombok.Setter;
 @AllArgsConstructor
 public class OrderItemEntity {
 
+  // Ids are handed out in blocks of 50 per nextval (pooled-lo), matching the sequence increment
   @Id
   @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
-  @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 1)
-
+  @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 50)
   private Long id;
 
   private UUID menuItemId;
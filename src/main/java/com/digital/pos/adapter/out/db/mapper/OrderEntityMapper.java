@@ -2,6 +2,7 @@ package com.digital.pos.adapter.out.db.mapper;
 
 import com.digital.pos.adapter.out.db.entity.OrderEntity;
 import com.digital.pos.adapter.out.db.entity.OrderItemEntity;
+import com.digital.pos.adapter.out.db.repository.OrderHeader;
 import com.digital.pos.domain.model.Order;
 import com.digital.pos.domain.model.OrderItem;
 import java.util.List;
@@ -16,6 +17,7 @@ public class OrderEntityMapper {
     entity.setShopId(order.getShopId());
     entity.setQueueNumber(order.getQueueNumber());
     entity.setStatus(order.getStatus());
+    entity.setPriority(order.getPriority());
 
     List<OrderItemEntity> itemEntities = order.getItems().stream()
         .map(i -> new OrderItemEntity(null, i.menuItemId(), i.quantity(), i.price(), entity))
@@ -35,10 +37,24 @@ public class OrderEntityMapper {
         .shopId(entity.getShopId())
         .queueNumber(entity.getQueueNumber())
         .status(entity.getStatus())
+        .priority(entity.getPriority())
+        .statusChangedAt(entity.getStatusChangedAt())
         .items(items)
         .build();
   }
 
+  public Order toDomain(OrderHeader header) {
+    return Order.builder()
+        .id(header.id())
+        .shopId(header.shopId())
+        .queueNumber(header.queueNumber())
+        .status(header.status())
+        .priority(header.priority())
+        .statusChangedAt(header.statusChangedAt())
+        .items(List.of())
+        .build();
+  }
+
   public List<Order> toDomainList(List<OrderEntity> entities) {
     return entities.stream()
         .map(this::toDomain)
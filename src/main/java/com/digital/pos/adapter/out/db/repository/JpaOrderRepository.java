@@ -2,15 +2,97 @@ package com.digital.pos.adapter.out.db.repository;
 
 import com.digital.pos.adapter.out.db.entity.OrderEntity;
 import com.digital.pos.domain.model.OrderStatus;
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 public interface JpaOrderRepository extends JpaRepository<OrderEntity, Long> {
 
-  List<OrderEntity> findByShopIdAndStatus(UUID shopId, OrderStatus orderStatus);
+  @Override
+  @EntityGraph(attributePaths = "items")
+  Optional<OrderEntity> findById(Long id);
+
+  @Query("""
+          SELECT new com.digital.pos.adapter.out.db.repository.WaitingOrderRow(o.id, o.queueNumber, o.priority)
+          FROM OrderEntity o
+          WHERE o.shopId = :shopId
+            AND o.status = 'WAITING'
+      """)
+  List<WaitingOrderRow> findWaitingOrderRows(@Param("shopId") UUID shopId);
+
+  @Query("SELECT DISTINCT o.shopId FROM OrderEntity o WHERE o.status = :status")
+  List<UUID> findDistinctShopIdsByStatus(@Param("status") OrderStatus status);
+
+  @Query("""
+          SELECT new com.digital.pos.adapter.out.db.repository.QueueCount(o.queueNumber, COUNT(o))
+          FROM OrderEntity o
+          WHERE o.shopId = :shopId
+            AND o.status = 'WAITING'
+          GROUP BY o.queueNumber
+      """)
+  List<QueueCount> countWaitingByQueue(@Param("shopId") UUID shopId);
+
+  @Query("""
+          SELECT new com.digital.pos.adapter.out.db.repository.OrderHeader(o.id, o.shopId, o.queueNumber, o.status,
+              o.priority, o.statusChangedAt)
+          FROM OrderEntity o
+          WHERE o.id = :orderId
+      """)
+  Optional<OrderHeader> findHeaderById(@Param("orderId") Long orderId);
+
+  @Modifying(flushAutomatically = true)
+  @Query("""
+          UPDATE OrderEntity o
+          SET o.status = :target,
+              o.statusChangedAt = INSTANT
+          WHERE o.id = :orderId
+            AND o.status = :expected
+      """)
+  int updateStatus(@Param("orderId") Long orderId, @Param("expected") OrderStatus expected,
+      @Param("target") OrderStatus target);
+
+  @Query(value = """
+          SELECT id
+          FROM orders
+          WHERE status IN ('SERVED', 'CANCELED')
+            AND status_changed_at < :changedBefore
+          ORDER BY status_changed_at
+          LIMIT :limit
+          FOR UPDATE SKIP LOCKED
+      """, nativeQuery = true)
+  List<Long> lockTerminalOrderIds(@Param("changedBefore") Instant changedBefore, @Param("limit") int limit);
+
+  @Modifying
+  @Query(value = """
+          INSERT INTO order_items_archive (id, order_id, menu_item_id, quantity, price)
+          SELECT id, order_id, menu_item_id, quantity, price
+          FROM order_items
+          WHERE order_id IN (:orderIds)
+      """, nativeQuery = true)
+  int copyItemsToArchive(@Param("orderIds") List<Long> orderIds);
+
+  @Modifying
+  @Query(value = """
+          INSERT INTO orders_archive (id, shop_id, queue_number, status, priority, status_changed_at)
+          SELECT id, shop_id, queue_number, status, priority, status_changed_at
+          FROM orders
+          WHERE id IN (:orderIds)
+      """, nativeQuery = true)
+  int copyOrdersToArchive(@Param("orderIds") List<Long> orderIds);
+
+  @Modifying
+  @Query(value = "DELETE FROM order_items WHERE order_id IN (:orderIds)", nativeQuery = true)
+  int deleteItemsByOrderIds(@Param("orderIds") List<Long> orderIds);
+
+  @Modifying
+  @Query(value = "DELETE FROM orders WHERE id IN (:orderIds)", nativeQuery = true)
+  int deleteOrdersByIds(@Param("orderIds") List<Long> orderIds);
 
   @Query("""
           SELECT COUNT(o2) + 1
@@ -19,7 +101,7 @@ public interface JpaOrderRepository extends JpaRepository<OrderEntity, Long> {
             ON o2.shopId = o1.shopId AND o2.queueNumber = o1.queueNumber
           WHERE o1.id = :orderId
             AND o2.status = 'WAITING'
-            AND o2.id < o1.id
+            AND (o2.priority > o1.priority OR o2.priority = o1.priority AND o2.id < o1.id)
       """)
   Integer findPositionInQueueOrderById(@Param("orderId") Long orderId);
 }
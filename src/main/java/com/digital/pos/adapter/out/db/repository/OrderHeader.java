@@ -0,0 +1,13 @@
+package com.digital.pos.adapter.out.db.repository;
+
+import com.digital.pos.domain.model.OrderStatus;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The columns of an order row without its items.
+ */
+public record OrderHeader(Long id, UUID shopId, Integer queueNumber, OrderStatus status, int priority,
+                          Instant statusChangedAt) {
+
+}
@@ -0,0 +1,5 @@
+package com.digital.pos.adapter.out.db.repository;
+
+public record QueueCount(Integer queueNumber, Long count) {
+
+}
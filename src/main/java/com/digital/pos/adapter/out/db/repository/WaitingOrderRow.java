@@ -0,0 +1,5 @@
+package com.digital.pos.adapter.out.db.repository;
+
+public record WaitingOrderRow(Long id, Integer queueNumber, int priority) {
+
+}
@@ -1,6 +1,7 @@
 package com.digital.pos.adapter.out.lock;
 
 import com.digital.pos.application.port.out.LockService;
+import com.digital.pos.domain.exception.LockTimeoutException;
 import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
@@ -24,7 +25,7 @@ public class RedisLockService implements LockService {
     try {
       acquired = lock.tryLock(timeout.toMillis(), leaseTime.toMillis(), TimeUnit.MILLISECONDS);
       if (!acquired) {
-        throw new IllegalStateException("Unable to acquire lock for key: " + key);
+        throw new LockTimeoutException(key);
       }
       return action.get();
     } catch (InterruptedException e) {
@@ -0,0 +1,126 @@
+package com.digital.pos.adapter.out.menu;
+
+import com.digital.pos.application.port.out.MenuService;
+import com.digital.pos.domain.model.MenuCatalog;
+import com.digital.pos.domain.model.MenuItem;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.codec.SerializationCodec;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+/**
+ * Caches one {@link MenuCatalog} per shop in front of the menu service. Entries are refreshed in the background once
+ * they are older than {@code refresh-after} and dropped after {@code ttl}; concurrent misses for the same shop share a
+ * single remote call. Invalidations are broadcast on the {@code menu-invalidation} topic, which the menu service can
+ * also publish to when a menu changes. Only the invalidating node evicts the shared {@code menu-items} entry, the
+ * receivers drop their catalog and near copy, so an invalidation costs one Redis delete however many nodes run.
+ * <p>
+ * A miss is loaded by the first caller on its own thread, outside the cache's map lock; concurrent callers for the
+ * same shop park on its future instead of blocking (and, on a virtual thread, pinning) the thread holding that lock.
+ * Misses are never queued on the task executor: callers may themselves be running on it, and a saturated pool whose
+ * workers all wait for loads queued behind them would never make progress. Only background refreshes, which nobody
+ * waits for, run there.
+ */
+@Service
+@Primary
+@Slf4j
+public class CachingMenuService implements MenuService {
+
+  static final String INVALIDATION_TOPIC = "menu-invalidation";
+
+  private final MenuServiceImpl menuService;
+  private final AsyncLoadingCache<UUID, MenuCatalog> catalogs;
+  private final RTopic invalidationTopic;
+
+  public CachingMenuService(MenuServiceImpl menuService, RedissonClient redissonClient, MeterRegistry meterRegistry,
+      @Qualifier("applicationTaskExecutor") Executor loadExecutor,
+      @Value("${pos.menu.cache.ttl:PT5M}") Duration ttl,
+      @Value("${pos.menu.cache.refresh-after:PT1M}") Duration refreshAfter,
+      @Value("${pos.menu.cache.maximum-size:10000}") long maximumSize) {
+    this.menuService = menuService;
+    this.catalogs = Caffeine.newBuilder()
+        .executor(loadExecutor)
+        .expireAfterWrite(ttl)
+        .refreshAfterWrite(refreshAfter)
+        .maximumSize(maximumSize)
+        .recordStats()
+        .buildAsync(this::loadCatalog);
+    CaffeineCacheMetrics.monitor(meterRegistry, catalogs.synchronous(), "menu-catalog");
+
+    this.invalidationTopic = redissonClient.getTopic(INVALIDATION_TOPIC, new SerializationCodec());
+    // the publisher evicts the shared copy once, every node (the publisher too) only drops its own copies
+    this.invalidationTopic.addListener(UUID.class, (channel, shopId) -> {
+      menuService.invalidateLocal(shopId);
+      catalogs.synchronous().invalidate(shopId);
+    });
+  }
+
+  @Override
+  public Set<MenuItem> getAvailableItemIds(UUID shopId) {
+    return Set.copyOf(getCatalog(shopId).items().values());
+  }
+
+  @Override
+  public MenuCatalog getCatalog(UUID shopId) {
+    CompletableFuture<MenuCatalog> cached = catalogs.getIfPresent(shopId);
+    if (cached == null) {
+      CompletableFuture<MenuCatalog> load = new CompletableFuture<>();
+      cached = catalogs.asMap().putIfAbsent(shopId, load);
+      if (cached == null) {
+        return loadInto(shopId, load);
+      }
+    }
+    return await(cached);
+  }
+
+  private MenuCatalog loadInto(UUID shopId, CompletableFuture<MenuCatalog> load) {
+    try {
+      MenuCatalog catalog = loadCatalog(shopId);
+      load.complete(catalog);
+      return catalog;
+    } catch (RuntimeException e) {
+      // the failed future is dropped, so the next caller retries
+      catalogs.asMap().remove(shopId, load);
+      load.completeExceptionally(e);
+      throw e;
+    }
+  }
+
+  private MenuCatalog loadCatalog(UUID shopId) {
+    return MenuCatalog.of(shopId, menuService.getAvailableItemIds(shopId));
+  }
+
+  private MenuCatalog await(CompletableFuture<MenuCatalog> catalog) {
+    try {
+      return catalog.join();
+    } catch (CompletionException e) {
+      // surface the client's own exception, as the synchronous cache did
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  @Override
+  public void invalidate(UUID shopId) {
+    log.info("Invalidating menu catalog of shop {}", shopId);
+    menuService.invalidate(shopId);
+    catalogs.synchronous().invalidate(shopId);
+    invalidationTopic.publish(shopId);
+  }
+}
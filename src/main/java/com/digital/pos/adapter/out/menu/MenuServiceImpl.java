@@ -1,5 +1,6 @@
 package com.digital.pos.adapter.out.menu;
 
+import com.digital.pos.adapter.out.cache.TwoTierCache;
 import com.digital.pos.application.port.out.MenuService;
 import com.digital.pos.domain.model.MenuItem;
 import java.util.List;
@@ -8,16 +9,25 @@ import java.util.UUID;
 import java.util.stream.Collectors;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
+/**
+ * Menu lookups, shared between nodes through the two-tier {@code menu-items} cache so that the per-node catalog caches
+ * refreshing at the same time cost one call to the menu service.
+ */
 @Service
 @AllArgsConstructor
 @Slf4j
 public class MenuServiceImpl implements MenuService {
 
   private MenuClient menuClient;
+  private CacheManager cacheManager;
 
   @Override
+  @Cacheable(value = "menu-items", key = "#shopId", sync = true)
   public Set<MenuItem> getAvailableItemIds(UUID shopId) {
     log.debug("Fetching available menu items for shop {}", shopId);
     List<MenuItemResponse> allItems = menuClient.getMenuItemsByShopId(shopId);
@@ -27,4 +37,19 @@ public class MenuServiceImpl implements MenuService {
         .map(dto -> new MenuItem(dto.menuItemId(), dto.name(), dto.price(), dto.available()))
         .collect(Collectors.toSet());
   }
+
+  @Override
+  @CacheEvict(value = "menu-items", key = "#shopId")
+  public void invalidate(UUID shopId) {
+    log.debug("Evicting shared menu items of shop {}", shopId);
+  }
+
+  /**
+   * Drops only this node's near copy of the shop's menu items; the shared entry is left to the node that evicted it.
+   */
+  public void invalidateLocal(UUID shopId) {
+    if (cacheManager.getCache("menu-items") instanceof TwoTierCache cache) {
+      cache.invalidateLocal(shopId);
+    }
+  }
 }
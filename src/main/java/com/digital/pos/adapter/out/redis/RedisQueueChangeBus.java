@@ -0,0 +1,31 @@
+package com.digital.pos.adapter.out.redis;
+
+import com.digital.pos.application.port.out.QueueChangeBus;
+import com.digital.pos.domain.model.QueueChange;
+import java.util.function.Consumer;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.codec.SerializationCodec;
+import org.springframework.stereotype.Component;
+
+@Component
+public class RedisQueueChangeBus implements QueueChangeBus {
+
+  private static final String TOPIC = "queue-changes";
+
+  private final RTopic topic;
+
+  public RedisQueueChangeBus(RedissonClient redissonClient) {
+    this.topic = redissonClient.getTopic(TOPIC, new SerializationCodec());
+  }
+
+  @Override
+  public void publish(QueueChange change) {
+    topic.publish(change);
+  }
+
+  @Override
+  public void subscribe(Consumer<QueueChange> listener) {
+    topic.addListener(QueueChange.class, (channel, change) -> listener.accept(change));
+  }
+}
@@ -0,0 +1,213 @@
+package com.digital.pos.adapter.out.redis;
+
+import com.digital.pos.application.port.out.QueueSlotStore;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.redisson.api.RScript;
+import org.redisson.api.RScript.Mode;
+import org.redisson.api.RScript.ReturnType;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the slot counters of a shop in the hash {@code queue-slots:{shopId}} (one field per queue number) and mutates
+ * them only through Lua scripts, so a reservation is a single atomic round trip. The {@code _seq} and {@code _ts}
+ * fields track the number and time of the last change for reconciliation, {@code _rts} the time the counters were last
+ * seeded or reconciled.
+ */
+@Component
+@RequiredArgsConstructor
+public class RedisQueueSlotStore implements QueueSlotStore {
+
+  private static final String KEY_PREFIX = "queue-slots:";
+  private static final String SHOPS_KEY = "queue-slots:shops";
+  private static final long NOT_INITIALIZED = -2;
+  private static final long ALL_FULL = -1;
+  // hashes seeded before _rts was recorded count as never reconciled
+  private static final Instant NEVER_RECONCILED = Instant.EPOCH;
+
+  private static final String MARK_CHANGED = """
+      local function millis()
+        local now = redis.call('TIME')
+        return now[1] * 1000 + math.floor(now[2] / 1000)
+      end
+      local function mark(key)
+        redis.call('HINCRBY', key, '_seq', 1)
+        redis.call('HSET', key, '_ts', millis())
+      end
+      """;
+
+  // ARGV: queue number / capacity pairs, sorted by queue number
+  private static final String RESERVE = MARK_CHANGED + """
+      if redis.call('EXISTS', KEYS[1]) == 0 then
+        return -2
+      end
+      local best = -1
+      local bestFree = 0
+      for i = 1, #ARGV, 2 do
+        local free = tonumber(ARGV[i + 1]) - tonumber(redis.call('HGET', KEYS[1], ARGV[i]) or '0')
+        if free > bestFree then
+          best = ARGV[i]
+          bestFree = free
+        end
+      end
+      if best == -1 then
+        return -1
+      end
+      redis.call('HINCRBY', KEYS[1], best, 1)
+      mark(KEYS[1])
+      return tonumber(best)
+      """;
+
+  // ARGV[1]: queue number
+  private static final String RELEASE = MARK_CHANGED + """
+      if redis.call('EXISTS', KEYS[1]) == 0 then
+        return 0
+      end
+      if redis.call('HINCRBY', KEYS[1], ARGV[1], -1) < 0 then
+        redis.call('HSET', KEYS[1], ARGV[1], 0)
+      end
+      mark(KEYS[1])
+      return 1
+      """;
+
+  // ARGV: queue number / count pairs
+  private static final String INITIALIZE = MARK_CHANGED + """
+      if redis.call('EXISTS', KEYS[1]) == 1 then
+        return 0
+      end
+      for i = 1, #ARGV, 2 do
+        redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1])
+      end
+      mark(KEYS[1])
+      redis.call('HSET', KEYS[1], '_rts', millis())
+      return 1
+      """;
+
+  // ARGV[1]: expected sequence, ARGV[2]: quiet period in millis, then queue number / count pairs
+  private static final String RECONCILE = MARK_CHANGED + """
+      local seq = redis.call('HGET', KEYS[1], '_seq')
+      if not seq or tonumber(seq) ~= tonumber(ARGV[1]) then
+        return 0
+      end
+      local lastChange = tonumber(redis.call('HGET', KEYS[1], '_ts') or '0')
+      local now = millis()
+      if now - lastChange < tonumber(ARGV[2]) then
+        return 0
+      end
+      redis.call('DEL', KEYS[1])
+      for i = 3, #ARGV, 2 do
+        redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1])
+      end
+      redis.call('HSET', KEYS[1], '_seq', tonumber(seq) + 1, '_ts', lastChange, '_rts', now)
+      return 1
+      """;
+
+  private final RedissonClient redissonClient;
+  private final Map<String, String> scriptShas = new ConcurrentHashMap<>();
+
+  private static String key(UUID shopId) {
+    return KEY_PREFIX + shopId;
+  }
+
+  private static List<Object> pairs(Map<Integer, Integer> values) {
+    List<Object> args = new ArrayList<>();
+    new TreeMap<>(values).forEach((queueNumber, value) -> {
+      args.add(String.valueOf(queueNumber));
+      args.add(String.valueOf(value));
+    });
+    return args;
+  }
+
+  @Override
+  public OptionalInt reserve(UUID shopId, Map<Integer, Integer> capacities) {
+    long result = eval(RESERVE, key(shopId), pairs(capacities));
+    if (result == NOT_INITIALIZED) {
+      throw new IllegalStateException("Queue slots are not initialized for shop " + shopId);
+    }
+    return result == ALL_FULL ? OptionalInt.empty() : OptionalInt.of((int) result);
+  }
+
+  @Override
+  public void release(UUID shopId, int queueNumber) {
+    eval(RELEASE, key(shopId), List.of(String.valueOf(queueNumber)));
+  }
+
+  @Override
+  public void initialize(UUID shopId, Map<Integer, Integer> waitingCounts) {
+    eval(INITIALIZE, key(shopId), pairs(waitingCounts));
+    redissonClient.getSet(SHOPS_KEY, StringCodec.INSTANCE).add(shopId.toString());
+  }
+
+  @Override
+  public boolean isInitialized(UUID shopId) {
+    return redissonClient.getKeys().countExists(key(shopId)) > 0;
+  }
+
+  @Override
+  public Set<UUID> trackedShops() {
+    return redissonClient.<String>getSet(SHOPS_KEY, StringCodec.INSTANCE).readAll().stream()
+        .map(UUID::fromString)
+        .collect(Collectors.toSet());
+  }
+
+  @Override
+  public long sequence(UUID shopId) {
+    String sequence = redissonClient.<String, String>getMap(key(shopId), StringCodec.INSTANCE).get("_seq");
+    return sequence == null ? -1 : Long.parseLong(sequence);
+  }
+
+  @Override
+  public boolean reconcile(UUID shopId, long expectedSequence, Map<Integer, Integer> waitingCounts,
+      Duration quietPeriod) {
+    List<Object> args = new ArrayList<>();
+    args.add(String.valueOf(expectedSequence));
+    args.add(String.valueOf(quietPeriod.toMillis()));
+    args.addAll(pairs(waitingCounts));
+    return eval(RECONCILE, key(shopId), args) == 1;
+  }
+
+  @Override
+  public Optional<Instant> lastReconciled(UUID shopId) {
+    Map<String, String> fields = redissonClient.<String, String>getMap(key(shopId), StringCodec.INSTANCE)
+        .getAll(Set.of("_seq", "_rts"));
+    if (!fields.containsKey("_seq")) {
+      return Optional.empty();
+    }
+    String reconciledAt = fields.get("_rts");
+    return Optional.of(reconciledAt == null ? NEVER_RECONCILED : Instant.ofEpochMilli(Long.parseLong(reconciledAt)));
+  }
+
+  private long eval(String script, String key, List<Object> args) {
+    RScript rScript = redissonClient.getScript(StringCodec.INSTANCE);
+    String sha = scriptShas.get(script);
+    if (sha == null) {
+      // loaded outside computeIfAbsent so the Redis round trip never runs under the map's bin lock
+      sha = rScript.scriptLoad(script);
+      scriptShas.put(script, sha);
+    }
+    try {
+      return rScript.<Long>evalSha(Mode.READ_WRITE, sha, ReturnType.INTEGER, List.of(key), args.toArray());
+    } catch (RedisException e) {
+      if (e.getMessage() == null || !e.getMessage().contains("NOSCRIPT")) {
+        throw e;
+      }
+      // Redis lost its script cache (restart or failover), load it again
+      scriptShas.remove(script);
+      return rScript.<Long>eval(Mode.READ_WRITE, script, ReturnType.INTEGER, List.of(key), args.toArray());
+    }
+  }
+}
@@ -0,0 +1,26 @@
+package com.digital.pos.adapter.out.redis;
+
+import com.digital.pos.application.port.out.QueueStateVersionStore;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.redisson.api.RedissonClient;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class RedisQueueStateVersionStore implements QueueStateVersionStore {
+
+  private static final String KEY_PREFIX = "queue-state:version:";
+
+  private final RedissonClient redissonClient;
+
+  @Override
+  public long currentVersion(UUID shopId) {
+    return redissonClient.getAtomicLong(KEY_PREFIX + shopId).get();
+  }
+
+  @Override
+  public long nextVersion(UUID shopId) {
+    return redissonClient.getAtomicLong(KEY_PREFIX + shopId).incrementAndGet();
+  }
+}
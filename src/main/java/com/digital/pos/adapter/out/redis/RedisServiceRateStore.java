@@ -0,0 +1,108 @@
+package com.digital.pos.adapter.out.redis;
+
+import com.digital.pos.application.port.out.ServiceRateStore;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import org.redisson.api.RScript;
+import org.redisson.api.RScript.Mode;
+import org.redisson.api.RScript.ReturnType;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the estimates of a shop in the hash {@code service-rate:{shopId}}, two fields per queue: {@code <queue>:last},
+ * the Redis time of the last served order, and {@code <queue>:mean}, the estimate in milliseconds. Updates run as one
+ * Lua script on the Redis clock, so serves on any node fold into the same estimate atomically without a lock. Shops
+ * that stop serving expire after {@link #RETENTION}.
+ */
+@Component
+@RequiredArgsConstructor
+public class RedisServiceRateStore implements ServiceRateStore {
+
+  static final Duration RETENTION = Duration.ofDays(7);
+
+  private static final String KEY_PREFIX = "service-rate:";
+  private static final String MEAN_SUFFIX = ":mean";
+
+  // ARGV[1]: queue number, ARGV[2]: alpha, ARGV[3]: max interval in millis, ARGV[4]: retention in millis,
+  // ARGV[5]: epoch millis the order joined the queue, -1 if unknown
+  private static final String RECORD_SERVED = """
+      local now = redis.call('TIME')
+      local nowMillis = now[1] * 1000 + math.floor(now[2] / 1000)
+      local last = redis.call('HGET', KEYS[1], ARGV[1] .. ':last')
+      redis.call('HSET', KEYS[1], ARGV[1] .. ':last', nowMillis)
+      redis.call('PEXPIRE', KEYS[1], ARGV[4])
+      if not last then
+        return false
+      end
+      local started = math.max(tonumber(last), tonumber(ARGV[5]))
+      local interval = math.min(math.max(nowMillis - started, 0), tonumber(ARGV[3]))
+      local mean = redis.call('HGET', KEYS[1], ARGV[1] .. ':mean')
+      if mean then
+        local alpha = tonumber(ARGV[2])
+        mean = alpha * interval + (1 - alpha) * tonumber(mean)
+      else
+        mean = interval
+      end
+      redis.call('HSET', KEYS[1], ARGV[1] .. ':mean', tostring(mean))
+      return tostring(mean)
+      """;
+
+  private final RedissonClient redissonClient;
+  private final Map<String, String> scriptShas = new ConcurrentHashMap<>();
+
+  private static String key(UUID shopId) {
+    return KEY_PREFIX + shopId;
+  }
+
+  @Override
+  public OptionalDouble recordServed(UUID shopId, int queueNumber, Instant queuedAt, double alpha,
+      Duration maxInterval) {
+    String mean = eval(RECORD_SERVED, key(shopId), List.of(String.valueOf(queueNumber), String.valueOf(alpha),
+        String.valueOf(maxInterval.toMillis()), String.valueOf(RETENTION.toMillis()),
+        String.valueOf(queuedAt == null ? -1 : queuedAt.toEpochMilli())));
+    return mean == null ? OptionalDouble.empty() : OptionalDouble.of(Double.parseDouble(mean));
+  }
+
+  @Override
+  public Map<Integer, Double> meanServiceMillis(UUID shopId) {
+    Map<String, String> fields = redissonClient.<String, String>getMap(key(shopId), StringCodec.INSTANCE)
+        .readAllMap();
+    Map<Integer, Double> means = new HashMap<>();
+    fields.forEach((field, value) -> {
+      if (field.endsWith(MEAN_SUFFIX)) {
+        means.put(Integer.parseInt(field.substring(0, field.length() - MEAN_SUFFIX.length())),
+            Double.parseDouble(value));
+      }
+    });
+    return means;
+  }
+
+  private String eval(String script, String key, List<String> args) {
+    RScript rScript = redissonClient.getScript(StringCodec.INSTANCE);
+    String sha = scriptShas.get(script);
+    if (sha == null) {
+      sha = rScript.scriptLoad(script);
+      scriptShas.put(script, sha);
+    }
+    try {
+      return rScript.evalSha(Mode.READ_WRITE, sha, ReturnType.VALUE, List.of(key), args.toArray());
+    } catch (RedisException e) {
+      if (e.getMessage() == null || !e.getMessage().contains("NOSCRIPT")) {
+        throw e;
+      }
+      // Redis lost its script cache (restart or failover), load it again
+      scriptShas.remove(script);
+      return rScript.eval(Mode.READ_WRITE, script, ReturnType.VALUE, List.of(key), args.toArray());
+    }
+  }
+}
@@ -3,6 +3,7 @@ package com.digital.pos.adapter.out.shop;
 import com.digital.pos.application.port.out.ShopService;
 import com.digital.pos.domain.exception.ShopNotFoundException;
 import com.digital.pos.domain.model.ShopConfiguration;
+import com.digital.pos.domain.service.CompiledShopConfiguration;
 import feign.FeignException;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
@@ -11,6 +12,11 @@ import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 
+/**
+ * Shop lookups, cached in the two-tier {@code shop-exists} and {@code shop-config} caches. Loads are synchronized, so
+ * concurrent misses for a shop share one call to the shop service. Configurations with an unknown strategy or invalid
+ * capacities are rejected when loaded and never cached.
+ */
 @RequiredArgsConstructor
 @Component
 @Slf4j
@@ -19,7 +25,7 @@ public class ShopServiceImpl implements ShopService {
   private final ShopClient shopClient;
 
   @Override
-  @Cacheable(value = "shop-exists", key = "#shopId")
+  @Cacheable(value = "shop-exists", key = "#shopId", sync = true)
   public boolean existsById(UUID shopId) {
     try {
       ResponseEntity<Void> response = shopClient.checkShopExists(shopId);
@@ -32,13 +38,16 @@ public class ShopServiceImpl implements ShopService {
   }
 
   @Override
-  @Cacheable(value = "shop-config", key = "#shopId")
+  @Cacheable(value = "shop-config", key = "#shopId", sync = true)
   public ShopConfiguration getShopConfig(UUID shopId) {
     log.debug("Fetching shop config for {}", shopId);
     try {
       ShopConfigResponse configResponse = shopClient.getShopConfiguration(shopId);
-      return new ShopConfiguration(configResponse.shopId(), configResponse.queueStrategy(),
+      ShopConfiguration config = new ShopConfiguration(configResponse.shopId(), configResponse.queueStrategy(),
           configResponse.queueCapacities());
+      // rejected before it is cached, so a bad config fails its lookup instead of every order of the shop
+      CompiledShopConfiguration.compile(config);
+      return config;
     } catch (FeignException.NotFound e) {
       throw new ShopNotFoundException(shopId);
     } catch (FeignException e) {
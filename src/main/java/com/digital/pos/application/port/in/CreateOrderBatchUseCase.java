@@ -0,0 +1,10 @@
+package com.digital.pos.application.port.in;
+
+import com.digital.pos.adapter.in.rest.model.BatchCreateOrderRequest;
+import com.digital.pos.adapter.in.rest.model.BatchCreateOrderResponse;
+
+public interface CreateOrderBatchUseCase {
+
+  BatchCreateOrderResponse createOrderBatch(BatchCreateOrderRequest request);
+
+}
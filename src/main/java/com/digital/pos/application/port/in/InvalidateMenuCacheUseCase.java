@@ -0,0 +1,8 @@
+package com.digital.pos.application.port.in;
+
+import java.util.UUID;
+
+public interface InvalidateMenuCacheUseCase {
+
+  void invalidateMenuCache(UUID shopId);
+}
@@ -0,0 +1,11 @@
+package com.digital.pos.application.port.in;
+
+import java.util.UUID;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface StreamQueueEventsUseCase {
+
+  SseEmitter streamShopQueue(UUID shopId);
+
+  SseEmitter streamOrder(Long orderId);
+}
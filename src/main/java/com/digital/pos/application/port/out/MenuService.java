@@ -1,5 +1,6 @@
 package com.digital.pos.application.port.out;
 
+import com.digital.pos.domain.model.MenuCatalog;
 import com.digital.pos.domain.model.MenuItem;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
@@ -12,4 +13,14 @@ public interface MenuService {
 
 
   Set<MenuItem> getAvailableItemIds(@NotNull @Valid UUID shopId);
+
+  default MenuCatalog getCatalog(UUID shopId) {
+    return MenuCatalog.of(shopId, getAvailableItemIds(shopId));
+  }
+
+  /**
+   * Drops any cached catalog of the shop, on every node.
+   */
+  default void invalidate(UUID shopId) {
+  }
 }
@@ -0,0 +1,17 @@
+package com.digital.pos.application.port.out;
+
+import java.time.Instant;
+
+/**
+ * Cold storage for SERVED and CANCELED orders, so the live orders table only holds the working set.
+ */
+public interface OrderArchive {
+
+  /**
+   * Moves up to {@code batchSize} terminal orders whose status changed before {@code changedBefore}, together with
+   * their items, in one transaction. Orders locked by another archiver are skipped.
+   *
+   * @return the number of orders moved
+   */
+  int archiveTerminalOrders(Instant changedBefore, int batchSize);
+}
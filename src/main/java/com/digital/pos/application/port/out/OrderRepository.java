@@ -2,7 +2,9 @@ package com.digital.pos.application.port.out;
 
 import com.digital.pos.domain.model.Order;
 import com.digital.pos.domain.model.OrderStatus;
+import com.digital.pos.domain.model.QueueEntry;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -10,9 +12,38 @@ public interface OrderRepository {
 
   Order save(Order any);
 
-  List<Order> findByShopIdAndStatus(UUID shopId, OrderStatus orderStatus);
+  /**
+   * Saves the orders in one flush so the inserts can be sent as JDBC batches.
+   *
+   * @return the saved orders, in the given order
+   */
+  List<Order> saveAll(List<Order> orders);
 
+  /**
+   * Reads only the id and queue number of the WAITING orders of a shop, for the queue paths that do not need items.
+   */
+  List<QueueEntry> findWaitingQueueEntries(UUID shopId);
+
+  List<UUID> findShopIdsByStatus(OrderStatus orderStatus);
+
+  Map<Integer, Integer> countWaitingByQueue(UUID shopId);
+
+  /**
+   * Loads the order with its items in one query.
+   */
   Optional<Order> findById(Long orderId);
 
+  /**
+   * Reads the order row only, the returned order has no items.
+   */
+  Optional<Order> findWithoutItemsById(Long orderId);
+
+  /**
+   * Moves the order from {@code expected} to {@code target} status with a single conditional update.
+   *
+   * @return false if the order was not in {@code expected} status (or does not exist), nothing is changed then
+   */
+  boolean transitionStatus(Long orderId, OrderStatus expected, OrderStatus target);
+
   Integer findPositionInQueueOrderById(Long orderId);
 }
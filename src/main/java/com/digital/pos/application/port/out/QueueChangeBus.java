@@ -0,0 +1,14 @@
+package com.digital.pos.application.port.out;
+
+import com.digital.pos.domain.model.QueueChange;
+import java.util.function.Consumer;
+
+/**
+ * Cluster-wide broadcast of committed queue changes. Every node receives every change, including its own.
+ */
+public interface QueueChangeBus {
+
+  void publish(QueueChange change);
+
+  void subscribe(Consumer<QueueChange> listener);
+}
@@ -0,0 +1,53 @@
+package com.digital.pos.application.port.out;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Atomic per-queue slot counters of each shop, used to admit orders without holding the shop lock.
+ */
+public interface QueueSlotStore {
+
+  /**
+   * Atomically picks the queue with the most free slots and takes one slot in it.
+   *
+   * @param capacities queue number to capacity
+   * @return the reserved queue, empty if all queues are full
+   * @throws IllegalStateException if the counters of the shop are not initialized
+   */
+  OptionalInt reserve(UUID shopId, Map<Integer, Integer> capacities);
+
+  void release(UUID shopId, int queueNumber);
+
+  /**
+   * Seeds the counters of a shop unless another caller already did.
+   */
+  void initialize(UUID shopId, Map<Integer, Integer> waitingCounts);
+
+  boolean isInitialized(UUID shopId);
+
+  Set<UUID> trackedShops();
+
+  /**
+   * @return the number of changes applied to the counters of the shop so far, or -1 if they are not initialized
+   */
+  long sequence(UUID shopId);
+
+  /**
+   * Replaces the counters with {@code waitingCounts} if nothing changed since {@code expectedSequence} was read and
+   * the last change is older than {@code quietPeriod}, so orders still in flight are not overwritten.
+   *
+   * @return true if the counters were replaced
+   */
+  boolean reconcile(UUID shopId, long expectedSequence, Map<Integer, Integer> waitingCounts, Duration quietPeriod);
+
+  /**
+   * @return when the counters of the shop were last seeded or reconciled, empty if they are not initialized
+   */
+  Optional<Instant> lastReconciled(UUID shopId);
+}
@@ -0,0 +1,14 @@
+package com.digital.pos.application.port.out;
+
+import java.util.UUID;
+
+/**
+ * Cluster-wide version counter of each shop's queue state. Every committed queue change bumps the version, so nodes
+ * can tell whether their in-memory view of a shop is still current.
+ */
+public interface QueueStateVersionStore {
+
+  long currentVersion(UUID shopId);
+
+  long nextVersion(UUID shopId);
+}
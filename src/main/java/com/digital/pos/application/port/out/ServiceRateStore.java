@@ -0,0 +1,30 @@
+package com.digital.pos.application.port.out;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.UUID;
+
+/**
+ * Shared per-queue service time estimates, an exponentially weighted moving average (EWMA) of the time it took to
+ * serve each order of the queue, kept in O(1) space per queue.
+ */
+public interface ServiceRateStore {
+
+  /**
+   * Records that an order of the queue was served now and folds its service time into the estimate:
+   * {@code mean = alpha * interval + (1 - alpha) * mean}. The interval runs from the previous serve, or from when the
+   * order joined the queue if that was later, so time the queue sat empty is not counted as service. Intervals are
+   * capped at {@code maxInterval}.
+   *
+   * @param queuedAt when the order joined the queue, null if unknown
+   * @return the updated estimate in milliseconds, empty if this is the first order served from the queue
+   */
+  OptionalDouble recordServed(UUID shopId, int queueNumber, Instant queuedAt, double alpha, Duration maxInterval);
+
+  /**
+   * @return queue number to estimated service interval in milliseconds, for the queues observed so far
+   */
+  Map<Integer, Double> meanServiceMillis(UUID shopId);
+}
@@ -0,0 +1,38 @@
+package com.digital.pos.application.service;
+
+import com.digital.pos.domain.model.MembershipTier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decides the membership tier an order is ranked with. The tier comes from the request and is not verified here: this
+ * service has no membership data, so it trusts the cashier and kiosk clients, which authenticate the member, to send
+ * it. Deployments where customer-facing clients can call the order API directly set
+ * {@code pos.order.membership-tier.trust-requests} to false, and every order is then ranked as a regular one.
+ */
+@Component
+@Slf4j
+public class MembershipTierPolicy {
+
+  private final boolean trustRequests;
+
+  public MembershipTierPolicy(@Value("${pos.order.membership-tier.trust-requests:true}") boolean trustRequests) {
+    this.trustRequests = trustRequests;
+  }
+
+  /**
+   * @param requestTier the request enum, whose values are the tier names; absent means a regular member
+   * @param rankedByTier whether the shop ranks by tier, everywhere else orders are served first come, first served
+   */
+  public MembershipTier resolve(Object requestTier, boolean rankedByTier) {
+    if (requestTier == null || !rankedByTier) {
+      return MembershipTier.REGULAR;
+    }
+    if (!trustRequests) {
+      log.debug("Ignoring membership tier {} sent by the client, tiers from requests are not trusted", requestTier);
+      return MembershipTier.REGULAR;
+    }
+    return MembershipTier.valueOf(requestTier.toString());
+  }
+}
@@ -0,0 +1,19 @@
+package com.digital.pos.application.service;
+
+import com.digital.pos.application.port.in.InvalidateMenuCacheUseCase;
+import com.digital.pos.application.port.out.MenuService;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class MenuCatalogService implements InvalidateMenuCacheUseCase {
+
+  private final MenuService menuService;
+
+  @Override
+  public void invalidateMenuCache(UUID shopId) {
+    menuService.invalidate(shopId);
+  }
+}
@@ -0,0 +1,68 @@
+package com.digital.pos.application.service;
+
+import com.digital.pos.application.port.out.OrderArchive;
+import java.time.Duration;
+import java.time.Instant;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically moves SERVED and CANCELED orders older than the retention to the archive, so queue queries keep working
+ * on a small live table. Each run archives at most {@code maxBatchesPerRun} batches and pauses between them, which
+ * bounds the write load and lock time when a large backlog builds up; the rest is picked up by later runs.
+ */
+@Component
+@ConditionalOnProperty(name = "pos.archive.enabled", havingValue = "true")
+@Slf4j
+public class OrderArchiver {
+
+  private final OrderArchive orderArchive;
+  private final Duration retention;
+  private final int batchSize;
+  private final int maxBatchesPerRun;
+  private final Duration batchPause;
+
+  public OrderArchiver(OrderArchive orderArchive,
+      @Value("${pos.archive.retention:P7D}") Duration retention,
+      @Value("${pos.archive.batch-size:500}") int batchSize,
+      @Value("${pos.archive.max-batches-per-run:20}") int maxBatchesPerRun,
+      @Value("${pos.archive.batch-pause:PT0.2S}") Duration batchPause) {
+    this.orderArchive = orderArchive;
+    this.retention = retention;
+    this.batchSize = batchSize;
+    this.maxBatchesPerRun = maxBatchesPerRun;
+    this.batchPause = batchPause;
+  }
+
+  @Scheduled(fixedDelayString = "${pos.archive.interval:PT5M}")
+  public void archive() {
+    Instant changedBefore = Instant.now().minus(retention);
+    int archived = 0;
+    for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+      int moved = orderArchive.archiveTerminalOrders(changedBefore, batchSize);
+      archived += moved;
+      if (moved < batchSize || !pause()) {
+        break;
+      }
+    }
+    if (archived > 0) {
+      log.info("Archived {} orders whose status changed before {}", archived, changedBefore);
+    }
+  }
+
+  private boolean pause() {
+    if (batchPause.isZero()) {
+      return true;
+    }
+    try {
+      Thread.sleep(batchPause.toMillis());
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+}
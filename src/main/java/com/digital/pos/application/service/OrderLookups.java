@@ -0,0 +1,168 @@
+package com.digital.pos.application.service;
+
+import com.digital.pos.application.port.out.MenuService;
+import com.digital.pos.application.port.out.ShopService;
+import com.digital.pos.application.service.OrderMetrics.Stage;
+import com.digital.pos.domain.exception.LookupRejectedException;
+import com.digital.pos.domain.exception.LookupTimeoutException;
+import com.digital.pos.domain.exception.ShopNotFoundException;
+import com.digital.pos.domain.model.MenuCatalog;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Issues the remote lookups an order needs before queue assignment at once on a bounded pool of its own, so a
+ * cold-cache create waits for the slowest of them instead of their sum. The pool is not shared with the cache loaders
+ * the lookups may wait on, and a create it cannot take is rejected as {@link LookupRejectedException} (503) with none
+ * of its lookups left running. The shop configuration is fetched only to warm
+ * the cache that queue assignment reads while holding the shop lock.
+ * <p>
+ * All lookups share one deadline. The first failure ends the wait for the others, except that a failed menu or
+ * configuration lookup still waits for the existence check, so an unknown shop is reported as such rather than as a
+ * client error. Lookups that have not started are cancelled; running ones are not interrupted, because they may be
+ * loading a cache entry that other requests are waiting for, and finish within their client timeouts.
+ */
+@Component
+class OrderLookups {
+
+  private final ShopService shopService;
+  private final MenuService menuService;
+  private final OrderMetrics metrics;
+  private final Executor executor;
+  private final Duration timeout;
+
+  @Autowired
+  OrderLookups(ShopService shopService, MenuService menuService, OrderMetrics metrics,
+      @Value("${pos.order.lookup-threads:32}") int threads,
+      @Value("${pos.order.lookup-queue-capacity:256}") int queueCapacity,
+      @Value("${pos.order.lookup-timeout:PT3S}") Duration timeout) {
+    this(shopService, menuService, metrics, newLookupPool(threads, queueCapacity), timeout);
+  }
+
+  OrderLookups(ShopService shopService, MenuService menuService, OrderMetrics metrics, Executor executor,
+      Duration timeout) {
+    this.shopService = shopService;
+    this.menuService = menuService;
+    this.metrics = metrics;
+    this.executor = executor;
+    this.timeout = timeout;
+  }
+
+  private static ExecutorService newLookupPool(int threads, int queueCapacity) {
+    ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("order-lookup-"));
+    pool.allowCoreThreadTimeOut(true);
+    return pool;
+  }
+
+  private static RuntimeException unwrap(ExecutionException e) {
+    if (e.getCause() instanceof RuntimeException cause) {
+      return cause;
+    }
+    if (e.getCause() instanceof Error error) {
+      throw error;
+    }
+    return new IllegalStateException(e.getCause());
+  }
+
+  /**
+   * @return the menu of the shop
+   * @throws ShopNotFoundException  when the shop does not exist
+   * @throws LookupTimeoutException when the lookups did not complete within {@code pos.order.lookup-timeout}
+   * @throws LookupRejectedException when the lookup pool is saturated
+   */
+  MenuCatalog validateShopAndFetchMenu(UUID shopId) {
+    return metrics.time(Stage.LOOKUPS, () -> {
+      CompletionService<Object> completion = new ExecutorCompletionService<>(executor);
+      List<Future<Object>> lookups = new ArrayList<>(3);
+      try {
+        Future<Object> exists = submit(completion, lookups, () -> {
+          metrics.time(Stage.SHOP_VALIDATION, () -> validateShopExists(shopId));
+          return Boolean.TRUE;
+        });
+        submit(completion, lookups, () -> shopService.getShopConfig(shopId));
+        Future<Object> menu = submit(completion, lookups,
+            () -> metrics.time(Stage.MENU_FETCH, () -> menuService.getCatalog(shopId)));
+
+        long deadline = System.nanoTime() + timeout.toNanos();
+        for (int completed = 0; completed < lookups.size(); completed++) {
+          Future<Object> done = completion.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+          if (done == null) {
+            throw new LookupTimeoutException(shopId, timeout);
+          }
+          try {
+            done.get();
+          } catch (ExecutionException e) {
+            if (done != exists) {
+              awaitExistenceCheck(exists, deadline);
+            }
+            throw unwrap(e);
+          }
+        }
+        return (MenuCatalog) menu.get();
+      } catch (RejectedExecutionException e) {
+        throw new LookupRejectedException(shopId, e);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while looking up shop " + shopId, e);
+      } catch (ExecutionException e) {
+        throw unwrap(e);
+      } finally {
+        lookups.forEach(lookup -> lookup.cancel(false));
+      }
+    });
+  }
+
+  @PreDestroy
+  void shutdown() {
+    if (executor instanceof ExecutorService pool) {
+      pool.shutdownNow();
+    }
+  }
+
+  // Added to lookups as soon as it is accepted, so it is cancelled even if a later lookup is rejected.
+  private static Future<Object> submit(CompletionService<Object> completion, List<Future<Object>> lookups,
+      Callable<Object> lookup) {
+    Future<Object> future = completion.submit(lookup);
+    lookups.add(future);
+    return future;
+  }
+
+  // Throws ShopNotFoundException if the check finishes before the deadline and finds no shop.
+  private void awaitExistenceCheck(Future<Object> exists, long deadline) throws InterruptedException {
+    try {
+      exists.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof ShopNotFoundException notFound) {
+        throw notFound;
+      }
+    } catch (TimeoutException e) {
+      // report the failure that did happen
+    }
+  }
+
+  private void validateShopExists(UUID shopId) {
+    if (!shopService.existsById(shopId)) {
+      throw new ShopNotFoundException(shopId);
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package com.digital.pos.application.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times the stages of order creation as {@code pos.order.create.stage}, tagged with the stage name. Lock wait and hold
+ * are recorded by the lock service as {@code pos.lock.wait} and {@code pos.lock.hold}.
+ */
+@Component
+class OrderMetrics {
+
+  private final Map<Stage, Timer> timers = new EnumMap<>(Stage.class);
+
+  OrderMetrics(MeterRegistry meterRegistry) {
+    for (Stage stage : Stage.values()) {
+      timers.put(stage, Timer.builder("pos.order.create.stage")
+          .description("Time spent in one stage of order creation")
+          .tag("stage", stage.name().toLowerCase())
+          .register(meterRegistry));
+    }
+  }
+
+  <T> T time(Stage stage, Supplier<T> action) {
+    return timers.get(stage).record(action);
+  }
+
+  void time(Stage stage, Runnable action) {
+    timers.get(stage).record(action);
+  }
+
+  enum Stage {
+    // LOOKUPS spans SHOP_VALIDATION and MENU_FETCH, which run concurrently
+    LOOKUPS, SHOP_VALIDATION, MENU_FETCH, ASSIGNMENT, SAVE, POSITION
+  }
+}
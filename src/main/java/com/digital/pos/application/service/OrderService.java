@@ -1,37 +1,44 @@
 package com.digital.pos.application.service;
 
+import com.digital.pos.adapter.in.rest.model.BatchCreateOrderRequest;
+import com.digital.pos.adapter.in.rest.model.BatchCreateOrderResponse;
+import com.digital.pos.adapter.in.rest.model.BatchOrderError;
+import com.digital.pos.adapter.in.rest.model.BatchOrderRequest;
+import com.digital.pos.adapter.in.rest.model.BatchOrderResult;
 import com.digital.pos.adapter.in.rest.model.CreateOrderRequest;
 import com.digital.pos.adapter.in.rest.model.OrderCreatedResponse;
+import com.digital.pos.adapter.in.rest.model.OrderItemRequest;
 import com.digital.pos.adapter.in.rest.model.OrderItemSummary;
 import com.digital.pos.adapter.in.rest.model.OrderStatusResponse;
 import com.digital.pos.application.mapper.OrderItemMapper;
 import com.digital.pos.application.mapper.OrderMapper;
 import com.digital.pos.application.port.in.CancelOrderUseCase;
+import com.digital.pos.application.port.in.CreateOrderBatchUseCase;
 import com.digital.pos.application.port.in.CreateOrderUseCase;
 import com.digital.pos.application.port.in.GetOrderUseCase;
 import com.digital.pos.application.port.in.ServeOrderUseCase;
 import com.digital.pos.application.port.out.LockService;
-import com.digital.pos.application.port.out.MenuService;
 import com.digital.pos.application.port.out.OrderRepository;
-import com.digital.pos.application.port.out.ShopService;
+import com.digital.pos.application.service.OrderMetrics.Stage;
 import com.digital.pos.domain.exception.InvalidOrderStateException;
 import com.digital.pos.domain.exception.MenuItemNotFoundException;
 import com.digital.pos.domain.exception.OrderNotFoundException;
-import com.digital.pos.domain.exception.ShopNotFoundException;
+import com.digital.pos.domain.model.MembershipTier;
+import com.digital.pos.domain.model.MenuCatalog;
 import com.digital.pos.domain.model.MenuItem;
 import com.digital.pos.domain.model.Order;
 import com.digital.pos.domain.model.OrderItem;
 import com.digital.pos.domain.model.OrderStatus;
 import com.digital.pos.domain.model.QueueAssignmentResult;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -39,29 +46,36 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 @Service
 @Transactional
-public class OrderService implements CreateOrderUseCase, ServeOrderUseCase, CancelOrderUseCase, GetOrderUseCase {
+public class OrderService implements CreateOrderUseCase, CreateOrderBatchUseCase, ServeOrderUseCase,
+    CancelOrderUseCase, GetOrderUseCase {
 
   private final OrderRepository orderRepository;
   private final QueueService queueService;
-  private final ShopService shopService; // External service
-  private final MenuService menuService; // External service
+  private final OrderLookups lookups; // External services
   private final OrderMapper orderMapper;
   private final OrderItemMapper orderItemMapper;
   private final LockService lock;
+  private final OrderMetrics metrics;
+  private final MembershipTierPolicy membershipTiers;
 
-  private static List<OrderItem> getValidOrderItems(CreateOrderRequest request, Map<UUID, MenuItem> menuItemMap) {
-    return request.getItems().stream()
+  private static List<OrderItem> getValidOrderItems(List<OrderItemRequest> itemRequests, MenuCatalog menuCatalog) {
+    return itemRequests.stream()
         .map(itemRequest -> {
           UUID menuItemId = itemRequest.getMenuItemId();
-          if (!menuItemMap.containsKey(menuItemId)) {
-            throw new MenuItemNotFoundException(menuItemId);
-          }
-          MenuItem menuItem = menuItemMap.get(menuItemId);
+          MenuItem menuItem = menuCatalog.find(menuItemId)
+              .orElseThrow(() -> new MenuItemNotFoundException(menuItemId));
           return new OrderItem(null, menuItemId, itemRequest.getQuantity(), menuItem.price());
         })
         .collect(Collectors.toList());
   }
 
+  private static BatchOrderResult rejected(int index, String code, String message) {
+    return new BatchOrderResult()
+        .index(index)
+        .status(BatchOrderResult.StatusEnum.REJECTED)
+        .error(new BatchOrderError(code, message));
+  }
+
   private static void validateOrderStatus(Order order) {
     if (!order.isWaiting()) {
       log.warn("Cannot serve order {} because it is in status {}", order.getId(), order.getStatus());
@@ -71,19 +85,24 @@ public class OrderService implements CreateOrderUseCase, ServeOrderUseCase, Canc
 
   @Override
   @Transactional
-  @CacheEvict(value = "shop-queue-snapshot", key = "#request.shopId")
   public OrderCreatedResponse createOrder(CreateOrderRequest request) {
     UUID shopId = request.getShopId();
     log.debug("Creating order for shop {}", shopId);
+    queueService.checkAdmission(shopId);
 
-    validateShopExists(shopId);
+    MenuCatalog menuCatalog = lookups.validateShopAndFetchMenu(shopId);
+    log.debug("Found {} available menu items", menuCatalog.items().size());
 
-    List<OrderItem> items = getValidOrderItems(request, shopId);
-    Order order = Order.createNew(shopId, items);
+    List<OrderItem> items = getValidOrderItems(request.getItems(), menuCatalog);
+    log.info("Order items validated, found {} items", items.size());
+    Order order = Order.createNew(shopId, items,
+        membershipTiers.resolve(request.getMembershipTier(), queueService.ranksByMembership(shopId)));
 
-    Order savedOrder = processOrderWithLock(shopId, order);
+    Order savedOrder = queueService.isLockFree(shopId)
+        ? processOrder(order)
+        : processOrderWithLock(shopId, order);
 
-    Integer livePosition = queueService.getLivePosition(savedOrder);
+    Integer livePosition = metrics.time(Stage.POSITION, () -> queueService.getLivePosition(savedOrder));
     log.info("Order {} live position in queue is {}", savedOrder.getId(), livePosition);
 
     return orderMapper.toOrderCreatedResponse(savedOrder, livePosition);
@@ -98,74 +117,132 @@ public class OrderService implements CreateOrderUseCase, ServeOrderUseCase, Canc
     );
   }
 
-  private List<OrderItem> getValidOrderItems(CreateOrderRequest request, UUID shopId) {
-    log.info("Fetching available menu items for shop {}", shopId);
-    Set<MenuItem> shopMenuItems = menuService.getAvailableItemIds(shopId);
-    Map<UUID, MenuItem> menuItemMap = shopMenuItems.stream()
-        .collect(Collectors.toMap(MenuItem::id, item -> item));
-    log.debug("Found {} available menu items", shopMenuItems.size());
+  /**
+   * Creates a burst of orders for one shop as a group: one menu lookup, one pass of queue assignment under a single
+   * shop lock, one batched insert and one commit. Orders that cannot be created are reported in their result instead
+   * of failing the batch.
+   */
+  @Override
+  @Transactional
+  public BatchCreateOrderResponse createOrderBatch(BatchCreateOrderRequest request) {
+    UUID shopId = request.getShopId();
+    log.debug("Creating batch of {} orders for shop {}", request.getOrders().size(), shopId);
+    queueService.checkAdmission(shopId);
+
+    MenuCatalog menuCatalog = lookups.validateShopAndFetchMenu(shopId);
+
+    boolean rankedByTier = queueService.ranksByMembership(shopId);
+    List<BatchOrderResult> results = new ArrayList<>();
+    List<Order> orders = new ArrayList<>();
+    for (int index = 0; index < request.getOrders().size(); index++) {
+      try {
+        BatchOrderRequest orderRequest = request.getOrders().get(index);
+        List<OrderItem> items = getValidOrderItems(orderRequest.getItems(), menuCatalog);
+        MembershipTier tier = membershipTiers.resolve(orderRequest.getMembershipTier(), rankedByTier);
+        orders.add(Order.createNew(shopId, items, tier));
+        results.add(null);
+      } catch (MenuItemNotFoundException e) {
+        results.add(rejected(index, "MENU_ITEM_NOT_FOUND", e.getMessage()));
+      }
+    }
 
-    List<OrderItem> items = getValidOrderItems(request, menuItemMap);
-    log.info("Order items validated, found {} items", items.size());
+    List<Optional<Order>> savedOrders = queueService.isLockFree(shopId)
+        ? processOrders(shopId, orders)
+        : processOrdersWithLock(shopId, orders);
+
+    int next = 0;
+    for (int index = 0; index < results.size(); index++) {
+      if (results.get(index) != null) {
+        continue;
+      }
+      Optional<Order> saved = savedOrders.get(next++);
+      results.set(index, saved.isPresent()
+          ? created(index, saved.get())
+          : rejected(index, "ALL_QUEUES_FULL", "All queues are full in shop: " + shopId));
+    }
+    log.info("Created {} of {} orders of a batch for shop {}",
+        savedOrders.stream().filter(Optional::isPresent).count(), results.size(), shopId);
 
-    return items;
+    return new BatchCreateOrderResponse(shopId, results);
   }
 
-  private void validateShopExists(UUID shopId) {
-    if (!shopService.existsById(shopId)) {
-      throw new ShopNotFoundException(shopId);
+  private List<Optional<Order>> processOrdersWithLock(UUID shopId, List<Order> orders) {
+    String lockKey = QueueLockKey.of(shopId);
+    return lock.doWithLock(lockKey,
+        Duration.ofSeconds(5),
+        Duration.ofSeconds(10),
+        () -> processOrders(shopId, orders)
+    );
+  }
+
+  // Returns one entry per order, empty for the orders no queue had room for.
+  private List<Optional<Order>> processOrders(UUID shopId, List<Order> orders) {
+    if (orders.isEmpty()) {
+      return List.of();
+    }
+    Set<Order> rejected = queueService.assignOrdersToQueues(shopId, orders);
+    List<Order> accepted = orders.stream()
+        .filter(order -> !rejected.contains(order))
+        .toList();
+
+    List<Order> saved = orderRepository.saveAll(accepted);
+    saved.forEach(queueService::registerQueuedOrder);
+
+    List<Optional<Order>> results = new ArrayList<>(orders.size());
+    int next = 0;
+    for (Order order : orders) {
+      results.add(rejected.contains(order) ? Optional.empty() : Optional.of(saved.get(next++)));
     }
+    return results;
   }
 
+  private BatchOrderResult created(int index, Order order) {
+    OrderCreatedResponse response = orderMapper.toOrderCreatedResponse(order, queueService.getLivePosition(order));
+    return new BatchOrderResult()
+        .index(index)
+        .status(BatchOrderResult.StatusEnum.CREATED)
+        .order(response);
+  }
+
+  /**
+   * Serving only flips the status: the order row is read without its items and updated with one conditional
+   * statement, whose row count rejects a concurrent serve or cancel. No shop lock is needed because freeing a slot
+   * cannot overfill a queue.
+   */
   @Override
   @Transactional
-  @CacheEvict(value = "shop-queue-snapshot", key = "#result")
   public UUID serveOrder(Long orderId) {
     log.info("Attempting to serve order {}", orderId);
 
-    Order order = orderRepository.findById(orderId)
+    Order order = orderRepository.findWithoutItemsById(orderId)
         .orElseThrow(() -> new OrderNotFoundException(orderId));
 
     validateOrderStatus(order);
 
     order.markAsServed();
 
-    serveOrderWithLock(orderId, order);
+    transitionFromWaiting(orderId, order);
+    log.debug("Order {} successfully marked as SERVED", orderId);
 
     return order.getShopId();
   }
 
   private Order processOrder(Order order) {
-    QueueAssignmentResult assignment = queueService.assignOrderToQueue(order);
+    QueueAssignmentResult assignment = metrics.time(Stage.ASSIGNMENT, () -> queueService.assignOrderToQueue(order));
     order.assignQueue(assignment.queueNumber());
 
-    Order savedOrder = orderRepository.save(order);
+    Order savedOrder = metrics.time(Stage.SAVE, () -> orderRepository.save(order));
+    queueService.registerQueuedOrder(savedOrder);
     log.debug("Saved order with ID {}", order.getId());
 
     return savedOrder;
   }
 
-  private void serveOrderWithLock(Long orderId, Order order) {
-    String lockKey = QueueLockKey.of(order.getShopId());
-
-    lock.doWithLock(
-        lockKey,
-        Duration.ofSeconds(5),
-        Duration.ofSeconds(10),
-        () -> {
-          orderRepository.save(order);
-          log.debug("Order {} successfully marked as SERVED", orderId);
-          return null;
-        }
-    );
-  }
-
   @Override
-  @CacheEvict(value = "shop-queue-snapshot", key = "#result")
   public UUID cancelOrder(Long orderId) {
     log.info("Attempting to cancel order {}", orderId);
 
-    Order order = orderRepository.findById(orderId)
+    Order order = orderRepository.findWithoutItemsById(orderId)
         .orElseThrow(() -> new OrderNotFoundException(orderId));
 
     if (!order.isWaiting()) {
@@ -175,22 +252,24 @@ public class OrderService implements CreateOrderUseCase, ServeOrderUseCase, Canc
 
     order.markAsCanceled();
 
-    String lockKey = QueueLockKey.of(order.getShopId());
-
-    lock.doWithLock(
-        lockKey,
-        Duration.ofSeconds(5),
-        Duration.ofSeconds(10),
-        () -> {
-          orderRepository.save(order);
-          log.debug("Order {} successfully marked as CANCELED", orderId);
-          return null;
-        }
-    );
+    transitionFromWaiting(orderId, order);
+    log.debug("Order {} successfully marked as CANCELED", orderId);
 
     return order.getShopId();
   }
 
+  private void transitionFromWaiting(Long orderId, Order order) {
+    if (!orderRepository.transitionStatus(orderId, OrderStatus.WAITING, order.getStatus())) {
+      // served or canceled by a concurrent request since it was read
+      OrderStatus currentStatus = orderRepository.findWithoutItemsById(orderId)
+          .map(Order::getStatus)
+          .orElseThrow(() -> new OrderNotFoundException(orderId));
+      log.warn("Order {} left WAITING concurrently, it is now {}", orderId, currentStatus);
+      throw new InvalidOrderStateException(orderId, currentStatus, OrderStatus.WAITING);
+    }
+    queueService.releaseQueuedOrder(order);
+  }
+
   @Override
   public OrderStatusResponse getOrder(Long orderId) {
     log.info("Fetching order status for ID {}", orderId);
@@ -207,7 +286,7 @@ public class OrderService implements CreateOrderUseCase, ServeOrderUseCase, Canc
     // 3. Calculate live position (dynamic)
     int livePosition = 0;
     if (order.getStatus() == OrderStatus.WAITING) {
-      livePosition = orderRepository.findPositionInQueueOrderById(order.getId());
+      livePosition = queueService.getLivePosition(order);
     }
 
     List<OrderItemSummary> orderItemSummaries = orderItemMapper.map(order.getItems());
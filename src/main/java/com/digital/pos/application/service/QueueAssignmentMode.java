@@ -0,0 +1,12 @@
+package com.digital.pos.application.service;
+
+public enum QueueAssignmentMode {
+  /**
+   * Orders are assigned under the distributed shop lock by the configured strategy.
+   */
+  LOCKED,
+  /**
+   * MOST_AVAILABLE shops reserve a slot atomically in Redis and skip the shop lock.
+   */
+  SLOT_RESERVATION
+}
@@ -0,0 +1,67 @@
+package com.digital.pos.application.service;
+
+import com.digital.pos.domain.model.ShopQueueState;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.MultiGauge.Row;
+import io.micrometer.core.instrument.Tags;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exports the number of WAITING orders per shop as the {@code pos.queue.depth} gauge. To keep the number of time series
+ * bounded, only the {@code max-shops} deepest shops get their own {@code shop} tag; all others are summed under
+ * {@code shop=other}. Depths come from the queue states held by this node.
+ */
+@Component
+public class QueueDepthMetrics {
+
+  static final String OTHER_SHOPS = "other";
+
+  private final QueueStateRegistry queueStateRegistry;
+  private final int maxShops;
+  private final MultiGauge depth;
+
+  public QueueDepthMetrics(QueueStateRegistry queueStateRegistry, MeterRegistry meterRegistry,
+      @Value("${pos.metrics.queue-depth.max-shops:50}") int maxShops) {
+    this.queueStateRegistry = queueStateRegistry;
+    this.maxShops = maxShops;
+    this.depth = MultiGauge.builder("pos.queue.depth")
+        .description("WAITING orders per shop, the deepest shops only")
+        .register(meterRegistry);
+  }
+
+  private static int waiting(ShopQueueState state) {
+    return state.sizes().values().stream().mapToInt(Integer::intValue).sum();
+  }
+
+  @Scheduled(fixedDelayString = "${pos.metrics.queue-depth.interval:PT30S}")
+  public void update() {
+    Map<UUID, Integer> depths = queueStateRegistry.loadedShops().stream()
+        .collect(Collectors.toMap(shopId -> shopId, shopId -> waiting(queueStateRegistry.get(shopId))));
+
+    List<Map.Entry<UUID, Integer>> deepestFirst = depths.entrySet().stream()
+        .sorted(Map.Entry.<UUID, Integer>comparingByValue(Comparator.reverseOrder()))
+        .toList();
+    List<Row<?>> rows = new ArrayList<>();
+    int others = 0;
+    for (int i = 0; i < deepestFirst.size(); i++) {
+      Map.Entry<UUID, Integer> entry = deepestFirst.get(i);
+      if (i < maxShops) {
+        rows.add(Row.of(Tags.of("shop", entry.getKey().toString()), entry.getValue()));
+      } else {
+        others += entry.getValue();
+      }
+    }
+    rows.add(Row.of(Tags.of("shop", OTHER_SHOPS), others));
+    // overwrite drops the rows of shops that are no longer among the deepest
+    depth.register(rows, true);
+  }
+}
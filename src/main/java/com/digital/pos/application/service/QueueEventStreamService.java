@@ -0,0 +1,207 @@
+package com.digital.pos.application.service;
+
+import com.digital.pos.adapter.in.rest.model.OrderPositionEvent;
+import com.digital.pos.adapter.in.rest.model.QueueDeltaEvent;
+import com.digital.pos.adapter.in.rest.model.ShopQueueResponse;
+import com.digital.pos.application.port.in.StreamQueueEventsUseCase;
+import com.digital.pos.application.port.out.OrderRepository;
+import com.digital.pos.application.port.out.QueueChangeBus;
+import com.digital.pos.domain.exception.OrderNotFoundException;
+import com.digital.pos.domain.model.Order;
+import com.digital.pos.domain.model.OrderStatus;
+import com.digital.pos.domain.model.QueueChange;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+/**
+ * Pushes queue changes to Server-Sent Events subscribers instead of having them poll.
+ * <p>
+ * Every node receives all committed changes from the {@link QueueChangeBus} and forwards them to its own subscribers:
+ * shop streams get a delta per change, order streams get their new position when an order ahead of them leaves the
+ * queue. Positions are read from the in-memory queue state, so an open stream costs no database queries. Idle streams
+ * get a heartbeat comment so proxies keep them open and dead connections are detected.
+ */
+@Service
+@Slf4j
+public class QueueEventStreamService implements StreamQueueEventsUseCase {
+
+  private final QueueService queueService;
+  private final QueueStateRegistry queueStateRegistry;
+  private final OrderRepository orderRepository;
+  private final Duration timeout;
+  private final int maxPendingEvents;
+  private final ExecutorService sender;
+  private final Map<UUID, Set<QueueEventSubscriber>> shopSubscribers = new ConcurrentHashMap<>();
+  private final Map<UUID, Set<OrderSubscription>> orderSubscribers = new ConcurrentHashMap<>();
+
+  public QueueEventStreamService(QueueService queueService, QueueStateRegistry queueStateRegistry,
+      OrderRepository orderRepository, QueueChangeBus changeBus,
+      @Value("${pos.events.timeout:PT30M}") Duration timeout,
+      @Value("${pos.events.max-pending-events:64}") int maxPendingEvents,
+      @Value("${pos.events.sender-threads:4}") int senderThreads) {
+    this.queueService = queueService;
+    this.queueStateRegistry = queueStateRegistry;
+    this.orderRepository = orderRepository;
+    this.timeout = timeout;
+    this.maxPendingEvents = maxPendingEvents;
+    this.sender = Executors.newFixedThreadPool(senderThreads, new CustomizableThreadFactory("sse-sender-"));
+    changeBus.subscribe(this::onChange);
+  }
+
+  private static SseEventBuilder snapshotEvent(ShopQueueResponse snapshot) {
+    return SseEmitter.event()
+        .name("snapshot")
+        .id(String.valueOf(snapshot.getVersion()))
+        .data(snapshot, MediaType.APPLICATION_JSON);
+  }
+
+  private static SseEventBuilder deltaEvent(QueueChange change) {
+    QueueDeltaEvent delta = new QueueDeltaEvent()
+        .shopId(change.shopId())
+        .version(change.version())
+        .queueNumber(change.queueNumber())
+        .orderId(change.orderId())
+        .status(QueueDeltaEvent.StatusEnum.fromValue(change.status().name()));
+    return SseEmitter.event()
+        .name("delta")
+        .id(String.valueOf(change.version()))
+        .data(delta, MediaType.APPLICATION_JSON);
+  }
+
+  private static SseEventBuilder positionEvent(UUID shopId, long orderId, OrderStatus status, Integer queueNumber,
+      int livePosition) {
+    OrderPositionEvent position = new OrderPositionEvent()
+        .orderId(orderId)
+        .shopId(shopId)
+        .status(OrderPositionEvent.StatusEnum.fromValue(status.name()))
+        .queueNumber(queueNumber)
+        .livePosition(livePosition);
+    return SseEmitter.event()
+        .name("position")
+        .data(position, MediaType.APPLICATION_JSON);
+  }
+
+  private static <T> void register(Map<UUID, Set<T>> subscribers, UUID shopId, T subscriber) {
+    subscribers.compute(shopId, (id, set) -> {
+      Set<T> result = set == null ? ConcurrentHashMap.newKeySet() : set;
+      result.add(subscriber);
+      return result;
+    });
+  }
+
+  private static <T> void unregister(Map<UUID, Set<T>> subscribers, UUID shopId, T subscriber) {
+    subscribers.computeIfPresent(shopId, (id, set) -> {
+      set.remove(subscriber);
+      return set.isEmpty() ? null : set;
+    });
+  }
+
+  @Override
+  public SseEmitter streamShopQueue(UUID shopId) {
+    // fails with 404 before the stream is opened
+    ShopQueueResponse snapshot = queueService.getShopQueueSnapshot(shopId);
+
+    SseEmitter emitter = new SseEmitter(timeout.toMillis());
+    QueueEventSubscriber subscriber = new QueueEventSubscriber(emitter, sender, maxPendingEvents,
+        () -> snapshotEvent(queueService.getShopQueueSnapshot(shopId)));
+    subscriber.onClose(() -> unregister(shopSubscribers, shopId, subscriber));
+    register(shopSubscribers, shopId, subscriber);
+
+    // a change committed since the read above arrives as a delta with a newer version
+    subscriber.send(snapshotEvent(snapshot));
+    log.debug("Opened queue event stream for shop {}", shopId);
+    return emitter;
+  }
+
+  @Override
+  public SseEmitter streamOrder(Long orderId) {
+    Order order = orderRepository.findWithoutItemsById(orderId)
+        .orElseThrow(() -> new OrderNotFoundException(orderId));
+    UUID shopId = order.getShopId();
+
+    SseEmitter emitter = new SseEmitter(timeout.toMillis());
+    QueueEventSubscriber subscriber = new QueueEventSubscriber(emitter, sender, maxPendingEvents,
+        () -> currentPosition(shopId, orderId, order.getQueueNumber()));
+    if (!order.isWaiting()) {
+      subscriber.finish(positionEvent(shopId, orderId, order.getStatus(), order.getQueueNumber(), 0));
+      return emitter;
+    }
+
+    OrderSubscription subscription = new OrderSubscription(orderId, order.getQueueNumber(), order.getPriority(),
+        subscriber);
+    subscriber.onClose(() -> unregister(orderSubscribers, shopId, subscription));
+    register(orderSubscribers, shopId, subscription);
+
+    subscriber.resync();
+    log.debug("Opened position event stream for order {}", orderId);
+    return emitter;
+  }
+
+  private SseEventBuilder currentPosition(UUID shopId, long orderId, int queueNumber) {
+    OptionalInt position = queueStateRegistry.get(shopId).position(queueNumber, orderId);
+    if (position.isPresent()) {
+      return positionEvent(shopId, orderId, OrderStatus.WAITING, queueNumber, position.getAsInt());
+    }
+    Order order = orderRepository.findWithoutItemsById(orderId)
+        .orElseThrow(() -> new OrderNotFoundException(orderId));
+    int livePosition = order.isWaiting() ? queueService.getLivePosition(order) : 0;
+    return positionEvent(shopId, orderId, order.getStatus(), queueNumber, livePosition);
+  }
+
+  // Runs on the pub/sub listener thread: only queues work for the sender pool.
+  private void onChange(QueueChange change) {
+    Set<QueueEventSubscriber> shopStreams = shopSubscribers.get(change.shopId());
+    if (shopStreams != null) {
+      shopStreams.forEach(subscriber -> subscriber.send(deltaEvent(change)));
+    }
+
+    Set<OrderSubscription> orderStreams = orderSubscribers.get(change.shopId());
+    if (orderStreams == null) {
+      return;
+    }
+    for (OrderSubscription subscription : orderStreams) {
+      if (subscription.queueNumber() != change.queueNumber()) {
+        continue;
+      }
+      if (subscription.orderId() == change.orderId() && change.status() != OrderStatus.WAITING) {
+        subscription.subscriber().finish(
+            positionEvent(change.shopId(), change.orderId(), change.status(), change.queueNumber(), 0));
+      } else if (change.isAhead(subscription.orderId(), subscription.priority())) {
+        // the position is read when the event is written, so a burst of changes costs one lookup
+        subscription.subscriber().resync();
+      }
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${pos.events.heartbeat-interval:PT15S}")
+  public void heartbeat() {
+    shopSubscribers.values().forEach(streams ->
+        streams.forEach(subscriber -> subscriber.send(SseEmitter.event().comment("heartbeat"))));
+    orderSubscribers.values().forEach(streams ->
+        streams.forEach(subscription -> subscription.subscriber().send(SseEmitter.event().comment("heartbeat"))));
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    sender.shutdownNow();
+  }
+
+  private record OrderSubscription(long orderId, int queueNumber, int priority, QueueEventSubscriber subscriber) {
+
+  }
+}
@@ -0,0 +1,139 @@
+package com.digital.pos.application.service;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+/**
+ * One open event stream. Events are queued and written by the shared sender pool, never on the thread that produced
+ * them, so a slow client cannot stall the change listener. When more than {@code maxPending} events are waiting, the
+ * backlog is dropped and a single event carrying the full current state is sent instead.
+ */
+@Slf4j
+class QueueEventSubscriber {
+
+  private final SseEmitter emitter;
+  private final Executor sender;
+  private final int maxPending;
+  private final Supplier<SseEventBuilder> currentState;
+  private final Queue<SseEventBuilder> pending = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger pendingCount = new AtomicInteger();
+  private final AtomicBoolean resyncRequested = new AtomicBoolean();
+  private final AtomicBoolean draining = new AtomicBoolean();
+  private final AtomicBoolean closed = new AtomicBoolean();
+  private volatile boolean finishing;
+  private volatile Runnable onClose = () -> {
+  };
+
+  QueueEventSubscriber(SseEmitter emitter, Executor sender, int maxPending, Supplier<SseEventBuilder> currentState) {
+    this.emitter = emitter;
+    this.sender = sender;
+    this.maxPending = maxPending;
+    this.currentState = currentState;
+    emitter.onCompletion(this::close);
+    emitter.onTimeout(this::close);
+    emitter.onError(e -> close());
+  }
+
+  void onClose(Runnable onClose) {
+    this.onClose = onClose;
+  }
+
+  void send(SseEventBuilder event) {
+    if (closed.get() || finishing) {
+      return;
+    }
+    if (pendingCount.incrementAndGet() > maxPending) {
+      resyncRequested.set(true);
+    } else {
+      pending.add(event);
+    }
+    schedule();
+  }
+
+  /**
+   * Replaces everything still queued by the full current state, computed when it is written. Repeated requests before
+   * the next write collapse into one.
+   */
+  void resync() {
+    if (closed.get() || finishing) {
+      return;
+    }
+    resyncRequested.set(true);
+    schedule();
+  }
+
+  /**
+   * Sends {@code event} after the queued ones and completes the stream.
+   */
+  void finish(SseEventBuilder event) {
+    if (closed.get() || finishing) {
+      return;
+    }
+    pending.add(event);
+    finishing = true;
+    schedule();
+  }
+
+  boolean isClosed() {
+    return closed.get();
+  }
+
+  void close() {
+    if (closed.compareAndSet(false, true)) {
+      pending.clear();
+      onClose.run();
+    }
+  }
+
+  private void schedule() {
+    if (draining.compareAndSet(false, true)) {
+      sender.execute(this::drain);
+    }
+  }
+
+  private void drain() {
+    try {
+      while (!closed.get()) {
+        SseEventBuilder event = nextEvent();
+        if (event == null) {
+          break;
+        }
+        emitter.send(event);
+      }
+      if (finishing && pending.isEmpty() && !closed.get()) {
+        close();
+        emitter.complete();
+      }
+    } catch (IOException | RuntimeException e) {
+      log.debug("Closing event stream after failed write: {}", e.getMessage());
+      close();
+      emitter.completeWithError(e);
+    } finally {
+      draining.set(false);
+    }
+    if (!closed.get() && (resyncRequested.get() || !pending.isEmpty())) {
+      schedule();
+    }
+  }
+
+  private SseEventBuilder nextEvent() {
+    if (!finishing && resyncRequested.getAndSet(false)) {
+      pending.clear();
+      pendingCount.set(0);
+      return currentState.get();
+    }
+    SseEventBuilder event = pending.poll();
+    if (event != null) {
+      pendingCount.decrementAndGet();
+    }
+    return event;
+  }
+}
@@ -7,22 +7,29 @@ import com.digital.pos.adapter.in.rest.model.ShopQueueResponse;
 import com.digital.pos.application.port.in.GetQueueSnapshotUseCase;
 import com.digital.pos.application.port.out.OrderRepository;
 import com.digital.pos.application.port.out.ShopService;
+import com.digital.pos.domain.exception.AllQueueFullException;
 import com.digital.pos.domain.exception.ShopNotFoundException;
 import com.digital.pos.domain.model.Order;
 import com.digital.pos.domain.model.OrderStatus;
 import com.digital.pos.domain.model.QueueAssignmentResult;
 import com.digital.pos.domain.model.ShopConfiguration;
+import com.digital.pos.domain.model.ShopQueueSnapshot;
+import com.digital.pos.domain.model.ShopQueueState;
+import com.digital.pos.domain.service.CompiledShopConfigurations;
 import com.digital.pos.domain.service.QueueAssignmentContext;
 import com.digital.pos.domain.service.QueueAssignmentEngine;
+import com.digital.pos.domain.service.strategy.StrategyType;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -33,36 +40,28 @@ public class QueueService implements GetQueueSnapshotUseCase {
   private final ShopService shopService;
   private final OrderRepository orderRepository;
   private final QueueAssignmentEngine queueAssignmentEngine;
-
-  private static List<QueueInfo> groupOrdersByQueue(List<Order> orders, Map<Integer, Integer> capacities) {
-    Map<Integer, List<Order>> queueMap = orders.stream()
-        .collect(Collectors.groupingBy(Order::getQueueNumber));
-
-    List<QueueInfo> queueInfos = queueMap.entrySet().stream()
+  private final QueueStateRegistry queueStateRegistry;
+  private final SlotReservationQueueAssignmentEngine slotReservationEngine;
+  private final ServiceRateTracker serviceRateTracker;
+  private final ShopSaturation shopSaturation;
+  private final CompiledShopConfigurations shopConfigurations;
+  private final Map<UUID, RenderedSnapshot> renderedSnapshots = new ConcurrentHashMap<>();
+
+  static ShopQueueResponse toResponse(ShopQueueSnapshot snapshot, Map<Integer, Integer> capacities) {
+    List<QueueInfo> queueInfos = snapshot.orderIds().entrySet().stream()
         .map(entry -> {
           Integer queueNumber = entry.getKey();
-          List<Order> queueOrders = entry.getValue();
-          List<Order> sortedOrder = queueOrders.stream()
-              .sorted(Comparator.comparing(Order::getId))
-              .toList();
-
-          List<QueueOrderSummary> orderSummaries = mapOrdersToQueueOrderSummaries(
-              sortedOrder);
-          QueueInfo queueInfo = createQueueInfo(queueNumber, orderSummaries, capacities.get(queueNumber));
-
-          return queueInfo;
+          List<QueueOrderSummary> orderSummaries = mapOrderIdsToQueueOrderSummaries(entry.getValue());
+          return createQueueInfo(queueNumber, orderSummaries, capacities.get(queueNumber));
         })
         .toList();
-    return queueInfos;
+    return new ShopQueueResponse(snapshot.shopId(), queueInfos, snapshot.version());
   }
 
-  private static List<QueueOrderSummary> mapOrdersToQueueOrderSummaries(List<Order> sortedOrder) {
-    List<QueueOrderSummary> orderSummaries = new ArrayList<>();
-    for (int i = 0; i < sortedOrder.size(); i++) {
-      Order order = sortedOrder.get(i);
-      QueueOrderSummary summary = createQueueSummary(order, i);
-      orderSummaries.add(summary);
-
+  private static List<QueueOrderSummary> mapOrderIdsToQueueOrderSummaries(List<Long> sortedOrderIds) {
+    List<QueueOrderSummary> orderSummaries = new ArrayList<>(sortedOrderIds.size());
+    for (int i = 0; i < sortedOrderIds.size(); i++) {
+      orderSummaries.add(createQueueSummary(sortedOrderIds.get(i), i));
     }
     return orderSummaries;
   }
@@ -77,47 +76,136 @@ public class QueueService implements GetQueueSnapshotUseCase {
     return queueInfo;
   }
 
-  private static QueueOrderSummary createQueueSummary(Order order, int i) {
+  private static QueueOrderSummary createQueueSummary(Long orderId, int i) {
     QueueOrderSummary summary = new QueueOrderSummary();
-    summary.setOrderId(order.getId());
-    summary.status(StatusEnum.fromValue(order.getStatus().name()));
+    summary.setOrderId(orderId);
+    summary.status(StatusEnum.WAITING);
     summary.setLivePosition(i + 1);
     return summary;
   }
 
+  /**
+   * Served from the in-memory queue state, which every create/serve/cancel patches. The rendered response is reused
+   * until the state or the queue capacities change, so polling an idle shop costs neither a query nor a mapping.
+   */
   @Override
-  @Cacheable(value = "shop-queue-snapshot", key = "#shopId")
   public ShopQueueResponse getShopQueueSnapshot(UUID shopId) {
     log.info("Fetching queue snapshot for shop {}", shopId);
     validateShopExists(shopId);
 
-    ShopConfiguration shopConfig = shopService.getShopConfig(shopId);
-    Map<Integer, Integer> capacities = shopConfig.queueCapacities();
-
-    List<Order> orders = orderRepository.findByShopIdAndStatus(shopId, OrderStatus.WAITING);
+    Map<Integer, Integer> capacities = shopService.getShopConfig(shopId).queueCapacities();
+    ShopQueueSnapshot snapshot = queueStateRegistry.get(shopId).snapshot();
 
-    List<QueueInfo> queueInfos = groupOrdersByQueue(orders, capacities);
-    return new ShopQueueResponse(shopId, queueInfos);
+    RenderedSnapshot rendered = renderedSnapshots.get(shopId);
+    if (rendered != null && rendered.snapshot() == snapshot && rendered.capacities().equals(capacities)) {
+      return rendered.response();
+    }
+    ShopQueueResponse response = toResponse(snapshot, capacities);
+    renderedSnapshots.put(shopId, new RenderedSnapshot(snapshot, capacities, response));
+    return response;
   }
 
   public QueueAssignmentResult assignOrderToQueue(Order order) {
     return assign(order);
   }
 
+  /**
+   * Rejects an order for a shop whose queues were all full at the last assignment, if nothing changed since. Needs no
+   * shop configuration, so it can run before the lookups of a create.
+   *
+   * @throws com.digital.pos.domain.exception.QueueSaturatedException if the shop is still full
+   */
+  public void checkAdmission(UUID shopId) {
+    shopSaturation.checkAdmission(shopId);
+  }
+
+  /**
+   * Assigns a queue to every order of a batch for one shop in a single pass. The orders are placed on a scratch copy of
+   * the queue state as they are assigned, so each one sees the load added by those before it.
+   *
+   * @return the orders that could not be placed because all queues were full; all others have their queue assigned
+   */
+  public Set<Order> assignOrdersToQueues(UUID shopId, List<Order> orders) {
+    ShopConfiguration config = shopService.getShopConfig(shopId);
+    ShopQueueState scratch = queueStateRegistry.getForAssignment(shopId).copy();
+    QueueAssignmentEngine engine = slotReservationEngine.supports(config)
+        ? slotReservationEngine
+        : queueAssignmentEngine;
+
+    Set<Order> rejected = Collections.newSetFromMap(new IdentityHashMap<>());
+    long placeholderId = 0;
+    for (Order order : orders) {
+      try {
+        QueueAssignmentResult assignment = engine.assign(new QueueAssignmentContext(order, config, scratch));
+        order.assignQueue(assignment.queueNumber());
+        // not saved yet, negative ids cannot clash with real ones
+        scratch.add(assignment.queueNumber(), --placeholderId, order.getPriority());
+      } catch (AllQueueFullException e) {
+        rejected.add(order);
+      }
+    }
+    log.info("Assigned {} of {} orders of a batch for shop {}", orders.size() - rejected.size(), orders.size(), shopId);
+    return rejected;
+  }
+
   private QueueAssignmentResult assign(Order order) {
     log.debug("Assigning order {} to queue", order.getId());
 
     ShopConfiguration config = shopService.getShopConfig(order.getShopId());
 
-    List<Order> waiting = orderRepository.findByShopIdAndStatus(order.getShopId(), OrderStatus.WAITING);
-    QueueAssignmentResult assign = queueAssignmentEngine.assign(new QueueAssignmentContext(order, config, waiting));
+    ShopQueueState queueState = queueStateRegistry.getForAssignment(order.getShopId());
+    QueueAssignmentEngine engine = slotReservationEngine.supports(config)
+        ? slotReservationEngine
+        : queueAssignmentEngine;
+    QueueAssignmentResult assign;
+    try {
+      assign = engine.assign(new QueueAssignmentContext(order, config, queueState));
+    } catch (AllQueueFullException e) {
+      throw shopSaturation.saturated(order.getShopId(), config.queueCapacities().keySet());
+    }
 
     log.info("Order {} assigned to queue {}", order.getId(), assign.queueNumber());
 
     return assign;
   }
 
+  public void registerQueuedOrder(Order order) {
+    queueStateRegistry.orderQueued(order);
+  }
+
+  public void releaseQueuedOrder(Order order) {
+    queueStateRegistry.orderLeftQueue(order);
+    if (order.getStatus() == OrderStatus.SERVED) {
+      serviceRateTracker.orderServed(order);
+    }
+    // serve and cancel need no shop configuration unless slots are reserved in Redis
+    if (slotReservationEngine.isEnabled()
+        && slotReservationEngine.supports(shopService.getShopConfig(order.getShopId()))) {
+      slotReservationEngine.release(order);
+    }
+  }
+
+  /**
+   * @return true if the shop serves higher membership tiers first ({@code VIP_MEMBERSHIP}); in every other shop orders
+   * are ranked as regular ones, whatever tier they were placed with
+   */
+  public boolean ranksByMembership(UUID shopId) {
+    return shopConfigurations.compile(shopService.getShopConfig(shopId)).strategyType() == StrategyType.VIP_MEMBERSHIP;
+  }
+
+  /**
+   * @return true if orders of the shop reserve their queue slot atomically and do not need the shop lock
+   */
+  public boolean isLockFree(UUID shopId) {
+    return slotReservationEngine.isEnabled() && slotReservationEngine.supports(shopService.getShopConfig(shopId));
+  }
+
   public int getLivePosition(Order order) {
+    OptionalInt position = queueStateRegistry.position(order);
+    if (position.isPresent()) {
+      return position.getAsInt();
+    }
+    log.debug("Order {} not found in queue state, falling back to position query", order.getId());
     return orderRepository.findPositionInQueueOrderById(order.getId());
   }
 
@@ -127,4 +215,9 @@ public class QueueService implements GetQueueSnapshotUseCase {
       throw new ShopNotFoundException(shopId);
     }
   }
+
+  private record RenderedSnapshot(ShopQueueSnapshot snapshot, Map<Integer, Integer> capacities,
+                                  ShopQueueResponse response) {
+
+  }
 }
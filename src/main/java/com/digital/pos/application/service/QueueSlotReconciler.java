@@ -0,0 +1,71 @@
+package com.digital.pos.application.service;
+
+import com.digital.pos.application.port.out.OrderRepository;
+import com.digital.pos.application.port.out.QueueSlotStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically resets the Redis slot counters to the WAITING counts in the database, correcting drift from crashed
+ * nodes or lost releases. A shop is only reconciled after its counters have been idle for the quiet period, so
+ * reservations whose orders are not committed yet are never overwritten.
+ * <p>
+ * A shop busy enough never to be idle that long is never reconciled, and the sequence guard cannot help: a reservation
+ * in flight has already bumped the sequence but is not in the database yet, so the counts could not be replaced
+ * without dropping it. Such shops are counted in the {@code pos.queue.slots.unreconciled} gauge once their counters
+ * have gone {@code max-unreconciled} without a reconciliation, to alert on before leaked slots fill their queues.
+ */
+@Component
+@ConditionalOnProperty(name = "pos.queue.assignment-mode", havingValue = "SLOT_RESERVATION")
+@Slf4j
+public class QueueSlotReconciler {
+
+  private final QueueSlotStore slotStore;
+  private final OrderRepository orderRepository;
+  private final Duration quietPeriod;
+  private final Duration maxUnreconciled;
+  private final AtomicInteger unreconciledShops = new AtomicInteger();
+
+  public QueueSlotReconciler(QueueSlotStore slotStore, OrderRepository orderRepository, MeterRegistry meterRegistry,
+      @Value("${pos.queue.slot-reservation.quiet-period:PT5S}") Duration quietPeriod,
+      @Value("${pos.queue.slot-reservation.max-unreconciled:PT10M}") Duration maxUnreconciled) {
+    this.slotStore = slotStore;
+    this.orderRepository = orderRepository;
+    this.quietPeriod = quietPeriod;
+    this.maxUnreconciled = maxUnreconciled;
+    Gauge.builder("pos.queue.slots.unreconciled", unreconciledShops, AtomicInteger::get)
+        .description("Shops whose slot counters have not been reconciled for longer than max-unreconciled")
+        .register(meterRegistry);
+  }
+
+  @Scheduled(fixedDelayString = "${pos.queue.slot-reservation.reconcile-interval:PT30S}")
+  public void reconcile() {
+    Instant overdue = Instant.now().minus(maxUnreconciled);
+    int unreconciled = 0;
+    for (UUID shopId : slotStore.trackedShops()) {
+      long sequence = slotStore.sequence(shopId);
+      if (sequence < 0) {
+        continue;
+      }
+      Map<Integer, Integer> waitingCounts = orderRepository.countWaitingByQueue(shopId);
+      if (slotStore.reconcile(shopId, sequence, waitingCounts, quietPeriod)) {
+        log.debug("Reconciled queue slots for shop {} to {}", shopId, waitingCounts);
+      } else if (slotStore.lastReconciled(shopId).filter(overdue::isAfter).isPresent()) {
+        unreconciled++;
+        log.warn("Queue slots of shop {} have not been idle for {} to be reconciled in over {}", shopId, quietPeriod,
+            maxUnreconciled);
+      }
+    }
+    unreconciledShops.set(unreconciled);
+  }
+}
@@ -0,0 +1,213 @@
+package com.digital.pos.application.service;
+
+import com.digital.pos.application.port.out.OrderRepository;
+import com.digital.pos.application.port.out.QueueChangeBus;
+import com.digital.pos.application.port.out.QueueStateVersionStore;
+import com.digital.pos.domain.model.Order;
+import com.digital.pos.domain.model.OrderStatus;
+import com.digital.pos.domain.model.QueueChange;
+import com.digital.pos.domain.model.QueueEntry;
+import com.digital.pos.domain.model.ShopQueueState;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Holds the in-memory {@link ShopQueueState} of every shop served by this node.
+ * <p>
+ * States are loaded from the database on startup or on first access and only ever hold committed orders: a
+ * create/serve/cancel is applied once its transaction commits, together with bumping the shop version in
+ * {@link QueueStateVersionStore} and broadcasting the change on the {@link QueueChangeBus}. The other nodes apply it to
+ * their state, or drop the state if they missed a change. A rolled back transaction leaves the state untouched.
+ * <p>
+ * Orders created but not committed yet are kept aside, per shop, so that assignment ({@link #getForAssignment}) counts
+ * them, while readers never see them. Reads ({@link #get}) stay local: the version in Redis is only compared once per
+ * {@code max-staleness}, which bounds how long a lost broadcast can go unnoticed. Assignment compares it on every call,
+ * so a queue is never filled from a stale view.
+ */
+@Component
+@Slf4j
+public class QueueStateRegistry {
+
+  private final OrderRepository orderRepository;
+  private final QueueStateVersionStore versionStore;
+  private final QueueChangeBus changeBus;
+  private final long maxStalenessNanos;
+  private final Map<UUID, ShopQueueState> states = new ConcurrentHashMap<>();
+  private final Map<UUID, Long> verifiedAt = new ConcurrentHashMap<>();
+  private final Map<UUID, Map<Long, QueueChangeDraft>> uncommitted = new ConcurrentHashMap<>();
+
+  public QueueStateRegistry(OrderRepository orderRepository, QueueStateVersionStore versionStore,
+      QueueChangeBus changeBus, @Value("${pos.queue.state.max-staleness:PT1S}") Duration maxStaleness) {
+    this.orderRepository = orderRepository;
+    this.versionStore = versionStore;
+    this.changeBus = changeBus;
+    this.maxStalenessNanos = maxStaleness.toNanos();
+    changeBus.subscribe(this::onChange);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void warmUp() {
+    List<UUID> shopIds = orderRepository.findShopIdsByStatus(OrderStatus.WAITING);
+    shopIds.forEach(this::rebuild);
+    log.info("Loaded queue state for {} shops", shopIds.size());
+  }
+
+  /**
+   * @return the shop's committed state for reading, compared with the cluster version at most once per
+   * {@code max-staleness}
+   */
+  public ShopQueueState get(UUID shopId) {
+    ShopQueueState state = states.get(shopId);
+    Long verified = verifiedAt.get(shopId);
+    if (state != null && verified != null && System.nanoTime() - verified < maxStalenessNanos) {
+      return state;
+    }
+    return getCurrent(shopId);
+  }
+
+  /**
+   * @return the shop's state at the cluster version plus the orders this node queued that are not committed yet; for
+   * assignment under the shop lock. The view may be the shared state, copy it before placing orders on it.
+   */
+  public ShopQueueState getForAssignment(UUID shopId) {
+    ShopQueueState state = getCurrent(shopId);
+    Map<Long, QueueChangeDraft> pending = uncommitted.get(shopId);
+    if (pending == null || pending.isEmpty()) {
+      return state;
+    }
+    ShopQueueState view = state.copy();
+    pending.values().forEach(draft -> view.add(draft.queueNumber(), draft.orderId(), draft.priority()));
+    return view;
+  }
+
+  /**
+   * @return the live position of a waiting order; an order this node queued that is not committed yet is ranked among
+   * the committed ones. Empty if the state does not hold the order.
+   */
+  public OptionalInt position(Order order) {
+    ShopQueueState state = get(order.getShopId());
+    OptionalInt position = state.position(order.getQueueNumber(), order.getId());
+    Map<Long, QueueChangeDraft> pending = uncommitted.get(order.getShopId());
+    if (position.isEmpty() && pending != null && pending.containsKey(order.getId())) {
+      return OptionalInt.of(state.rank(order.getQueueNumber(), order.getId(), order.getPriority()));
+    }
+    return position;
+  }
+
+  /**
+   * @return the shops whose queue state this node holds
+   */
+  public Set<UUID> loadedShops() {
+    return Set.copyOf(states.keySet());
+  }
+
+  public void orderQueued(Order order) {
+    UUID shopId = order.getShopId();
+    QueueChangeDraft draft = draft(order);
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      commit(shopId, draft);
+      return;
+    }
+    uncommitted.compute(shopId, (id, pending) -> {
+      Map<Long, QueueChangeDraft> drafts = pending == null ? new ConcurrentHashMap<>() : pending;
+      drafts.put(draft.orderId(), draft);
+      return drafts;
+    });
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        commit(shopId, draft);
+      }
+
+      // after afterCommit, so the order is always either in the state or aside for assignment
+      @Override
+      public void afterCompletion(int status) {
+        uncommitted.computeIfPresent(shopId, (id, pending) -> {
+          pending.remove(draft.orderId());
+          return pending.isEmpty() ? null : pending;
+        });
+      }
+    });
+  }
+
+  public void orderLeftQueue(Order order) {
+    UUID shopId = order.getShopId();
+    QueueChangeDraft draft = draft(order);
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      commit(shopId, draft);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        commit(shopId, draft);
+      }
+    });
+  }
+
+  private ShopQueueState getCurrent(UUID shopId) {
+    long currentVersion = versionStore.currentVersion(shopId);
+    ShopQueueState state = states.get(shopId);
+    if (state == null || state.getVersion() != currentVersion) {
+      state = load(shopId, currentVersion);
+    }
+    verifiedAt.put(shopId, System.nanoTime());
+    return state;
+  }
+
+  private void onChange(QueueChange change) {
+    ShopQueueState state = states.get(change.shopId());
+    if (state != null && !state.apply(change)) {
+      log.debug("Queue state for shop {} missed a change before version {}, evicting", change.shopId(),
+          change.version());
+      states.remove(change.shopId(), state);
+    }
+  }
+
+  private ShopQueueState rebuild(UUID shopId) {
+    return load(shopId, versionStore.currentVersion(shopId));
+  }
+
+  // The version must be read before the orders: a change committed in between is then detected on the next access.
+  private ShopQueueState load(UUID shopId, long version) {
+    log.debug("Rebuilding queue state for shop {} at version {}", shopId, version);
+    List<QueueEntry> waiting = orderRepository.findWaitingQueueEntries(shopId);
+    ShopQueueState state = ShopQueueState.fromEntries(shopId, version, waiting);
+    states.put(shopId, state);
+    return state;
+  }
+
+  // Applies a committed change to this node's state under the next shop version and broadcasts it to the others.
+  private void commit(UUID shopId, QueueChangeDraft draft) {
+    QueueChange change = new QueueChange(shopId, draft.queueNumber(), draft.orderId(), draft.priority(),
+        draft.status(), versionStore.nextVersion(shopId));
+    onChange(change);
+    try {
+      changeBus.publish(change);
+    } catch (RuntimeException e) {
+      // subscribers detect the version gap on the next change and resync
+      log.warn("Failed to broadcast queue change of order {}", draft.orderId(), e);
+    }
+  }
+
+  private static QueueChangeDraft draft(Order order) {
+    return new QueueChangeDraft(order.getQueueNumber(), order.getId(), order.getPriority(), order.getStatus());
+  }
+
+  // captured when the change is made, the order object may be modified before the transaction commits
+  private record QueueChangeDraft(int queueNumber, long orderId, int priority, OrderStatus status) {
+
+  }
+}
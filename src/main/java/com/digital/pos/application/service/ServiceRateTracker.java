@@ -0,0 +1,126 @@
+package com.digital.pos.application.service;
+
+import com.digital.pos.application.port.out.ServiceRateStore;
+import com.digital.pos.application.port.out.ShopService;
+import com.digital.pos.domain.model.Order;
+import com.digital.pos.domain.service.CompiledShopConfigurations;
+import com.digital.pos.domain.service.ServiceRateEstimator;
+import com.digital.pos.domain.service.strategy.StrategyType;
+import java.time.Duration;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Feeds the committed serves of {@code SHORTEST_EXPECTED_WAIT} shops into the shared {@link ServiceRateStore} and
+ * answers estimates for queue assignment from a per-node copy. Serves of shops with other strategies are not recorded;
+ * the strategy is checked after commit from the cached shop configuration, so the serve path does not wait on it.
+ * <p>
+ * The copy of a shop is refreshed from Redis at most once per {@code refresh} interval, by the first reader that finds
+ * it stale; the other readers keep using the current copy meanwhile, so assignment never waits on another thread.
+ * Serves on this node update the copy right away with the estimate Redis returns. If Redis is unavailable the copy
+ * stays as it is and assignment goes on with slightly stale estimates.
+ */
+@Component
+@Slf4j
+public class ServiceRateTracker implements ServiceRateEstimator {
+
+  private final ServiceRateStore store;
+  private final ShopService shopService;
+  private final CompiledShopConfigurations shopConfigurations;
+  private final double alpha;
+  private final Duration maxInterval;
+  private final long refreshNanos;
+  private final Map<UUID, ShopRates> shops = new ConcurrentHashMap<>();
+
+  public ServiceRateTracker(ServiceRateStore store, ShopService shopService,
+      CompiledShopConfigurations shopConfigurations,
+      @Value("${pos.queue.service-rate.alpha:0.1}") double alpha,
+      @Value("${pos.queue.service-rate.max-interval:PT5M}") Duration maxInterval,
+      @Value("${pos.queue.service-rate.refresh:PT1S}") Duration refresh) {
+    this.store = store;
+    this.shopService = shopService;
+    this.shopConfigurations = shopConfigurations;
+    this.alpha = alpha;
+    this.maxInterval = maxInterval;
+    this.refreshNanos = refresh.toNanos();
+  }
+
+  @Override
+  public double meanServiceMillis(UUID shopId, int queueNumber) {
+    ShopRates rates = shops.computeIfAbsent(shopId, id -> new ShopRates());
+    refreshIfStale(shopId, rates);
+    return rates.means.getOrDefault(queueNumber, Double.NaN);
+  }
+
+  /**
+   * Records the serve once the surrounding transaction commits, immediately without one, if the shop assigns by
+   * expected wait.
+   */
+  public void orderServed(Order order) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      record(order);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        record(order);
+      }
+    });
+  }
+
+  private void record(Order order) {
+    UUID shopId = order.getShopId();
+    int queueNumber = order.getQueueNumber();
+    try {
+      if (!estimatesWait(shopId)) {
+        return;
+      }
+      OptionalDouble mean = store.recordServed(shopId, queueNumber, order.getStatusChangedAt(), alpha, maxInterval);
+      ShopRates rates = shops.get(shopId);
+      if (mean.isPresent() && rates != null) {
+        rates.means.put(queueNumber, mean.getAsDouble());
+      }
+    } catch (RuntimeException e) {
+      log.warn("Failed to record served order of shop {} queue {}", shopId, queueNumber, e);
+    }
+  }
+
+  private boolean estimatesWait(UUID shopId) {
+    StrategyType strategy = shopConfigurations.compile(shopService.getShopConfig(shopId)).strategyType();
+    return strategy == StrategyType.SHORTEST_EXPECTED_WAIT;
+  }
+
+  private void refreshIfStale(UUID shopId, ShopRates rates) {
+    long now = System.nanoTime();
+    long refreshedAt = rates.refreshedAt.get();
+    if (refreshedAt != ShopRates.NEVER && now - refreshedAt < refreshNanos) {
+      return;
+    }
+    // one reader refreshes, the others use the current copy
+    if (!rates.refreshedAt.compareAndSet(refreshedAt, now)) {
+      return;
+    }
+    try {
+      rates.means.putAll(store.meanServiceMillis(shopId));
+    } catch (RuntimeException e) {
+      log.warn("Failed to refresh service rates of shop {}, keeping the local estimates", shopId, e);
+    }
+  }
+
+  private static final class ShopRates {
+
+    private static final long NEVER = Long.MIN_VALUE;
+
+    private final Map<Integer, Double> means = new ConcurrentHashMap<>();
+    private final AtomicLong refreshedAt = new AtomicLong(NEVER);
+  }
+}
@@ -0,0 +1,102 @@
+package com.digital.pos.application.service;
+
+import com.digital.pos.application.port.out.QueueStateVersionStore;
+import com.digital.pos.domain.exception.QueueSaturatedException;
+import com.digital.pos.domain.service.ServiceRateEstimator;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers the shops this node found with every queue full, so further creates are rejected before the shop/menu
+ * lookups and the shop lock instead of going through them only to fail at assignment.
+ * <p>
+ * A shop is marked with the queue-state version it was full at. Every committed create, serve or cancel on any node
+ * bumps that version, so the first change that may have freed a slot ends the rejections. A mark also lapses after
+ * {@code ttl}, which covers changes that do not bump the version, such as a raised capacity. Rejections carry the
+ * expected time until any queue of the shop serves an order, from the service-rate estimates, at most {@code ttl}.
+ */
+@Component
+@Slf4j
+public class ShopSaturation {
+
+  private final QueueStateVersionStore versionStore;
+  private final ServiceRateEstimator serviceRateEstimator;
+  private final Duration ttl;
+  private final Map<UUID, Mark> marks = new ConcurrentHashMap<>();
+
+  public ShopSaturation(QueueStateVersionStore versionStore, ServiceRateEstimator serviceRateEstimator,
+      @Value("${pos.queue.saturation.ttl:PT10S}") Duration ttl) {
+    this.versionStore = versionStore;
+    this.serviceRateEstimator = serviceRateEstimator;
+    this.ttl = ttl;
+  }
+
+  /**
+   * Costs a map lookup for shops that are not marked, and one version read for those that are.
+   *
+   * @throws QueueSaturatedException if the shop was full and nothing changed since
+   */
+  public void checkAdmission(UUID shopId) {
+    Mark mark = marks.get(shopId);
+    if (mark == null) {
+      return;
+    }
+    if (System.nanoTime() - mark.markedAt() < ttl.toNanos() && isCurrent(shopId, mark)) {
+      throw new QueueSaturatedException(shopId, mark.retryAfter());
+    }
+    marks.remove(shopId, mark);
+  }
+
+  /**
+   * Marks the shop as full at the cluster version of its queue state, the one {@link #checkAdmission} compares with;
+   * a node's own state may lag behind it. The shop is not marked if the version cannot be read.
+   *
+   * @return the exception to reject the current order with
+   */
+  public QueueSaturatedException saturated(UUID shopId, Collection<Integer> queueNumbers) {
+    Duration retryAfter = retryAfter(shopId, queueNumbers);
+    try {
+      long version = versionStore.currentVersion(shopId);
+      marks.put(shopId, new Mark(version, System.nanoTime(), retryAfter));
+      log.info("All queues of shop {} are full at version {}, rejecting orders for up to {}", shopId, version, ttl);
+    } catch (RuntimeException e) {
+      log.warn("Failed to read the queue version of shop {}, not marking it as full", shopId, e);
+    }
+    return new QueueSaturatedException(shopId, retryAfter);
+  }
+
+  private boolean isCurrent(UUID shopId, Mark mark) {
+    try {
+      return versionStore.currentVersion(shopId) == mark.version();
+    } catch (RuntimeException e) {
+      log.warn("Failed to read the queue version of shop {}, admitting the order", shopId, e);
+      return false;
+    }
+  }
+
+  // The queues serve in parallel, so the first slot frees after 1 / (sum of their service rates).
+  private Duration retryAfter(UUID shopId, Collection<Integer> queueNumbers) {
+    double servesPerMilli = 0;
+    for (int queueNumber : queueNumbers) {
+      double mean = serviceRateEstimator.meanServiceMillis(shopId, queueNumber);
+      if (mean > 0) {
+        servesPerMilli += 1 / mean;
+      }
+    }
+    if (servesPerMilli == 0) {
+      return ttl;
+    }
+    long seconds = (long) Math.ceil(1 / servesPerMilli / 1000);
+    return Duration.ofSeconds(Math.max(1, Math.min(seconds, ttl.toSeconds())));
+  }
+
+  private record Mark(long version, long markedAt, Duration retryAfter) {
+
+  }
+}
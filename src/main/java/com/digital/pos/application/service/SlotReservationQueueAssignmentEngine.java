@@ -0,0 +1,100 @@
+package com.digital.pos.application.service;
+
+import com.digital.pos.application.port.out.OrderRepository;
+import com.digital.pos.application.port.out.QueueSlotStore;
+import com.digital.pos.domain.exception.AllQueueFullException;
+import com.digital.pos.domain.model.Order;
+import com.digital.pos.domain.model.QueueAssignmentResult;
+import com.digital.pos.domain.model.ShopConfiguration;
+import com.digital.pos.domain.service.CompiledShopConfigurations;
+import com.digital.pos.domain.service.QueueAssignmentContext;
+import com.digital.pos.domain.service.QueueAssignmentEngine;
+import com.digital.pos.domain.service.strategy.StrategyType;
+import java.util.OptionalInt;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Lock-free assignment mode: the queue with the most free slots is picked and reserved by one atomic script over the
+ * shop's counters in {@link QueueSlotStore}, so no shop lock is needed. A reservation is given back if the creating
+ * transaction rolls back, and serve/cancel release the slot after commit.
+ */
+@Component
+@Slf4j
+public class SlotReservationQueueAssignmentEngine implements QueueAssignmentEngine {
+
+  private final QueueSlotStore slotStore;
+  private final OrderRepository orderRepository;
+  private final CompiledShopConfigurations shopConfigurations;
+  private final QueueAssignmentMode mode;
+
+  public SlotReservationQueueAssignmentEngine(QueueSlotStore slotStore, OrderRepository orderRepository,
+      CompiledShopConfigurations shopConfigurations,
+      @Value("${pos.queue.assignment-mode:LOCKED}") QueueAssignmentMode mode) {
+    this.slotStore = slotStore;
+    this.orderRepository = orderRepository;
+    this.shopConfigurations = shopConfigurations;
+    this.mode = mode;
+  }
+
+  /**
+   * @return true in {@code SLOT_RESERVATION} mode; decides without a shop configuration, so the other modes never fetch
+   * one just to rule this engine out
+   */
+  public boolean isEnabled() {
+    return mode == QueueAssignmentMode.SLOT_RESERVATION;
+  }
+
+  public boolean supports(ShopConfiguration config) {
+    return mode == QueueAssignmentMode.SLOT_RESERVATION
+        && shopConfigurations.compile(config).strategyType() == StrategyType.MOST_AVAILABLE;
+  }
+
+  @Override
+  public QueueAssignmentResult assign(QueueAssignmentContext ctx) {
+    UUID shopId = ctx.order().getShopId();
+    if (!slotStore.isInitialized(shopId)) {
+      log.debug("Initializing queue slots for shop {} from the database", shopId);
+      slotStore.initialize(shopId, orderRepository.countWaitingByQueue(shopId));
+    }
+
+    OptionalInt queueNumber = slotStore.reserve(shopId, ctx.config().queueCapacities());
+    if (queueNumber.isEmpty()) {
+      throw new AllQueueFullException(shopId);
+    }
+
+    releaseOnRollback(shopId, queueNumber.getAsInt());
+    return new QueueAssignmentResult(queueNumber.getAsInt());
+  }
+
+  public void release(Order order) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      slotStore.release(order.getShopId(), order.getQueueNumber());
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        slotStore.release(order.getShopId(), order.getQueueNumber());
+      }
+    });
+  }
+
+  private void releaseOnRollback(UUID shopId, int queueNumber) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        if (status != STATUS_COMMITTED) {
+          slotStore.release(shopId, queueNumber);
+        }
+      }
+    });
+  }
+}
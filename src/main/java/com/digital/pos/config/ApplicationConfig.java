@@ -1,20 +1,29 @@
 package com.digital.pos.config;
 
+import com.digital.pos.domain.service.ServiceRateEstimator;
 import com.digital.pos.domain.service.strategy.MostAvailableQueueAssignmentStrategy;
+import com.digital.pos.domain.service.strategy.PowerOfTwoChoicesQueueStrategy;
 import com.digital.pos.domain.service.strategy.QueueAssignmentStrategy;
+import com.digital.pos.domain.service.strategy.ShortestExpectedWaitQueueStrategy;
 import com.digital.pos.domain.service.strategy.VipMemberShipQueueStrategy;
 import java.util.List;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @Configuration
+@EnableScheduling
 public class ApplicationConfig {
 
+  // The strategies are no beans themselves, so this list is what QueueAssignmentEngineImpl registers; public for the
+  // assignment benchmark, which registers the same list
   @Bean
-  List<QueueAssignmentStrategy> queueAssignmentStrategies() {
+  public List<QueueAssignmentStrategy> queueAssignmentStrategies(ServiceRateEstimator serviceRateEstimator) {
     return List.of(
         new MostAvailableQueueAssignmentStrategy(),
-        new VipMemberShipQueueStrategy()
+        new VipMemberShipQueueStrategy(),
+        new ShortestExpectedWaitQueueStrategy(serviceRateEstimator),
+        new PowerOfTwoChoicesQueueStrategy()
     );
   }
 
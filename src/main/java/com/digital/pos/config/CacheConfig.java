@@ -1,9 +1,17 @@
 package com.digital.pos.config;
 
+import com.digital.pos.adapter.out.cache.LoadLease;
+import com.digital.pos.adapter.out.cache.NearCacheSettings;
+import com.digital.pos.adapter.out.cache.RedisLoadLease;
+import com.digital.pos.adapter.out.cache.TwoTierCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -16,27 +24,53 @@ import org.springframework.data.redis.connection.RedisConnectionFactory;
 @RequiredArgsConstructor
 public class CacheConfig {
 
+  private static final Duration SHOP_EXISTS_TTL = Duration.ofMinutes(5);
+  private static final Duration SHOP_CONFIG_TTL = Duration.ofMinutes(10);
+  // short, the in-process menu catalog cache refreshes from it every pos.menu.cache.refresh-after
+  private static final Duration MENU_ITEMS_TTL = Duration.ofMinutes(1);
+
   private final RedisConnectionFactory redisConnectionFactory;
 
   @Bean
-  public RedisCacheManager cacheManager() {
+  public CacheManager cacheManager(RedissonClient redissonClient, MeterRegistry meterRegistry,
+      @Value("${pos.cache.load-lease:PT2S}") Duration loadLeaseTtl,
+      @Value("${pos.cache.early-refresh-beta:1.0}") double earlyRefreshBeta) {
+    Map<String, NearCacheSettings> nearCaches = new HashMap<>();
+
+    nearCaches.put("shop-exists", new NearCacheSettings(Duration.ofMinutes(1), 10_000, SHOP_EXISTS_TTL));
+
+    nearCaches.put("shop-config", new NearCacheSettings(Duration.ofMinutes(1), 10_000, SHOP_CONFIG_TTL));
+
+    nearCaches.put("menu-items", new NearCacheSettings(Duration.ofSeconds(10), 10_000, MENU_ITEMS_TTL));
+
+    LoadLease loadLease = loadLeaseTtl.isZero() ? LoadLease.LOCAL : new RedisLoadLease(redissonClient, loadLeaseTtl);
+    return new TwoTierCacheManager(redisCacheManager(), nearCaches, redissonClient, meterRegistry, loadLease,
+        earlyRefreshBeta);
+  }
+
+  private RedisCacheManager redisCacheManager() {
     Map<String, RedisCacheConfiguration> cacheConfigs = new HashMap<>();
 
     cacheConfigs.put("shop-exists", RedisCacheConfiguration.defaultCacheConfig()
-        .entryTtl(Duration.ofMinutes(5)));
+        .entryTtl(SHOP_EXISTS_TTL));
 
     cacheConfigs.put("shop-config", RedisCacheConfiguration.defaultCacheConfig()
-        .entryTtl(Duration.ofMinutes(10)));
+        .entryTtl(SHOP_CONFIG_TTL));
+
+    cacheConfigs.put("menu-items", RedisCacheConfiguration.defaultCacheConfig()
+        .entryTtl(MENU_ITEMS_TTL));
 
-    cacheConfigs.put("shop-queue-snapshot", RedisCacheConfiguration.defaultCacheConfig()
-        .entryTtl(Duration.ofMinutes(3)));
     RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
         .entryTtl(Duration.ofMinutes(5));
 
-    return RedisCacheManager.builder(redisConnectionFactory)
+    RedisCacheManager redisCacheManager = RedisCacheManager.builder(redisConnectionFactory)
         .cacheDefaults(defaultConfig)
         .withInitialCacheConfigurations(cacheConfigs)
+        // hit/miss counts for the remote tier metrics
+        .enableStatistics()
         .build();
+    redisCacheManager.initializeCaches();
+    return redisCacheManager;
   }
 
 }
@@ -0,0 +1,10 @@
+package com.digital.pos.domain.exception;
+
+import java.util.UUID;
+
+public class InvalidShopConfigurationException extends RuntimeException {
+
+  public InvalidShopConfigurationException(UUID shopId, String reason) {
+    super("Invalid configuration of shop " + shopId + ": " + reason);
+  }
+}
@@ -0,0 +1,8 @@
+package com.digital.pos.domain.exception;
+
+public class LockTimeoutException extends IllegalStateException {
+
+  public LockTimeoutException(String key) {
+    super("Unable to acquire lock for key: " + key);
+  }
+}
@@ -0,0 +1,10 @@
+package com.digital.pos.domain.exception;
+
+import java.util.UUID;
+
+public class LookupRejectedException extends IllegalStateException {
+
+  public LookupRejectedException(UUID shopId, Throwable cause) {
+    super("Shop and menu lookups for shop " + shopId + " were rejected, the lookup pool is saturated", cause);
+  }
+}
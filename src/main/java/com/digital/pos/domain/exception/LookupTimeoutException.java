@@ -0,0 +1,11 @@
+package com.digital.pos.domain.exception;
+
+import java.time.Duration;
+import java.util.UUID;
+
+public class LookupTimeoutException extends IllegalStateException {
+
+  public LookupTimeoutException(UUID shopId, Duration timeout) {
+    super("Shop and menu lookups for shop " + shopId + " did not complete within " + timeout);
+  }
+}
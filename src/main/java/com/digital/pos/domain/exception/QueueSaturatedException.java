@@ -0,0 +1,19 @@
+package com.digital.pos.domain.exception;
+
+import java.time.Duration;
+import java.util.UUID;
+import lombok.Getter;
+
+/**
+ * All queues of the shop are full; {@code retryAfter} is when a slot is expected to be free again.
+ */
+@Getter
+public class QueueSaturatedException extends AllQueueFullException {
+
+  private final Duration retryAfter;
+
+  public QueueSaturatedException(UUID shopId, Duration retryAfter) {
+    super(shopId);
+    this.retryAfter = retryAfter;
+  }
+}
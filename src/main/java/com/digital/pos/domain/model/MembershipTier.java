@@ -0,0 +1,22 @@
+package com.digital.pos.domain.model;
+
+/**
+ * Loyalty tier of the customer placing an order. Orders of a higher tier are served before those of lower tiers in the
+ * same queue; within a tier orders keep their arrival order.
+ */
+public enum MembershipTier {
+  REGULAR(0),
+  SILVER(1),
+  GOLD(2),
+  PLATINUM(3);
+
+  private final int priority;
+
+  MembershipTier(int priority) {
+    this.priority = priority;
+  }
+
+  public int priority() {
+    return priority;
+  }
+}
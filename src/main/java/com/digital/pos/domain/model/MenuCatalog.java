@@ -0,0 +1,28 @@
+package com.digital.pos.domain.model;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable index of the available menu items of a shop, keyed by menu item id.
+ */
+public record MenuCatalog(UUID shopId, Map<UUID, MenuItem> items) implements Serializable {
+
+  public MenuCatalog {
+    items = Map.copyOf(items);
+  }
+
+  public static MenuCatalog of(UUID shopId, Collection<MenuItem> items) {
+    return new MenuCatalog(shopId, items.stream()
+        .collect(Collectors.toMap(MenuItem::id, Function.identity(), (first, second) -> first)));
+  }
+
+  public Optional<MenuItem> find(UUID menuItemId) {
+    return Optional.ofNullable(items.get(menuItemId));
+  }
+}
@@ -1,5 +1,6 @@
 package com.digital.pos.domain.model;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -21,12 +22,21 @@ public class Order {
   private List<OrderItem> items;
   private Integer queueNumber;
   private OrderStatus status;
+  // Membership tier priority, higher is served first within a queue
+  private int priority;
+  // As last read from the database, for a WAITING order the time it joined its queue
+  private Instant statusChangedAt;
 
   public static Order createNew(UUID shopId, List<OrderItem> items) {
+    return createNew(shopId, items, MembershipTier.REGULAR);
+  }
+
+  public static Order createNew(UUID shopId, List<OrderItem> items, MembershipTier tier) {
     Order order = new Order();
     order.shopId = shopId;
     order.items = new ArrayList<>(items);
     order.status = OrderStatus.WAITING;
+    order.priority = tier.priority();
     return order;
   }
 
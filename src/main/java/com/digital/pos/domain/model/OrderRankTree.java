@@ -0,0 +1,226 @@
+package com.digital.pos.domain.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.SplittableRandom;
+
+/**
+ * Order-statistic tree (a treap whose nodes carry their subtree size) over the orders of one queue, ranked by priority
+ * (higher first) and then by id, so orders of the same priority keep their arrival order.
+ * <p>
+ * An id → priority index locates an order without knowing its priority, so insert, remove and rank lookups are
+ * O(log n) expected and the live position of an order can be answered without counting the orders ahead of it. Not
+ * thread-safe; {@link ShopQueueState} guards access.
+ */
+public class OrderRankTree {
+
+  private final SplittableRandom random = new SplittableRandom();
+  private final Map<Long, Integer> priorities = new HashMap<>();
+  private Node root;
+
+  private static int size(Node node) {
+    return node == null ? 0 : node.size;
+  }
+
+  private static void update(Node node) {
+    node.size = 1 + size(node.left) + size(node.right);
+  }
+
+  // true if (priority, id) is served before the node
+  private static boolean before(int priority, long id, Node node) {
+    return priority > node.priority || priority == node.priority && id < node.id;
+  }
+
+  public int size() {
+    return size(root);
+  }
+
+  public boolean isEmpty() {
+    return root == null;
+  }
+
+  public boolean add(long id) {
+    return add(id, 0);
+  }
+
+  public boolean add(long id, int priority) {
+    if (priorities.putIfAbsent(id, priority) != null) {
+      return false;
+    }
+    root = insert(root, new Node(id, priority, random.nextInt()));
+    return true;
+  }
+
+  public boolean remove(long id) {
+    Integer priority = priorities.remove(id);
+    if (priority == null) {
+      return false;
+    }
+    root = remove(root, id, priority);
+    return true;
+  }
+
+  public boolean contains(long id) {
+    return priorities.containsKey(id);
+  }
+
+  /**
+   * @return the 1-based position of {@code id} in service order, or empty if the order is not in the tree
+   */
+  public OptionalInt position(long id) {
+    Integer priority = priorities.get(id);
+    return priority == null ? OptionalInt.empty() : OptionalInt.of(rank(id, priority));
+  }
+
+  /**
+   * @return the 1-based position in service order that {@code id} has, or would have if it were added with
+   * {@code priority}
+   */
+  public int rank(long id, int priority) {
+    int ahead = 0;
+    Node node = root;
+    while (node != null && node.id != id) {
+      if (before(priority, id, node)) {
+        node = node.left;
+      } else {
+        ahead += size(node.left) + 1;
+        node = node.right;
+      }
+    }
+    return ahead + (node == null ? 0 : size(node.left)) + 1;
+  }
+
+  /**
+   * @return how many orders a new order of {@code priority} would wait behind: those of the same or a higher priority
+   */
+  public int countAhead(int priority) {
+    int ahead = 0;
+    Node node = root;
+    while (node != null) {
+      if (node.priority >= priority) {
+        ahead += size(node.left) + 1;
+        node = node.right;
+      } else {
+        node = node.left;
+      }
+    }
+    return ahead;
+  }
+
+  /**
+   * @return all ids in service order
+   */
+  public List<Long> toList() {
+    List<Long> ids = new ArrayList<>(size(root));
+    Deque<Node> stack = new ArrayDeque<>();
+    Node node = root;
+    while (node != null || !stack.isEmpty()) {
+      while (node != null) {
+        stack.push(node);
+        node = node.left;
+      }
+      node = stack.pop();
+      ids.add(node.id);
+      node = node.right;
+    }
+    return ids;
+  }
+
+  /**
+   * @return an independent tree with the same orders and priorities
+   */
+  public OrderRankTree copy() {
+    OrderRankTree copy = new OrderRankTree();
+    priorities.forEach(copy::add);
+    return copy;
+  }
+
+  private Node insert(Node node, Node item) {
+    if (node == null) {
+      return item;
+    }
+    if (item.heapPriority > node.heapPriority) {
+      split(node, item);
+      update(item);
+      return item;
+    }
+    if (before(item.priority, item.id, node)) {
+      node.left = insert(node.left, item);
+    } else {
+      node.right = insert(node.right, item);
+    }
+    update(node);
+    return node;
+  }
+
+  // Splits the subtree into the orders served before and after pivot and hangs them under pivot.
+  private void split(Node node, Node pivot) {
+    if (node == null) {
+      pivot.left = null;
+      pivot.right = null;
+      return;
+    }
+    if (!before(pivot.priority, pivot.id, node)) {
+      split(node.right, pivot);
+      node.right = pivot.left;
+      update(node);
+      pivot.left = node;
+    } else {
+      split(node.left, pivot);
+      node.left = pivot.right;
+      update(node);
+      pivot.right = node;
+    }
+  }
+
+  private Node remove(Node node, long id, int priority) {
+    if (node.id == id) {
+      return merge(node.left, node.right);
+    }
+    if (before(priority, id, node)) {
+      node.left = remove(node.left, id, priority);
+    } else {
+      node.right = remove(node.right, id, priority);
+    }
+    update(node);
+    return node;
+  }
+
+  private Node merge(Node left, Node right) {
+    if (left == null) {
+      return right;
+    }
+    if (right == null) {
+      return left;
+    }
+    if (left.heapPriority > right.heapPriority) {
+      left.right = merge(left.right, right);
+      update(left);
+      return left;
+    }
+    right.left = merge(left, right.left);
+    update(right);
+    return right;
+  }
+
+  private static final class Node {
+
+    private final long id;
+    private final int priority;
+    private final int heapPriority;
+    private Node left;
+    private Node right;
+    private int size = 1;
+
+    private Node(long id, int priority, int heapPriority) {
+      this.id = id;
+      this.priority = priority;
+      this.heapPriority = heapPriority;
+    }
+  }
+}
@@ -0,0 +1,75 @@
+package com.digital.pos.domain.model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The queue capacities of a shop compiled into parallel primitive arrays, ordered by queue number, so strategies can
+ * scan them without boxing or iterating a map.
+ */
+public final class QueueCapacities {
+
+  private final int[] queueNumbers;
+  private final int[] capacities;
+
+  private QueueCapacities(int[] queueNumbers, int[] capacities) {
+    this.queueNumbers = queueNumbers;
+    this.capacities = capacities;
+  }
+
+  /**
+   * @throws IllegalArgumentException if there is no queue, or a queue number or capacity is missing or not positive
+   */
+  public static QueueCapacities of(Map<Integer, Integer> queueCapacities) {
+    if (queueCapacities == null || queueCapacities.isEmpty()) {
+      throw new IllegalArgumentException("no queues configured");
+    }
+    TreeMap<Integer, Integer> sorted = new TreeMap<>();
+    for (Map.Entry<Integer, Integer> entry : queueCapacities.entrySet()) {
+      Integer queueNumber = entry.getKey();
+      Integer capacity = entry.getValue();
+      if (queueNumber == null || queueNumber < 1) {
+        throw new IllegalArgumentException("invalid queue number " + queueNumber);
+      }
+      if (capacity == null || capacity < 1) {
+        throw new IllegalArgumentException("invalid capacity " + capacity + " for queue " + queueNumber);
+      }
+      sorted.put(queueNumber, capacity);
+    }
+
+    int[] queueNumbers = new int[sorted.size()];
+    int[] capacities = new int[sorted.size()];
+    int index = 0;
+    for (Map.Entry<Integer, Integer> entry : sorted.entrySet()) {
+      queueNumbers[index] = entry.getKey();
+      capacities[index] = entry.getValue();
+      index++;
+    }
+    return new QueueCapacities(queueNumbers, capacities);
+  }
+
+  public int count() {
+    return queueNumbers.length;
+  }
+
+  public int queueNumber(int index) {
+    return queueNumbers[index];
+  }
+
+  public int capacity(int index) {
+    return capacities[index];
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return o instanceof QueueCapacities other
+        && Arrays.equals(queueNumbers, other.queueNumbers)
+        && Arrays.equals(capacities, other.capacities);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Arrays.hashCode(queueNumbers) + Arrays.hashCode(capacities);
+  }
+}
@@ -0,0 +1,26 @@
+package com.digital.pos.domain.model;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * A committed change of a shop queue: the order joined its queue ({@code WAITING}) or left it ({@code SERVED} or
+ * {@code CANCELED}). Orders queued behind it in the same queue shift by one position.
+ *
+ * @param priority the order's priority, which together with its id places it in the queue
+ * @param version  the shop state version produced by the change
+ */
+public record QueueChange(UUID shopId, int queueNumber, long orderId, int priority, OrderStatus status, long version)
+    implements Serializable {
+
+  public QueueChange(UUID shopId, int queueNumber, long orderId, OrderStatus status, long version) {
+    this(shopId, queueNumber, orderId, 0, status, version);
+  }
+
+  /**
+   * @return true if the changed order is served before the order {@code orderId} of {@code priority}
+   */
+  public boolean isAhead(long orderId, int priority) {
+    return this.priority > priority || this.priority == priority && this.orderId < orderId;
+  }
+}
@@ -0,0 +1,12 @@
+package com.digital.pos.domain.model;
+
+/**
+ * The part of a WAITING order the queue logic needs: which queue it waits in, and its priority and id, which order the
+ * queue.
+ */
+public record QueueEntry(long orderId, int queueNumber, int priority) {
+
+  public QueueEntry(long orderId, int queueNumber) {
+    this(orderId, queueNumber, 0);
+  }
+}
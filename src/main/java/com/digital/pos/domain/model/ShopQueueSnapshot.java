@@ -0,0 +1,15 @@
+package com.digital.pos.domain.model;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Immutable view of the WAITING orders of a shop at one point in time.
+ *
+ * @param version  the shop state version the snapshot was taken at
+ * @param orderIds order ids per non-empty queue, in queue number order; each list is in live position order
+ */
+public record ShopQueueSnapshot(UUID shopId, long version, Map<Integer, List<Long>> orderIds) {
+
+}
@@ -0,0 +1,160 @@
+package com.digital.pos.domain.model;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.TreeMap;
+import java.util.UUID;
+import lombok.Getter;
+
+/**
+ * In-memory view of the WAITING orders of one shop: an ordered index of order ids per queue, in service order (higher
+ * priority first, then by id).
+ * <p>
+ * The state is updated incrementally when orders are created, served or canceled, so queue sizes can be read in
+ * O(queues) and live positions in O(log n) without touching the database. {@code version} is the shop's global state
+ * version the view is in sync with; a mismatch means another node changed the shop and the view must be rebuilt.
+ */
+public class ShopQueueState {
+
+  @Getter
+  private final UUID shopId;
+  private final Map<Integer, OrderRankTree> queues = new TreeMap<>();
+  private long version;
+  private ShopQueueSnapshot snapshot;
+
+  public ShopQueueState(UUID shopId, long version) {
+    this.shopId = shopId;
+    this.version = version;
+  }
+
+  public static ShopQueueState fromOrders(UUID shopId, long version, Collection<Order> waitingOrders) {
+    ShopQueueState state = new ShopQueueState(shopId, version);
+    for (Order order : waitingOrders) {
+      state.add(order.getQueueNumber(), order.getId(), order.getPriority());
+    }
+    return state;
+  }
+
+  public static ShopQueueState fromEntries(UUID shopId, long version, Collection<QueueEntry> waitingEntries) {
+    ShopQueueState state = new ShopQueueState(shopId, version);
+    for (QueueEntry entry : waitingEntries) {
+      state.add(entry.queueNumber(), entry.orderId(), entry.priority());
+    }
+    return state;
+  }
+
+  /**
+   * @return an independent copy at the same version, for working on the state without changing this one
+   */
+  public synchronized ShopQueueState copy() {
+    ShopQueueState copy = new ShopQueueState(shopId, version);
+    queues.forEach((queueNumber, orderIds) -> copy.queues.put(queueNumber, orderIds.copy()));
+    return copy;
+  }
+
+  public void add(int queueNumber, long orderId) {
+    add(queueNumber, orderId, 0);
+  }
+
+  public synchronized void add(int queueNumber, long orderId, int priority) {
+    if (queues.computeIfAbsent(queueNumber, q -> new OrderRankTree()).add(orderId, priority)) {
+      snapshot = null;
+    }
+  }
+
+  public synchronized boolean remove(int queueNumber, long orderId) {
+    OrderRankTree orderIds = queues.get(queueNumber);
+    if (orderIds == null || !orderIds.remove(orderId)) {
+      return false;
+    }
+    snapshot = null;
+    return true;
+  }
+
+  /**
+   * @return the 1-based live position of the order in its queue, or empty if the order is not waiting in that queue
+   */
+  public synchronized OptionalInt position(int queueNumber, long orderId) {
+    OrderRankTree orderIds = queues.get(queueNumber);
+    return orderIds == null ? OptionalInt.empty() : orderIds.position(orderId);
+  }
+
+  /**
+   * @return the 1-based position the order has, or would have if it were added, in its queue
+   */
+  public synchronized int rank(int queueNumber, long orderId, int priority) {
+    OrderRankTree orderIds = queues.get(queueNumber);
+    return orderIds == null ? 1 : orderIds.rank(orderId, priority);
+  }
+
+  /**
+   * @return how many waiting orders a new order of {@code priority} would be queued behind in the queue
+   */
+  public synchronized int waitingAhead(int queueNumber, int priority) {
+    OrderRankTree orderIds = queues.get(queueNumber);
+    return orderIds == null ? 0 : orderIds.countAhead(priority);
+  }
+
+  public synchronized int size(int queueNumber) {
+    OrderRankTree orderIds = queues.get(queueNumber);
+    return orderIds == null ? 0 : orderIds.size();
+  }
+
+  public synchronized Map<Integer, Integer> sizes() {
+    Map<Integer, Integer> sizes = new TreeMap<>();
+    queues.forEach((queueNumber, orderIds) -> sizes.put(queueNumber, orderIds.size()));
+    return sizes;
+  }
+
+  public synchronized List<Long> orderIds(int queueNumber) {
+    OrderRankTree orderIds = queues.get(queueNumber);
+    return orderIds == null ? Collections.emptyList() : orderIds.toList();
+  }
+
+  /**
+   * Returns the current snapshot. It is built on the first read after a change and shared by all reads until the
+   * next one, so repeated reads of an unchanged shop return the same instance.
+   */
+  public synchronized ShopQueueSnapshot snapshot() {
+    if (snapshot == null) {
+      Map<Integer, List<Long>> orderIds = new TreeMap<>();
+      queues.forEach((queueNumber, ids) -> {
+        if (!ids.isEmpty()) {
+          orderIds.put(queueNumber, ids.toList());
+        }
+      });
+      snapshot = new ShopQueueSnapshot(shopId, version, Collections.unmodifiableMap(orderIds));
+    }
+    return snapshot;
+  }
+
+  public synchronized long getVersion() {
+    return version;
+  }
+
+  /**
+   * Applies a committed change if it directly follows the current version. Changes the view already includes, such as
+   * this node's own arriving back over the change bus, are ignored.
+   *
+   * @return false when the change skips a version, meaning another change is missing from this view
+   */
+  public synchronized boolean apply(QueueChange change) {
+    if (change.version() <= version) {
+      return true;
+    }
+    if (change.version() != version + 1) {
+      return false;
+    }
+    if (change.status() == OrderStatus.WAITING) {
+      add(change.queueNumber(), change.orderId(), change.priority());
+    } else {
+      remove(change.queueNumber(), change.orderId());
+    }
+    version = change.version();
+    snapshot = null;
+    return true;
+  }
+}
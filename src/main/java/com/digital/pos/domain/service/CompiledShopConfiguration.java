@@ -0,0 +1,30 @@
+package com.digital.pos.domain.service;
+
+import com.digital.pos.domain.exception.InvalidShopConfigurationException;
+import com.digital.pos.domain.model.QueueCapacities;
+import com.digital.pos.domain.model.ShopConfiguration;
+import com.digital.pos.domain.service.strategy.StrategyType;
+
+/**
+ * A validated shop configuration with its strategy resolved and its capacities compiled, see
+ * {@link QueueAssignmentEngineImpl}.
+ *
+ * @param source the configuration this was compiled from
+ */
+public record CompiledShopConfiguration(ShopConfiguration source, StrategyType strategyType,
+                                        QueueCapacities capacities) {
+
+  /**
+   * @throws InvalidShopConfigurationException if the strategy is unknown or the capacities are invalid
+   */
+  public static CompiledShopConfiguration compile(ShopConfiguration config) {
+    StrategyType strategyType = StrategyType.parse(config.queueStrategy())
+        .orElseThrow(() -> new InvalidShopConfigurationException(config.shopId(),
+            "unknown queue strategy " + config.queueStrategy()));
+    try {
+      return new CompiledShopConfiguration(config, strategyType, QueueCapacities.of(config.queueCapacities()));
+    } catch (IllegalArgumentException e) {
+      throw new InvalidShopConfigurationException(config.shopId(), e.getMessage());
+    }
+  }
+}
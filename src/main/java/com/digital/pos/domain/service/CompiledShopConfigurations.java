@@ -0,0 +1,47 @@
+package com.digital.pos.domain.service;
+
+import com.digital.pos.domain.model.ShopConfiguration;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.UUID;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compiles each shop's configuration once (strategy resolved, capacities as primitive arrays) and reuses it while the
+ * shop config cache keeps returning the same configuration, for assignment and for every other per-order strategy
+ * check.
+ * <p>
+ * A changed configuration (another instance that is not equal) is compiled again on its first use, so a refreshed
+ * cache entry is picked up without an explicit invalidation. Compiled configurations are bounded like the shop config
+ * near cache, shops not used for a while are dropped and compiled again when they come back.
+ */
+@Component
+public class CompiledShopConfigurations {
+
+  static final int MAX_COMPILED_SHOPS = 10_000;
+  static final Duration COMPILED_IDLE_TTL = Duration.ofMinutes(10);
+
+  private final Cache<UUID, CompiledShopConfiguration> compiled = Caffeine.newBuilder()
+      .maximumSize(MAX_COMPILED_SHOPS)
+      .expireAfterAccess(COMPILED_IDLE_TTL)
+      .build();
+
+  /**
+   * @return the compiled form of {@code config}, reused while the shop's configuration is unchanged
+   */
+  public CompiledShopConfiguration compile(ShopConfiguration config) {
+    CompiledShopConfiguration current = compiled.getIfPresent(config.shopId());
+    if (current != null && (current.source() == config || current.source().equals(config))) {
+      return current;
+    }
+    CompiledShopConfiguration fresh = CompiledShopConfiguration.compile(config);
+    compiled.put(config.shopId(), fresh);
+    return fresh;
+  }
+
+  long compiledShops() {
+    compiled.cleanUp();
+    return compiled.estimatedSize();
+  }
+}
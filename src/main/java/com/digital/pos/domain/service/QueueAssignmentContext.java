@@ -2,8 +2,8 @@ package com.digital.pos.domain.service;
 
 import com.digital.pos.domain.model.Order;
 import com.digital.pos.domain.model.ShopConfiguration;
-import java.util.List;
+import com.digital.pos.domain.model.ShopQueueState;
 
-public record QueueAssignmentContext(Order order, ShopConfiguration config, List<Order> waitingOrders) {
+public record QueueAssignmentContext(Order order, ShopConfiguration config, ShopQueueState queueState) {
 
 }
@@ -2,22 +2,49 @@ package com.digital.pos.domain.service;
 
 import com.digital.pos.domain.model.QueueAssignmentResult;
 import com.digital.pos.domain.service.strategy.QueueAssignmentStrategy;
+import com.digital.pos.domain.service.strategy.StrategyType;
+import java.util.EnumMap;
 import java.util.List;
-import lombok.RequiredArgsConstructor;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Component;
 
+/**
+ * Dispatches to the strategy of the shop through an {@link EnumMap} built once from the registered strategies. The
+ * shop's configuration is compiled by {@link CompiledShopConfigurations}, so assignment does not parse it per order.
+ */
 @Component
-@RequiredArgsConstructor
+@Primary
 public class QueueAssignmentEngineImpl implements QueueAssignmentEngine {
 
-  private final List<QueueAssignmentStrategy> strategies;
+  private final Map<StrategyType, QueueAssignmentStrategy> strategies = new EnumMap<>(StrategyType.class);
+  private final CompiledShopConfigurations configurations;
+
+  public QueueAssignmentEngineImpl(List<QueueAssignmentStrategy> strategies) {
+    this(strategies, new CompiledShopConfigurations());
+  }
+
+  @Autowired
+  public QueueAssignmentEngineImpl(List<QueueAssignmentStrategy> strategies,
+      CompiledShopConfigurations configurations) {
+    this.configurations = configurations;
+    for (QueueAssignmentStrategy strategy : strategies) {
+      QueueAssignmentStrategy previous = this.strategies.put(strategy.type(), strategy);
+      if (previous != null) {
+        throw new IllegalStateException("Strategies " + previous.getClass().getSimpleName() + " and "
+            + strategy.getClass().getSimpleName() + " are both registered for " + strategy.type());
+      }
+    }
+  }
 
   @Override
   public QueueAssignmentResult assign(QueueAssignmentContext queueAssignmentContext) {
-    return strategies.stream()
-        .filter(s -> s.supports(queueAssignmentContext.config()))
-        .findFirst()
-        .orElseThrow(() -> new IllegalStateException("No matching strategy for shop"))
-        .assign(queueAssignmentContext);
+    CompiledShopConfiguration config = configurations.compile(queueAssignmentContext.config());
+    QueueAssignmentStrategy strategy = strategies.get(config.strategyType());
+    if (strategy == null) {
+      throw new IllegalStateException("No strategy registered for " + config.strategyType());
+    }
+    return strategy.assign(queueAssignmentContext, config.capacities());
   }
 }
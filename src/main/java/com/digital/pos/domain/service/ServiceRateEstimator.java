@@ -0,0 +1,15 @@
+package com.digital.pos.domain.service;
+
+import java.util.UUID;
+
+/**
+ * Online estimate of how fast each queue of a shop is served.
+ */
+public interface ServiceRateEstimator {
+
+  /**
+   * @return the estimated time between two orders served from the queue in milliseconds, or {@link Double#NaN} if
+   *     the queue has not been observed yet
+   */
+  double meanServiceMillis(UUID shopId, int queueNumber);
+}
@@ -1,29 +1,21 @@
 package com.digital.pos.domain.service.strategy;
 
 import com.digital.pos.domain.exception.AllQueueFullException;
-import com.digital.pos.domain.model.Order;
 import com.digital.pos.domain.model.QueueAssignmentResult;
-import com.digital.pos.domain.model.ShopConfiguration;
+import com.digital.pos.domain.model.QueueCapacities;
+import com.digital.pos.domain.model.ShopQueueState;
 import com.digital.pos.domain.service.QueueAssignmentContext;
-import java.util.Map;
-import java.util.stream.Collectors;
-import org.springframework.stereotype.Component;
 
-@Component
 public class MostAvailableQueueAssignmentStrategy implements QueueAssignmentStrategy {
 
   @Override
-  public boolean supports(ShopConfiguration config) {
-    return StrategyType.MOST_AVAILABLE.name().equalsIgnoreCase(config.queueStrategy());
+  public StrategyType type() {
+    return StrategyType.MOST_AVAILABLE;
   }
 
   @Override
-  public QueueAssignmentResult assign(QueueAssignmentContext ctx) {
-    Map<Integer, Integer> capacities = ctx.config().queueCapacities();
-    Map<Integer, Long> currentCounts = ctx.waitingOrders().stream()
-        .collect(Collectors.groupingBy(Order::getQueueNumber, Collectors.counting()));
-
-    int selectedQueue = findQueueWithMostAvailableSlots(capacities, currentCounts);
+  public QueueAssignmentResult assign(QueueAssignmentContext ctx, QueueCapacities capacities) {
+    int selectedQueue = findQueueWithMostAvailableSlots(capacities, ctx.queueState());
 
     if (selectedQueue == -1) {
       throw new AllQueueFullException(ctx.order().getShopId());
@@ -32,13 +24,13 @@ public class MostAvailableQueueAssignmentStrategy implements QueueAssignmentStra
     return new QueueAssignmentResult(selectedQueue);
   }
 
-  private int findQueueWithMostAvailableSlots(Map<Integer, Integer> capacities, Map<Integer, Long> currentCounts) {
+  private int findQueueWithMostAvailableSlots(QueueCapacities capacities, ShopQueueState queueState) {
     int selectedQueue = -1;
     int maxAvailableSlots = 0;
 
-    for (Map.Entry<Integer, Integer> entry : capacities.entrySet()) {
-      int queueNumber = entry.getKey();
-      int availableSlots = calculateAvailableSlots(entry.getValue(), currentCounts.getOrDefault(queueNumber, 0L));
+    for (int i = 0; i < capacities.count(); i++) {
+      int queueNumber = capacities.queueNumber(i);
+      int availableSlots = calculateAvailableSlots(capacities.capacity(i), queueState.size(queueNumber));
 
       if (availableSlots > maxAvailableSlots) {
         maxAvailableSlots = availableSlots;
@@ -49,7 +41,7 @@ public class MostAvailableQueueAssignmentStrategy implements QueueAssignmentStra
     return selectedQueue;
   }
 
-  private int calculateAvailableSlots(int maxCapacity, long currentLoad) {
-    return maxCapacity - (int) currentLoad;
+  private int calculateAvailableSlots(int maxCapacity, int currentLoad) {
+    return maxCapacity - currentLoad;
   }
 }
@@ -0,0 +1,67 @@
+package com.digital.pos.domain.service.strategy;
+
+import com.digital.pos.domain.exception.AllQueueFullException;
+import com.digital.pos.domain.model.QueueAssignmentResult;
+import com.digital.pos.domain.model.QueueCapacities;
+import com.digital.pos.domain.model.ShopQueueState;
+import com.digital.pos.domain.service.QueueAssignmentContext;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+
+/**
+ * For shops with many queues: samples two distinct queues at random and picks the one with more free slots, so an
+ * assignment costs O(1) instead of a scan over every queue. The maximum load stays within O(log log n) of the average
+ * (the "power of two choices"), and concurrent orders spread over different queues instead of all going to the single
+ * emptiest one.
+ * <p>
+ * If both samples are full the queues are scanned for any free slot, so an order is only rejected when the shop is
+ * really full.
+ */
+public class PowerOfTwoChoicesQueueStrategy implements QueueAssignmentStrategy {
+
+  private final Supplier<RandomGenerator> random;
+
+  public PowerOfTwoChoicesQueueStrategy() {
+    this(ThreadLocalRandom::current);
+  }
+
+  PowerOfTwoChoicesQueueStrategy(Supplier<RandomGenerator> random) {
+    this.random = random;
+  }
+
+  private static int freeSlots(QueueCapacities capacities, int index, ShopQueueState queueState) {
+    return capacities.capacity(index) - queueState.size(capacities.queueNumber(index));
+  }
+
+  @Override
+  public StrategyType type() {
+    return StrategyType.POWER_OF_TWO_CHOICES;
+  }
+
+  @Override
+  public QueueAssignmentResult assign(QueueAssignmentContext ctx, QueueCapacities capacities) {
+    ShopQueueState queueState = ctx.queueState();
+    int queues = capacities.count();
+
+    int first = random.get().nextInt(queues);
+    int selected = first;
+    if (queues > 1) {
+      // second sample drawn from the other queues, so the two are distinct
+      int second = (first + 1 + random.get().nextInt(queues - 1)) % queues;
+      if (freeSlots(capacities, second, queueState) > freeSlots(capacities, first, queueState)) {
+        selected = second;
+      }
+    }
+    if (freeSlots(capacities, selected, queueState) > 0) {
+      return new QueueAssignmentResult(capacities.queueNumber(selected));
+    }
+
+    for (int i = 0; i < queues; i++) {
+      if (freeSlots(capacities, i, queueState) > 0) {
+        return new QueueAssignmentResult(capacities.queueNumber(i));
+      }
+    }
+    throw new AllQueueFullException(ctx.order().getShopId());
+  }
+}
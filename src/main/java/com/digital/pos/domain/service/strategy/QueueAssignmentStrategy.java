@@ -1,12 +1,22 @@
 package com.digital.pos.domain.service.strategy;
 
 import com.digital.pos.domain.model.QueueAssignmentResult;
-import com.digital.pos.domain.model.ShopConfiguration;
+import com.digital.pos.domain.model.QueueCapacities;
 import com.digital.pos.domain.service.QueueAssignmentContext;
 
 public interface QueueAssignmentStrategy {
 
-  boolean supports(ShopConfiguration config); // e.g., based on shopId or strategy type
+  /**
+   * @return the {@code queueStrategy} of the shop configurations this strategy serves
+   */
+  StrategyType type();
 
-  QueueAssignmentResult assign(QueueAssignmentContext queueAssignmentContext);
+  default QueueAssignmentResult assign(QueueAssignmentContext queueAssignmentContext) {
+    return assign(queueAssignmentContext, QueueCapacities.of(queueAssignmentContext.config().queueCapacities()));
+  }
+
+  /**
+   * @param capacities the compiled {@code queueCapacities} of the context's shop configuration
+   */
+  QueueAssignmentResult assign(QueueAssignmentContext queueAssignmentContext, QueueCapacities capacities);
 }
@@ -0,0 +1,77 @@
+package com.digital.pos.domain.service.strategy;
+
+import com.digital.pos.domain.exception.AllQueueFullException;
+import com.digital.pos.domain.model.QueueAssignmentResult;
+import com.digital.pos.domain.model.QueueCapacities;
+import com.digital.pos.domain.model.ShopQueueState;
+import com.digital.pos.domain.service.QueueAssignmentContext;
+import com.digital.pos.domain.service.ServiceRateEstimator;
+import java.util.UUID;
+
+/**
+ * Places the order in the queue with free capacity where it is expected to be served first: the orders already
+ * waiting plus the new one, times the estimated service interval of the queue. Ties go to the queue with the most free
+ * slots, then to the lowest queue number.
+ * <p>
+ * A queue without an estimate yet is assumed to be as fast as the average of the shop's observed queues; with no
+ * estimate at all the strategy picks the shortest queue.
+ */
+public class ShortestExpectedWaitQueueStrategy implements QueueAssignmentStrategy {
+
+  private final ServiceRateEstimator serviceRates;
+
+  public ShortestExpectedWaitQueueStrategy(ServiceRateEstimator serviceRates) {
+    this.serviceRates = serviceRates;
+  }
+
+  @Override
+  public StrategyType type() {
+    return StrategyType.SHORTEST_EXPECTED_WAIT;
+  }
+
+  @Override
+  public QueueAssignmentResult assign(QueueAssignmentContext ctx, QueueCapacities capacities) {
+    UUID shopId = ctx.order().getShopId();
+    ShopQueueState queueState = ctx.queueState();
+    double fallbackMillis = averageServiceMillis(shopId, capacities);
+
+    int selectedQueue = -1;
+    double shortestWait = Double.MAX_VALUE;
+    int mostFreeSlots = 0;
+    for (int i = 0; i < capacities.count(); i++) {
+      int queueNumber = capacities.queueNumber(i);
+      int waiting = queueState.size(queueNumber);
+      int freeSlots = capacities.capacity(i) - waiting;
+      if (freeSlots <= 0) {
+        continue;
+      }
+      double serviceMillis = serviceRates.meanServiceMillis(shopId, queueNumber);
+      double expectedWait = (waiting + 1) * (Double.isNaN(serviceMillis) ? fallbackMillis : serviceMillis);
+      if (expectedWait < shortestWait
+          || expectedWait == shortestWait && (freeSlots > mostFreeSlots
+          || freeSlots == mostFreeSlots && queueNumber < selectedQueue)) {
+        selectedQueue = queueNumber;
+        shortestWait = expectedWait;
+        mostFreeSlots = freeSlots;
+      }
+    }
+
+    if (selectedQueue == -1) {
+      throw new AllQueueFullException(shopId);
+    }
+    return new QueueAssignmentResult(selectedQueue);
+  }
+
+  private double averageServiceMillis(UUID shopId, QueueCapacities capacities) {
+    double sum = 0;
+    int observed = 0;
+    for (int i = 0; i < capacities.count(); i++) {
+      double serviceMillis = serviceRates.meanServiceMillis(shopId, capacities.queueNumber(i));
+      if (!Double.isNaN(serviceMillis)) {
+        sum += serviceMillis;
+        observed++;
+      }
+    }
+    return observed == 0 ? 1 : sum / observed;
+  }
+}
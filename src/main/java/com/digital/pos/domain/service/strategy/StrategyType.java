@@ -1,12 +1,33 @@
 package com.digital.pos.domain.service.strategy;
 
+import java.util.Locale;
+import java.util.Optional;
+
 public enum StrategyType {
   VIP_MEMBERSHIP("VIP_MEMBERSHIP"),
-  MOST_AVAILABLE("MOST_AVAILABLE");
+  MOST_AVAILABLE("MOST_AVAILABLE"),
+  SHORTEST_EXPECTED_WAIT("SHORTEST_EXPECTED_WAIT"),
+  POWER_OF_TWO_CHOICES("POWER_OF_TWO_CHOICES");
 
   private final String name;
 
   StrategyType(String name) {
     this.name = name;
   }
+
+  /**
+   * @return the strategy named {@code name}, ignoring case, or empty if there is none
+   */
+  public static Optional<StrategyType> parse(String name) {
+    if (name == null) {
+      return Optional.empty();
+    }
+    String normalized = name.trim().toUpperCase(Locale.ROOT);
+    for (StrategyType type : values()) {
+      if (type.name.equals(normalized)) {
+        return Optional.of(type);
+      }
+    }
+    return Optional.empty();
+  }
 }
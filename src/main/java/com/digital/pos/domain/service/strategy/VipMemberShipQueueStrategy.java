@@ -1,25 +1,55 @@
 package com.digital.pos.domain.service.strategy;
 
+import com.digital.pos.domain.exception.AllQueueFullException;
 import com.digital.pos.domain.model.Order;
 import com.digital.pos.domain.model.QueueAssignmentResult;
-import com.digital.pos.domain.model.ShopConfiguration;
+import com.digital.pos.domain.model.QueueCapacities;
+import com.digital.pos.domain.model.ShopQueueState;
 import com.digital.pos.domain.service.QueueAssignmentContext;
-import java.util.List;
 
+/**
+ * Places the order where it will be served soonest given its membership tier: in the queue with free capacity where
+ * the fewest orders of the same or a higher tier wait ahead of it. Lower-tier orders do not count, the order is served
+ * before them. Ties go to the queue with the most free slots, then to the lowest queue number.
+ * <p>
+ * Each queue answers "how many ahead of this tier" from its priority-ranked index in O(log n), so an assignment costs
+ * O(queues · log n) however many orders wait.
+ */
 public class VipMemberShipQueueStrategy implements QueueAssignmentStrategy {
 
   @Override
-  public boolean supports(ShopConfiguration config) {
-    return config.queueStrategy().equalsIgnoreCase(StrategyType.VIP_MEMBERSHIP.name());
+  public StrategyType type() {
+    return StrategyType.VIP_MEMBERSHIP;
   }
 
   @Override
-  public QueueAssignmentResult assign(QueueAssignmentContext queueAssignmentContext) {
+  public QueueAssignmentResult assign(QueueAssignmentContext queueAssignmentContext, QueueCapacities capacities) {
     Order order = queueAssignmentContext.order();
-    List<Order> waitingOrders = queueAssignmentContext.waitingOrders();
-    //TODO: Implement the logic to assign a queue based on highscore score
-    return new QueueAssignmentResult(1);
+    ShopQueueState queueState = queueAssignmentContext.queueState();
 
+    int selectedQueue = -1;
+    int fewestAhead = Integer.MAX_VALUE;
+    int mostFreeSlots = 0;
+    for (int i = 0; i < capacities.count(); i++) {
+      int queueNumber = capacities.queueNumber(i);
+      int freeSlots = capacities.capacity(i) - queueState.size(queueNumber);
+      if (freeSlots <= 0) {
+        continue;
+      }
+      int ahead = queueState.waitingAhead(queueNumber, order.getPriority());
+      if (ahead < fewestAhead
+          || ahead == fewestAhead && (freeSlots > mostFreeSlots
+          || freeSlots == mostFreeSlots && queueNumber < selectedQueue)) {
+        selectedQueue = queueNumber;
+        fewestAhead = ahead;
+        mostFreeSlots = freeSlots;
+      }
+    }
+
+    if (selectedQueue == -1) {
+      throw new AllQueueFullException(order.getShopId());
+    }
+    return new QueueAssignmentResult(selectedQueue);
   }
 
 }
@@ -2,8 +2,14 @@ package com.digital.pos.exception;
 
 import com.digital.pos.domain.exception.AllQueueFullException;
 import com.digital.pos.domain.exception.InvalidOrderStateException;
+import com.digital.pos.domain.exception.InvalidShopConfigurationException;
+import com.digital.pos.domain.exception.LockTimeoutException;
+import com.digital.pos.domain.exception.LookupRejectedException;
+import com.digital.pos.domain.exception.LookupTimeoutException;
+import com.digital.pos.domain.exception.QueueSaturatedException;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -21,12 +27,44 @@ public class RestControllerAdvice {
     return buildResponse(HttpStatus.BAD_REQUEST, "INVALID_ORDER_STATE", ex.getMessage());
   }
 
+  @ExceptionHandler(QueueSaturatedException.class)
+  public ResponseEntity<ErrorResponse> handleQueueSaturated(QueueSaturatedException ex) {
+    return ResponseEntity.status(HttpStatus.CONFLICT)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfter().toSeconds()))
+        .body(new ErrorResponse("ALL_QUEUES_FULL", ex.getMessage()));
+  }
+
   @ExceptionHandler(AllQueueFullException.class)
   public ResponseEntity<ErrorResponse> handleAllQueueFull(AllQueueFullException ex) {
     return ResponseEntity.status(HttpStatus.CONFLICT)
         .body(new ErrorResponse("ALL_QUEUES_FULL", ex.getMessage()));
   }
 
+  @ExceptionHandler(LockTimeoutException.class)
+  public ResponseEntity<ErrorResponse> handleLockTimeout(LockTimeoutException ex) {
+    log.warn("Lock timeout: {}", ex.getMessage());
+    return buildResponse(HttpStatus.SERVICE_UNAVAILABLE, "LOCK_TIMEOUT", "The shop queue is busy, please retry");
+  }
+
+  @ExceptionHandler(LookupTimeoutException.class)
+  public ResponseEntity<ErrorResponse> handleLookupTimeout(LookupTimeoutException ex) {
+    log.warn("Lookup timeout: {}", ex.getMessage());
+    return buildResponse(HttpStatus.GATEWAY_TIMEOUT, "UPSTREAM_TIMEOUT",
+        "The shop or menu service did not answer in time");
+  }
+
+  @ExceptionHandler(LookupRejectedException.class)
+  public ResponseEntity<ErrorResponse> handleLookupRejected(LookupRejectedException ex) {
+    log.warn("Lookup rejected: {}", ex.getMessage());
+    return buildResponse(HttpStatus.SERVICE_UNAVAILABLE, "LOOKUPS_BUSY", "The service is busy, please retry");
+  }
+
+  @ExceptionHandler(InvalidShopConfigurationException.class)
+  public ResponseEntity<ErrorResponse> handleInvalidShopConfiguration(InvalidShopConfigurationException ex) {
+    log.error("Invalid shop configuration: {}", ex.getMessage());
+    return buildResponse(HttpStatus.BAD_GATEWAY, "INVALID_SHOP_CONFIGURATION", ex.getMessage());
+  }
+
   @ExceptionHandler(EntityNotFoundException.class)
   public ResponseEntity<?> handleNotFound(EntityNotFoundException ex) {
     log.error("User not found: {}", ex.getMessage(), ex);
@@ -0,0 +1,161 @@
+package com.digital.pos.adapter.out.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+class TwoTierCacheTest {
+
+  private final UUID key = UUID.randomUUID();
+  private final List<Object> published = new ArrayList<>();
+  private ConcurrentMapCache remote;
+  private TwoTierCache cache;
+
+  @BeforeEach
+  void setUp() {
+    remote = new ConcurrentMapCache("shop-config");
+    cache = new TwoTierCache("shop-config", Caffeine.newBuilder().build(), remote, published::add);
+  }
+
+  @Test
+  void get_shouldServeFromNearTier_afterFirstRemoteHit() {
+    remote.put(key, "config");
+
+    assertEquals("config", cache.get(key).get());
+    remote.evict(key);
+
+    assertEquals("config", cache.get(key).get());
+  }
+
+  @Test
+  void getWithLoader_shouldLoadOnceAndWriteThroughToRemote() {
+    AtomicInteger loads = new AtomicInteger();
+
+    cache.get(key, () -> "v" + loads.incrementAndGet());
+    String second = cache.get(key, () -> "v" + loads.incrementAndGet());
+
+    assertEquals("v1", second);
+    assertEquals(1, loads.get());
+    assertEquals("v1", ((CachedValue) remote.get(key).get()).storeValue());
+  }
+
+  @Test
+  void getWithLoader_shouldShareOneLoad_whenCallersMissConcurrently() throws Exception {
+    AtomicInteger loads = new AtomicInteger();
+    CountDownLatch loaderStarted = new CountDownLatch(1);
+    CountDownLatch releaseLoader = new CountDownLatch(1);
+
+    CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> cache.get(key, () -> {
+      loaderStarted.countDown();
+      releaseLoader.await();
+      return "v" + loads.incrementAndGet();
+    }));
+    loaderStarted.await(5, TimeUnit.SECONDS);
+    CompletableFuture<String> second = CompletableFuture.supplyAsync(
+        () -> cache.get(key, () -> "v" + loads.incrementAndGet()));
+    releaseLoader.countDown();
+
+    assertEquals("v1", first.get(5, TimeUnit.SECONDS));
+    assertEquals("v1", second.get(5, TimeUnit.SECONDS));
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  void getWithLoader_shouldRefreshEarly_whenSharedCopyIsAboutToExpire() {
+    TwoTierCache refreshing = cacheWith(LoadLease.LOCAL);
+    remote.put(key, new CachedValue("old", System.currentTimeMillis() - 1, 100));
+
+    String value = refreshing.get(key, () -> "new");
+
+    assertEquals("new", value);
+    assertEquals("new", ((CachedValue) remote.get(key).get()).storeValue());
+  }
+
+  @Test
+  void getWithLoader_shouldServeCurrentValue_whenEarlyRefreshFails() {
+    TwoTierCache refreshing = cacheWith(LoadLease.LOCAL);
+    remote.put(key, new CachedValue("old", System.currentTimeMillis() - 1, 100));
+
+    String value = refreshing.get(key, () -> {
+      throw new IllegalStateException("shop service down");
+    });
+
+    assertEquals("old", value);
+  }
+
+  @Test
+  void getWithLoader_shouldUseOtherNodesLoad_whenItHoldsTheLease() {
+    AtomicInteger loads = new AtomicInteger();
+    TwoTierCache follower = cacheWith(new HeldLease(Duration.ofSeconds(2)));
+    CompletableFuture.runAsync(() -> remote.put(key, new CachedValue("loaded elsewhere", Long.MAX_VALUE, 5)),
+        CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS));
+
+    String value = follower.get(key, () -> "v" + loads.incrementAndGet());
+
+    assertEquals("loaded elsewhere", value);
+    assertEquals(0, loads.get());
+  }
+
+  @Test
+  void getWithLoader_shouldLoadLocally_whenOtherNodesLeaseEndsWithoutValue() {
+    TwoTierCache follower = cacheWith(new HeldLease(Duration.ofMillis(50)));
+
+    assertEquals("local", follower.get(key, () -> "local"));
+  }
+
+  @Test
+  void evict_shouldClearBothTiersAndNotifyOtherNodes() {
+    cache.put(key, "config");
+
+    cache.evict(key);
+
+    assertNull(cache.get(key));
+    assertNull(remote.get(key));
+    assertEquals(List.of(key, key), published);
+  }
+
+  @Test
+  void invalidateLocal_shouldOnlyDropTheNearCopy() {
+    cache.put(key, "config");
+    remote.put(key, "newer-config");
+
+    cache.invalidateLocal(key);
+
+    assertEquals("newer-config", cache.get(key).get());
+  }
+
+  private TwoTierCache cacheWith(LoadLease lease) {
+    return new TwoTierCache("shop-config", Caffeine.newBuilder().build(), remote, published::add,
+        Duration.ofMinutes(10), lease, 1.0);
+  }
+
+  // another node holds the lease for the whole test
+  private record HeldLease(Duration ttl) implements LoadLease {
+
+    @Override
+    public boolean tryAcquire(String cacheName, Object key) {
+      return false;
+    }
+
+    @Override
+    public boolean isHeld(String cacheName, Object key) {
+      return true;
+    }
+
+    @Override
+    public void release(String cacheName, Object key) {
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package com.digital.pos.adapter.out.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.digital.pos.adapter.out.menu.CachingMenuService;
+import com.digital.pos.adapter.out.menu.MenuServiceImpl;
+import com.digital.pos.domain.model.MenuCatalog;
+import com.digital.pos.domain.model.MenuItem;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.MessageListener;
+
+@ExtendWith(MockitoExtension.class)
+class CachingMenuServiceTest {
+
+  private final UUID shopId = UUID.randomUUID();
+  private final MenuItem latte = new MenuItem(UUID.randomUUID(), "Latte", 30.0, true);
+  @Mock
+  private MenuServiceImpl menuService;
+  @Mock
+  private RedissonClient redissonClient;
+  @Mock
+  private RTopic topic;
+  private CachingMenuService cachingMenuService;
+
+  @BeforeEach
+  void setUp() {
+    when(redissonClient.getTopic(eq("menu-invalidation"), any())).thenReturn(topic);
+    cachingMenuService = new CachingMenuService(menuService, redissonClient, new SimpleMeterRegistry(),
+        Runnable::run, Duration.ofMinutes(5), Duration.ofMinutes(1), 100);
+  }
+
+  @Test
+  void getCatalog_shouldCallMenuServiceOnce_andIndexItemsById() {
+    when(menuService.getAvailableItemIds(shopId)).thenReturn(Set.of(latte));
+
+    cachingMenuService.getCatalog(shopId);
+    MenuCatalog catalog = cachingMenuService.getCatalog(shopId);
+
+    assertEquals(latte, catalog.find(latte.id()).orElseThrow());
+    assertTrue(catalog.find(UUID.randomUUID()).isEmpty());
+    verify(menuService, times(1)).getAvailableItemIds(shopId);
+  }
+
+  @Test
+  void invalidate_shouldReloadAndNotifyOtherNodes() {
+    when(menuService.getAvailableItemIds(shopId)).thenReturn(Set.of(latte));
+
+    cachingMenuService.getCatalog(shopId);
+    cachingMenuService.invalidate(shopId);
+    cachingMenuService.getCatalog(shopId);
+
+    verify(menuService, times(2)).getAvailableItemIds(shopId);
+    verify(menuService).invalidate(shopId);
+    verify(topic).publish(shopId);
+  }
+
+  @Test
+  void invalidationFromAnotherNode_shouldOnlyDropLocalCopies() {
+    ArgumentCaptor<MessageListener<UUID>> listener = ArgumentCaptor.captor();
+    verify(topic).addListener(eq(UUID.class), listener.capture());
+    when(menuService.getAvailableItemIds(shopId)).thenReturn(Set.of(latte));
+
+    cachingMenuService.getCatalog(shopId);
+    listener.getValue().onMessage("menu-invalidation", shopId);
+    cachingMenuService.getCatalog(shopId);
+
+    verify(menuService, times(2)).getAvailableItemIds(shopId);
+    verify(menuService).invalidateLocal(shopId);
+    verify(menuService, never()).invalidate(any());
+  }
+
+  @Test
+  void getCatalog_shouldRethrowClientException_andRetryOnNextCall() {
+    when(menuService.getAvailableItemIds(shopId))
+        .thenThrow(new IllegalStateException("menu service down"))
+        .thenReturn(Set.of(latte));
+
+    assertThrows(IllegalStateException.class, () -> cachingMenuService.getCatalog(shopId));
+    MenuCatalog catalog = cachingMenuService.getCatalog(shopId);
+
+    assertEquals(latte, catalog.find(latte.id()).orElseThrow());
+  }
+}
@@ -0,0 +1,138 @@
+package com.digital.pos.adapter.out.db;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.digital.pos.adapter.out.db.entity.OrderEntity;
+import com.digital.pos.adapter.out.db.entity.OrderItemEntity;
+import com.digital.pos.adapter.out.db.repository.JpaOrderRepository;
+import com.digital.pos.adapter.out.db.repository.OrderHeader;
+import com.digital.pos.adapter.out.db.repository.WaitingOrderRow;
+import com.digital.pos.domain.model.OrderStatus;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class JpaOrderRepositoryTest {
+
+  private final UUID shopId = UUID.randomUUID();
+  @Autowired
+  private JpaOrderRepository jpaOrderRepository;
+  @Autowired
+  private EntityManager entityManager;
+
+  private OrderEntity saveWaitingOrder(int queueNumber) {
+    return saveWaitingOrder(queueNumber, 0);
+  }
+
+  private OrderEntity saveWaitingOrder(int queueNumber, int priority) {
+    OrderEntity order = new OrderEntity(null, shopId, queueNumber, OrderStatus.WAITING, priority, null,
+        new ArrayList<>());
+    order.getItems().add(new OrderItemEntity(null, UUID.randomUUID(), 2, 10.0, order));
+    OrderEntity saved = jpaOrderRepository.saveAndFlush(order);
+    entityManager.clear();
+    return saved;
+  }
+
+  @Test
+  void updateStatus_shouldChangeOnlyTheStatus_whenOrderIsInExpectedStatus() {
+    OrderEntity order = saveWaitingOrder(1);
+
+    int updated = jpaOrderRepository.updateStatus(order.getId(), OrderStatus.WAITING, OrderStatus.SERVED);
+    entityManager.clear();
+
+    assertThat(updated).isEqualTo(1);
+    OrderEntity reloaded = jpaOrderRepository.findById(order.getId()).orElseThrow();
+    assertThat(reloaded.getStatus()).isEqualTo(OrderStatus.SERVED);
+    assertThat(reloaded.getStatusChangedAt()).isNotNull();
+    assertThat(reloaded.getItems()).hasSize(1);
+    assertThat(reloaded.getItems().get(0).getId()).isEqualTo(order.getItems().get(0).getId());
+  }
+
+  @Test
+  void updateStatus_shouldNotUpdate_whenOrderAlreadyLeftExpectedStatus() {
+    OrderEntity order = saveWaitingOrder(1);
+    jpaOrderRepository.updateStatus(order.getId(), OrderStatus.WAITING, OrderStatus.CANCELED);
+
+    int updated = jpaOrderRepository.updateStatus(order.getId(), OrderStatus.WAITING, OrderStatus.SERVED);
+    entityManager.clear();
+
+    assertThat(updated).isZero();
+    assertThat(jpaOrderRepository.findById(order.getId()).orElseThrow().getStatus())
+        .isEqualTo(OrderStatus.CANCELED);
+  }
+
+  @Test
+  void findHeaderById_shouldReturnOrderColumns() {
+    OrderEntity order = saveWaitingOrder(2, 3);
+
+    OrderHeader header = jpaOrderRepository.findHeaderById(order.getId()).orElseThrow();
+
+    assertThat(header).usingRecursiveComparison().ignoringFields("statusChangedAt")
+        .isEqualTo(new OrderHeader(order.getId(), shopId, 2, OrderStatus.WAITING, 3, null));
+  }
+
+  @Test
+  void findById_shouldLoadOrderAndItemsInOneQuery() {
+    OrderEntity order = saveWaitingOrder(1);
+    Statistics statistics = statistics();
+
+    OrderEntity loaded = jpaOrderRepository.findById(order.getId()).orElseThrow();
+
+    assertThat(loaded.getItems()).hasSize(1);
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+  }
+
+  @Test
+  void findWaitingOrderRows_shouldReadOnlyWaitingOrdersWithoutItems() {
+    OrderEntity first = saveWaitingOrder(1);
+    OrderEntity second = saveWaitingOrder(2);
+    jpaOrderRepository.updateStatus(first.getId(), OrderStatus.WAITING, OrderStatus.SERVED);
+    entityManager.clear();
+    Statistics statistics = statistics();
+
+    List<WaitingOrderRow> rows = jpaOrderRepository.findWaitingOrderRows(shopId);
+
+    assertThat(rows).containsExactly(new WaitingOrderRow(second.getId(), 2, 0));
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    assertThat(statistics.getCollectionLoadCount()).isZero();
+  }
+
+  @Test
+  void findPositionInQueueOrderById_shouldRankHigherPriorityFirst_thenByArrival() {
+    OrderEntity regular = saveWaitingOrder(1);
+    OrderEntity gold = saveWaitingOrder(1, 2);
+    OrderEntity laterRegular = saveWaitingOrder(1);
+    OrderEntity laterGold = saveWaitingOrder(1, 2);
+
+    assertThat(jpaOrderRepository.findPositionInQueueOrderById(gold.getId())).isEqualTo(1);
+    assertThat(jpaOrderRepository.findPositionInQueueOrderById(laterGold.getId())).isEqualTo(2);
+    assertThat(jpaOrderRepository.findPositionInQueueOrderById(regular.getId())).isEqualTo(3);
+    assertThat(jpaOrderRepository.findPositionInQueueOrderById(laterRegular.getId())).isEqualTo(4);
+  }
+
+  private Statistics statistics() {
+    Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+    return statistics;
+  }
+
+  @SpringBootConfiguration
+  @EntityScan(basePackageClasses = OrderEntity.class)
+  @EnableJpaRepositories(basePackageClasses = JpaOrderRepository.class)
+  static class JpaTestConfiguration {
+
+  }
+}
@@ -0,0 +1,123 @@
+package com.digital.pos.adapter.out.db;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.digital.pos.adapter.out.db.entity.OrderEntity;
+import com.digital.pos.adapter.out.db.entity.OrderItemEntity;
+import com.digital.pos.adapter.out.db.repository.JpaOrderRepository;
+import com.digital.pos.domain.model.OrderStatus;
+import jakarta.persistence.EntityManager;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * Runs the archive statements against the Liquibase schema: the copy to the archive tables and the delete from the live
+ * ones, items before orders because of the foreign key.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class OrderArchiveImplTest {
+
+  private final UUID shopId = UUID.randomUUID();
+  private final Instant longAgo = Instant.now().minus(Duration.ofDays(30));
+  private final Instant retentionCutoff = Instant.now().minus(Duration.ofDays(7));
+  @Autowired
+  private JpaOrderRepository jpaOrderRepository;
+  @Autowired
+  private EntityManager entityManager;
+  private OrderArchiveImpl orderArchive;
+
+  @BeforeEach
+  void setUp() {
+    orderArchive = new OrderArchiveImpl(jpaOrderRepository);
+  }
+
+  @Test
+  void archiveTerminalOrders_shouldMoveOldTerminalOrdersWithTheirItems() {
+    OrderEntity served = saveOrder(OrderStatus.SERVED, 2, longAgo);
+    OrderEntity canceled = saveOrder(OrderStatus.CANCELED, 0, longAgo);
+
+    int archived = orderArchive.archiveTerminalOrders(retentionCutoff, 10);
+    entityManager.clear();
+
+    assertThat(archived).isEqualTo(2);
+    assertThat(jpaOrderRepository.findById(served.getId())).isEmpty();
+    assertThat(jpaOrderRepository.findById(canceled.getId())).isEmpty();
+    assertThat(count("SELECT COUNT(*) FROM order_items WHERE order_id IN (:ids)", served, canceled)).isZero();
+
+    Object[] archivedServed = (Object[]) entityManager.createNativeQuery(
+            "SELECT shop_id = :shopId, queue_number, status, priority FROM orders_archive WHERE id = :id")
+        .setParameter("shopId", shopId)
+        .setParameter("id", served.getId())
+        .getSingleResult();
+    assertThat(archivedServed[0]).isEqualTo(true);
+    assertThat(((Number) archivedServed[1]).intValue()).isEqualTo(1);
+    assertThat(archivedServed[2]).isEqualTo("SERVED");
+    assertThat(((Number) archivedServed[3]).intValue()).isEqualTo(2);
+    assertThat(count("SELECT COUNT(*) FROM orders_archive WHERE id IN (:ids)", served, canceled)).isEqualTo(2);
+    assertThat(count("SELECT COUNT(*) FROM order_items_archive WHERE order_id IN (:ids)", served, canceled))
+        .isEqualTo(4);
+  }
+
+  @Test
+  void archiveTerminalOrders_shouldKeepWaitingAndRecentOrders() {
+    OrderEntity oldWaiting = saveOrder(OrderStatus.WAITING, 0, longAgo);
+    OrderEntity recentServed = saveOrder(OrderStatus.SERVED, 0, Instant.now());
+
+    int archived = orderArchive.archiveTerminalOrders(retentionCutoff, 10);
+    entityManager.clear();
+
+    assertThat(archived).isZero();
+    assertThat(jpaOrderRepository.findById(oldWaiting.getId()).orElseThrow().getItems()).hasSize(2);
+    assertThat(jpaOrderRepository.findById(recentServed.getId()).orElseThrow().getItems()).hasSize(2);
+    assertThat(count("SELECT COUNT(*) FROM orders_archive WHERE id IN (:ids)", oldWaiting, recentServed)).isZero();
+  }
+
+  @Test
+  void archiveTerminalOrders_shouldMoveAtMostOneBatch_oldestFirst() {
+    OrderEntity oldest = saveOrder(OrderStatus.SERVED, 0, longAgo.minus(Duration.ofDays(1)));
+    OrderEntity older = saveOrder(OrderStatus.SERVED, 0, longAgo);
+
+    int archived = orderArchive.archiveTerminalOrders(retentionCutoff, 1);
+    entityManager.clear();
+
+    assertThat(archived).isEqualTo(1);
+    assertThat(jpaOrderRepository.findById(oldest.getId())).isEmpty();
+    assertThat(jpaOrderRepository.findById(older.getId())).isPresent();
+  }
+
+  private OrderEntity saveOrder(OrderStatus status, int priority, Instant statusChangedAt) {
+    OrderEntity order = new OrderEntity(null, shopId, 1, status, priority, null, new ArrayList<>());
+    order.getItems().add(new OrderItemEntity(null, UUID.randomUUID(), 2, 10.0, order));
+    order.getItems().add(new OrderItemEntity(null, UUID.randomUUID(), 1, 4.5, order));
+    OrderEntity saved = jpaOrderRepository.saveAndFlush(order);
+    entityManager.createNativeQuery("UPDATE orders SET status_changed_at = :at WHERE id = :id")
+        .setParameter("at", statusChangedAt)
+        .setParameter("id", saved.getId())
+        .executeUpdate();
+    entityManager.clear();
+    return saved;
+  }
+
+  private long count(String sql, OrderEntity... orders) {
+    List<Long> ids = Arrays.stream(orders).map(OrderEntity::getId).toList();
+    return ((Number) entityManager.createNativeQuery(sql).setParameter("ids", ids).getSingleResult()).longValue();
+  }
+
+  @SpringBootConfiguration
+  @EntityScan(basePackageClasses = OrderEntity.class)
+  @EnableJpaRepositories(basePackageClasses = JpaOrderRepository.class)
+  static class JpaTestConfiguration {
+
+  }
+}
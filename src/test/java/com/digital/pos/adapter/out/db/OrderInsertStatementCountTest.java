@@ -0,0 +1,88 @@
+package com.digital.pos.adapter.out.db;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.digital.pos.adapter.out.db.entity.OrderEntity;
+import com.digital.pos.adapter.out.db.entity.OrderItemEntity;
+import com.digital.pos.adapter.out.db.repository.JpaOrderRepository;
+import com.digital.pos.domain.model.OrderStatus;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * Counts the JDBC statements Hibernate prepares to insert orders with several items.
+ * <p>
+ * With one id per nextval and no batching, an order with N items cost 1 + N nextval calls and 1 + N inserts. With
+ * pooled-lo item ids and JDBC batching it costs one nextval for the order, one insert per table, and one item nextval
+ * per 50 items.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class OrderInsertStatementCountTest {
+
+  private static final int ITEMS_PER_ORDER = 5;
+
+  @Autowired
+  private JpaOrderRepository jpaOrderRepository;
+  @Autowired
+  private EntityManager entityManager;
+  private Statistics statistics;
+
+  private static OrderEntity order(int itemCount) {
+    OrderEntity order = new OrderEntity(null, UUID.randomUUID(), 1, OrderStatus.WAITING, 0, null, new ArrayList<>());
+    for (int i = 0; i < itemCount; i++) {
+      order.getItems().add(new OrderItemEntity(null, UUID.randomUUID(), 1, 10.0, order));
+    }
+    return order;
+  }
+
+  @BeforeEach
+  void setUp() {
+    statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+  }
+
+  @Test
+  void savingAMultiItemOrder_shouldPrepareAtMostFourStatements() {
+    jpaOrderRepository.saveAndFlush(order(ITEMS_PER_ORDER));
+
+    // order nextval, item nextval (only when a new id block is needed), order insert, batched item insert;
+    // previously 1 + 5 nextval and 1 + 5 inserts
+    assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+  }
+
+  @Test
+  void savingTenMultiItemOrders_shouldShareItemIdBlocksAndBatches() {
+    List<OrderEntity> orders = IntStream.range(0, 10)
+        .mapToObj(i -> order(ITEMS_PER_ORDER))
+        .toList();
+
+    jpaOrderRepository.saveAll(orders);
+    jpaOrderRepository.flush();
+
+    // 10 order nextval, at most 2 item id blocks for 50 items, one batched insert per table; previously 120
+    assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(14);
+    assertThat(statistics.getEntityInsertCount()).isEqualTo(10 + 10 * ITEMS_PER_ORDER);
+  }
+
+  @SpringBootConfiguration
+  @EntityScan(basePackageClasses = OrderEntity.class)
+  @EnableJpaRepositories(basePackageClasses = JpaOrderRepository.class)
+  static class JpaTestConfiguration {
+
+  }
+}
@@ -0,0 +1,84 @@
+package com.digital.pos.adapter.out.lock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class HierarchicalLockServiceTest {
+
+  private static final String KEY = "lock:shop:1";
+
+  @Mock
+  private RedisLockService redisLockService;
+
+  private SimpleMeterRegistry meterRegistry;
+  private HierarchicalLockService lockService;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    lockService = new HierarchicalLockService(redisLockService, meterRegistry, 16);
+  }
+
+  @Test
+  void doWithLock_shouldRunActionUnderDistributedLockAndRecordTimings() {
+    when(redisLockService.doWithLock(eq(KEY), any(), any(), any()))
+        .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(3)).get());
+
+    String result = lockService.doWithLock(KEY, Duration.ofSeconds(1), Duration.ofSeconds(2), () -> "done");
+
+    assertEquals("done", result);
+    assertEquals(1, meterRegistry.get("pos.lock.wait").timer().count());
+    assertEquals(1, meterRegistry.get("pos.lock.hold").timer().count());
+    assertEquals(0, meterRegistry.get("pos.lock.wait").timer().getId().getTags().size());
+  }
+
+  @Test
+  void doWithLock_shouldTimeOutLocally_whenAnotherThreadOfThisNodeHoldsTheKey() throws Exception {
+    CountDownLatch held = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(redisLockService.doWithLock(eq(KEY), any(), any(), any()))
+        .thenAnswer(invocation -> {
+          held.countDown();
+          release.await(5, TimeUnit.SECONDS);
+          return null;
+        });
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      executor.submit(() -> lockService.doWithLock(KEY, Duration.ofSeconds(1), Duration.ofSeconds(2), () -> null));
+      held.await(5, TimeUnit.SECONDS);
+
+      assertThrows(IllegalStateException.class,
+          () -> lockService.doWithLock(KEY, Duration.ofMillis(50), Duration.ofSeconds(2), () -> null));
+    } finally {
+      release.countDown();
+      executor.shutdown();
+    }
+
+    assertEquals(1, meterRegistry.get("pos.lock.failures")
+        .tags("level", "local", "reason", "timeout")
+        .counter().count());
+    // only the stripe owner reached Redis
+    verify(redisLockService).doWithLock(eq(KEY), any(), any(), any());
+    verify(redisLockService, never()).doWithLock(eq(KEY), eq(Duration.ofMillis(50)), any(), any());
+  }
+}
@@ -1,10 +1,13 @@
 package com.digital.pos.adapter.out.shop;
 
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.digital.pos.domain.exception.InvalidShopConfigurationException;
+import java.util.Map;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -38,4 +41,13 @@ class ShopServiceImplTest {
     verify(shopClient, times(1)).checkShopExists(shopId);
 
   }
+
+  @Test
+  void getShopConfig_shouldReject_whenStrategyIsUnknown() {
+    UUID shopId = UUID.randomUUID();
+    when(shopClient.getShopConfiguration(shopId))
+        .thenReturn(new ShopConfigResponse(shopId, "ROUND_ROBIN", Map.of(1, 5)));
+
+    assertThrows(InvalidShopConfigurationException.class, () -> shopService.getShopConfig(shopId));
+  }
 }
@@ -0,0 +1,59 @@
+package com.digital.pos.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.digital.pos.application.port.out.OrderArchive;
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class OrderArchiverTest {
+
+  private static final int BATCH_SIZE = 100;
+  @Mock
+  private OrderArchive orderArchive;
+
+  private OrderArchiver archiver(int maxBatchesPerRun) {
+    return new OrderArchiver(orderArchive, Duration.ofDays(7), BATCH_SIZE, maxBatchesPerRun, Duration.ZERO);
+  }
+
+  @Test
+  void archive_shouldStopAfterFirstPartialBatch() {
+    when(orderArchive.archiveTerminalOrders(any(), eq(BATCH_SIZE))).thenReturn(BATCH_SIZE, BATCH_SIZE, 40);
+
+    archiver(10).archive();
+
+    verify(orderArchive, times(3)).archiveTerminalOrders(any(), eq(BATCH_SIZE));
+  }
+
+  @Test
+  void archive_shouldLeaveBacklogForNextRun_whenBatchLimitIsReached() {
+    when(orderArchive.archiveTerminalOrders(any(), eq(BATCH_SIZE))).thenReturn(BATCH_SIZE);
+
+    archiver(3).archive();
+
+    verify(orderArchive, times(3)).archiveTerminalOrders(any(), eq(BATCH_SIZE));
+  }
+
+  @Test
+  void archive_shouldOnlyMoveOrdersOlderThanRetention() {
+    Instant before = Instant.now().minus(Duration.ofDays(7));
+
+    archiver(1).archive();
+
+    ArgumentCaptor<Instant> changedBefore = ArgumentCaptor.forClass(Instant.class);
+    verify(orderArchive).archiveTerminalOrders(changedBefore.capture(), eq(BATCH_SIZE));
+    assertTrue(!changedBefore.getValue().isBefore(before));
+    assertTrue(!changedBefore.getValue().isAfter(Instant.now().minus(Duration.ofDays(7))));
+  }
+}
@@ -0,0 +1,167 @@
+package com.digital.pos.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.digital.pos.adapter.out.menu.CachingMenuService;
+import com.digital.pos.adapter.out.menu.MenuServiceImpl;
+import com.digital.pos.application.port.out.MenuService;
+import com.digital.pos.application.port.out.ShopService;
+import com.digital.pos.domain.exception.LookupRejectedException;
+import com.digital.pos.domain.exception.LookupTimeoutException;
+import com.digital.pos.domain.exception.ShopNotFoundException;
+import com.digital.pos.domain.model.MenuCatalog;
+import com.digital.pos.domain.model.MenuItem;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+
+@ExtendWith(MockitoExtension.class)
+class OrderLookupsTest {
+
+  private final UUID shopId = UUID.randomUUID();
+  private final ExecutorService executor = Executors.newFixedThreadPool(3);
+  private final CountDownLatch releaseMenu = new CountDownLatch(1);
+  private final CountDownLatch menuStarted = new CountDownLatch(1);
+  private final AtomicBoolean menuInterrupted = new AtomicBoolean();
+  @Mock
+  private ShopService shopService;
+  @Mock
+  private MenuService menuService;
+  @Mock
+  private MenuServiceImpl remoteMenuService;
+  @Mock
+  private RedissonClient redissonClient;
+  @Mock
+  private RTopic topic;
+  private OrderLookups lookups;
+
+  @BeforeEach
+  void setUp() {
+    lookups = new OrderLookups(shopService, menuService, new OrderMetrics(new SimpleMeterRegistry()), executor,
+        Duration.ofMillis(500));
+  }
+
+  @AfterEach
+  void tearDown() {
+    releaseMenu.countDown();
+    executor.shutdownNow();
+  }
+
+  @Test
+  void validateShopAndFetchMenu_shouldReturnMenu_andWarmShopConfig() {
+    MenuCatalog catalog = MenuCatalog.of(shopId, Set.of());
+    when(shopService.existsById(shopId)).thenReturn(true);
+    when(menuService.getCatalog(shopId)).thenReturn(catalog);
+
+    assertThat(lookups.validateShopAndFetchMenu(shopId)).isSameAs(catalog);
+    verify(shopService).getShopConfig(shopId);
+  }
+
+  @Test
+  void validateShopAndFetchMenu_shouldFailFast_withoutInterruptingSlowMenuFetch() throws InterruptedException {
+    when(shopService.existsById(shopId)).thenAnswer(invocation -> !menuStarted.await(1, TimeUnit.SECONDS));
+    when(menuService.getCatalog(shopId)).thenAnswer(invocation -> blockUntilReleased());
+
+    long start = System.nanoTime();
+    assertThatThrownBy(() -> lookups.validateShopAndFetchMenu(shopId)).isInstanceOf(ShopNotFoundException.class);
+
+    assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(500));
+    assertMenuFetchCompletesUninterrupted();
+  }
+
+  @Test
+  void validateShopAndFetchMenu_shouldReportMissingShop_whenMenuFetchFailsFirst() {
+    when(menuService.getCatalog(shopId)).thenThrow(new IllegalStateException("menu service returned 404"));
+    when(shopService.existsById(shopId)).thenAnswer(invocation -> {
+      Thread.sleep(50);
+      return false;
+    });
+
+    assertThatThrownBy(() -> lookups.validateShopAndFetchMenu(shopId)).isInstanceOf(ShopNotFoundException.class);
+  }
+
+  @Test
+  void validateShopAndFetchMenu_shouldTimeOut_whenALookupHangs() throws InterruptedException {
+    when(shopService.existsById(shopId)).thenReturn(true);
+    when(menuService.getCatalog(shopId)).thenAnswer(invocation -> blockUntilReleased());
+
+    assertThatThrownBy(() -> lookups.validateShopAndFetchMenu(shopId)).isInstanceOf(LookupTimeoutException.class);
+    assertMenuFetchCompletesUninterrupted();
+  }
+
+  @Test
+  void validateShopAndFetchMenu_shouldRejectTheCreate_andCancelAcceptedLookups_whenThePoolIsSaturated() {
+    // one thread and one queued task: the existence check and config fetch are accepted, the menu fetch is rejected
+    OrderLookups saturated = new OrderLookups(shopService, menuService, new OrderMetrics(new SimpleMeterRegistry()),
+        1, 1, Duration.ofMillis(500));
+    // keeps the thread busy if the existence check starts before it is cancelled
+    lenient().when(shopService.existsById(shopId)).thenAnswer(invocation -> releaseMenu.await(10, TimeUnit.SECONDS));
+    try {
+      assertThatThrownBy(() -> saturated.validateShopAndFetchMenu(shopId))
+          .isInstanceOf(LookupRejectedException.class);
+    } finally {
+      saturated.shutdown();
+    }
+
+    verify(shopService, never()).getShopConfig(shopId);
+    verify(menuService, never()).getCatalog(shopId);
+  }
+
+  @Test
+  void validateShopAndFetchMenu_shouldLoadColdMenu_onASingleThreadSharedWithTheMenuCache() {
+    // before misses were loaded by the caller, the menu lookup waited on a load queued behind itself
+    ExecutorService singleThread = Executors.newSingleThreadExecutor();
+    try {
+      MenuItem latte = new MenuItem(UUID.randomUUID(), "Latte", 30.0, true);
+      when(redissonClient.getTopic(eq("menu-invalidation"), any())).thenReturn(topic);
+      when(remoteMenuService.getAvailableItemIds(shopId)).thenReturn(Set.of(latte));
+      when(shopService.existsById(shopId)).thenReturn(true);
+      CachingMenuService cachingMenuService = new CachingMenuService(remoteMenuService, redissonClient,
+          new SimpleMeterRegistry(), singleThread, Duration.ofMinutes(5), Duration.ofMinutes(1), 100);
+      OrderLookups sharedLookups = new OrderLookups(shopService, cachingMenuService,
+          new OrderMetrics(new SimpleMeterRegistry()), singleThread, Duration.ofMillis(500));
+
+      assertThat(sharedLookups.validateShopAndFetchMenu(shopId).find(latte.id())).contains(latte);
+    } finally {
+      singleThread.shutdownNow();
+    }
+  }
+
+  private void assertMenuFetchCompletesUninterrupted() throws InterruptedException {
+    releaseMenu.countDown();
+    executor.shutdown();
+    assertThat(executor.awaitTermination(1, TimeUnit.SECONDS)).isTrue();
+    assertThat(menuInterrupted).isFalse();
+  }
+
+  private MenuCatalog blockUntilReleased() {
+    menuStarted.countDown();
+    try {
+      releaseMenu.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      menuInterrupted.set(true);
+    }
+    return MenuCatalog.of(shopId, Set.of());
+  }
+}
@@ -5,16 +5,20 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import com.digital.pos.adapter.in.rest.model.BatchCreateOrderRequest;
+import com.digital.pos.adapter.in.rest.model.BatchCreateOrderResponse;
+import com.digital.pos.adapter.in.rest.model.BatchOrderRequest;
+import com.digital.pos.adapter.in.rest.model.BatchOrderResult;
 import com.digital.pos.adapter.in.rest.model.CreateOrderRequest;
 import com.digital.pos.adapter.in.rest.model.OrderCreatedResponse;
 import com.digital.pos.adapter.in.rest.model.OrderItemRequest;
@@ -29,27 +33,37 @@ import com.digital.pos.application.port.out.ShopService;
 import com.digital.pos.domain.exception.InvalidOrderStateException;
 import com.digital.pos.domain.exception.MenuItemNotFoundException;
 import com.digital.pos.domain.exception.OrderNotFoundException;
+import com.digital.pos.domain.exception.QueueSaturatedException;
 import com.digital.pos.domain.exception.ShopNotFoundException;
+import com.digital.pos.domain.model.MenuCatalog;
+import com.digital.pos.domain.model.MembershipTier;
 import com.digital.pos.domain.model.MenuItem;
 import com.digital.pos.domain.model.Order;
 import com.digital.pos.domain.model.OrderItem;
 import com.digital.pos.domain.model.OrderStatus;
 import com.digital.pos.domain.model.QueueAssignmentResult;
+import com.digital.pos.domain.model.ShopQueueState;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.Set;
 import java.util.UUID;
 import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
 class OrderServiceTest {
 
+  private final UUID latteId = UUID.randomUUID();
   @Mock
   private ShopService shopService;
   @Mock
@@ -64,10 +78,19 @@ class OrderServiceTest {
   private QueueService queueService;
   @Mock
   private OrderItemMapper orderItemMapper;
+  @Spy
+  private OrderMetrics metrics = new OrderMetrics(new SimpleMeterRegistry());
 
-  @InjectMocks
   private OrderService orderService;
 
+  @BeforeEach
+  void setUp() {
+    // lookups run on the calling thread, in submission order
+    OrderLookups lookups = new OrderLookups(shopService, menuService, metrics, Runnable::run, Duration.ofSeconds(1));
+    orderService = new OrderService(orderRepository, queueService, lookups, orderMapper, orderItemMapper, lock,
+        metrics, new MembershipTierPolicy(true));
+  }
+
   @Test
   void createOrder_shouldSucceed_whenShopAndItemsAreValid() {
     // Arrange
@@ -87,7 +110,7 @@ class OrderServiceTest {
 
     // Mocks
     when(shopService.existsById(shopId)).thenReturn(true);
-    when(menuService.getAvailableItemIds(shopId)).thenReturn(Set.of(menuItem));
+    when(menuService.getCatalog(shopId)).thenReturn(MenuCatalog.of(shopId, Set.of(menuItem)));
     when(lock.doWithLock(any(), any(), any(), any()))
         .thenAnswer(invocation -> ((Supplier<Order>) invocation.getArgument(3)).get());
 
@@ -102,7 +125,7 @@ class OrderServiceTest {
     // Assert
     assertThat(result).isEqualTo(expectedResponse);
     verify(shopService).existsById(shopId);
-    verify(menuService).getAvailableItemIds(shopId);
+    verify(menuService).getCatalog(shopId);
     verify(lock).doWithLock(eq(QueueLockKey.of(shopId)), any(), any(), any());
     verify(orderRepository).save(any());
     verify(queueService).assignOrderToQueue(any());
@@ -110,6 +133,135 @@ class OrderServiceTest {
     verify(orderMapper).toOrderCreatedResponse(savedOrder, livePosition);
   }
 
+  @Test
+  void createOrder_shouldNotTakeShopLock_whenShopReservesSlotsLockFree() {
+    // Arrange
+    UUID shopId = UUID.randomUUID();
+    UUID menuItemId = UUID.randomUUID();
+    CreateOrderRequest request = new CreateOrderRequest(shopId, List.of(new OrderItemRequest(menuItemId, 1)));
+    Order savedOrder = Order.createNew(shopId, List.of(new OrderItem(1L, menuItemId, 1, 50.0)));
+    savedOrder.assignQueue(2);
+
+    when(shopService.existsById(shopId)).thenReturn(true);
+    when(menuService.getCatalog(shopId))
+        .thenReturn(MenuCatalog.of(shopId, Set.of(new MenuItem(menuItemId, "Latte", 50.0, true))));
+    when(queueService.isLockFree(shopId)).thenReturn(true);
+    when(queueService.assignOrderToQueue(any())).thenReturn(new QueueAssignmentResult(2));
+    when(orderRepository.save(any())).thenReturn(savedOrder);
+    when(queueService.getLivePosition(savedOrder)).thenReturn(1);
+
+    // Act
+    orderService.createOrder(request);
+
+    // Assert
+    verifyNoInteractions(lock);
+    verify(queueService).registerQueuedOrder(savedOrder);
+  }
+
+  @Test
+  void createOrder_shouldKeepFirstComeFirstServed_whenShopDoesNotRankByMembership() {
+    UUID shopId = UUID.randomUUID();
+    Order earlier = Order.createNew(shopId, List.of());
+    earlier.setId(1L);
+    earlier.assignQueue(1);
+    stubLockFreeCreate(shopId, false);
+
+    Order platinum = createPlatinumOrder(shopId);
+
+    assertEquals(0, platinum.getPriority());
+    ShopQueueState state = ShopQueueState.fromOrders(shopId, 0, List.of(earlier, platinum));
+    assertEquals(OptionalInt.of(2), state.position(1, platinum.getId()));
+  }
+
+  @Test
+  void createOrder_shouldRankByTier_whenShopRanksByMembership() {
+    UUID shopId = UUID.randomUUID();
+    stubLockFreeCreate(shopId, true);
+
+    assertEquals(MembershipTier.PLATINUM.priority(), createPlatinumOrder(shopId).getPriority());
+  }
+
+  @Test
+  void createOrder_shouldRankAsRegular_whenTiersFromRequestsAreNotTrusted() {
+    ReflectionTestUtils.setField(orderService, "membershipTiers", new MembershipTierPolicy(false));
+    UUID shopId = UUID.randomUUID();
+    stubLockFreeCreate(shopId, true);
+
+    assertEquals(MembershipTier.REGULAR.priority(), createPlatinumOrder(shopId).getPriority());
+  }
+
+  @Test
+  void createOrderBatch_shouldCreateOrdersUnderOneLock_andReportRejectedOnesPerOrder() {
+    // Arrange
+    UUID shopId = UUID.randomUUID();
+    UUID menuItemId = UUID.randomUUID();
+    UUID unknownItemId = UUID.randomUUID();
+    BatchCreateOrderRequest request = new BatchCreateOrderRequest(shopId, List.of(
+        new BatchOrderRequest(List.of(new OrderItemRequest(menuItemId, 1))),
+        new BatchOrderRequest(List.of(new OrderItemRequest(unknownItemId, 1))),
+        new BatchOrderRequest(List.of(new OrderItemRequest(menuItemId, 2))),
+        new BatchOrderRequest(List.of(new OrderItemRequest(menuItemId, 3)))));
+    Order savedFirst = Order.createNew(shopId, List.of(new OrderItem(1L, menuItemId, 1, 50.0)));
+    savedFirst.setId(10L);
+    savedFirst.assignQueue(1);
+    Order savedThird = Order.createNew(shopId, List.of(new OrderItem(2L, menuItemId, 2, 50.0)));
+    savedThird.setId(11L);
+    savedThird.assignQueue(2);
+    OrderCreatedResponse firstResponse = new OrderCreatedResponse(10L, 1, 1, 0);
+    OrderCreatedResponse thirdResponse = new OrderCreatedResponse(11L, 2, 1, 0);
+
+    when(shopService.existsById(shopId)).thenReturn(true);
+    when(menuService.getCatalog(shopId))
+        .thenReturn(MenuCatalog.of(shopId, Set.of(new MenuItem(menuItemId, "Latte", 50.0, true))));
+    when(lock.doWithLock(any(), any(), any(), any()))
+        .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(3)).get());
+    // the last of the three valid orders finds every queue full
+    when(queueService.assignOrdersToQueues(eq(shopId), any())).thenAnswer(invocation -> {
+      List<Order> orders = invocation.getArgument(1);
+      assertEquals(3, orders.size());
+      return Set.of(orders.get(2));
+    });
+    when(orderRepository.saveAll(any())).thenReturn(List.of(savedFirst, savedThird));
+    when(queueService.getLivePosition(savedFirst)).thenReturn(1);
+    when(queueService.getLivePosition(savedThird)).thenReturn(1);
+    when(orderMapper.toOrderCreatedResponse(savedFirst, 1)).thenReturn(firstResponse);
+    when(orderMapper.toOrderCreatedResponse(savedThird, 1)).thenReturn(thirdResponse);
+
+    // Act
+    BatchCreateOrderResponse response = orderService.createOrderBatch(request);
+
+    // Assert
+    List<BatchOrderResult> results = response.getResults();
+    assertEquals(4, results.size());
+    assertEquals(BatchOrderResult.StatusEnum.CREATED, results.get(0).getStatus());
+    assertEquals(firstResponse, results.get(0).getOrder());
+    assertEquals(BatchOrderResult.StatusEnum.REJECTED, results.get(1).getStatus());
+    assertEquals("MENU_ITEM_NOT_FOUND", results.get(1).getError().getCode());
+    assertEquals(thirdResponse, results.get(2).getOrder());
+    assertEquals(BatchOrderResult.StatusEnum.REJECTED, results.get(3).getStatus());
+    assertEquals("ALL_QUEUES_FULL", results.get(3).getError().getCode());
+    assertEquals(3, results.get(3).getIndex());
+
+    verify(menuService).getCatalog(shopId);
+    verify(lock).doWithLock(eq(QueueLockKey.of(shopId)), any(), any(), any());
+    verify(orderRepository).saveAll(any());
+    verify(orderRepository, never()).save(any());
+    verify(queueService).registerQueuedOrder(savedFirst);
+    verify(queueService).registerQueuedOrder(savedThird);
+  }
+
+  @Test
+  void createOrderBatch_shouldRejectBeforeLookupsAndLock_whenShopIsSaturated() {
+    UUID shopId = UUID.randomUUID();
+    BatchCreateOrderRequest request = new BatchCreateOrderRequest(shopId, List.of(
+        new BatchOrderRequest(List.of(new OrderItemRequest(UUID.randomUUID(), 1)))));
+    doThrow(new QueueSaturatedException(shopId, Duration.ofSeconds(4))).when(queueService).checkAdmission(shopId);
+
+    assertThrows(QueueSaturatedException.class, () -> orderService.createOrderBatch(request));
+
+    verifyNoInteractions(shopService, menuService, lock, orderRepository);
+  }
+
   @Test
   void createOrder_shouldThrowException_whenShopIsNotFound() {
     // Given
@@ -128,11 +280,10 @@ class OrderServiceTest {
 
     assertEquals(shopId, exception.getShopId());
 
-    // Ensure no downstream services were called
+    // the menu and config lookups were issued concurrently, but nothing was assigned or saved
     verify(shopService).existsById(shopId);
+    verify(queueService).checkAdmission(shopId);
     verifyNoMoreInteractions(
-        shopService,
-        menuService,
         queueService,
         orderRepository,
         orderMapper
@@ -154,7 +305,7 @@ class OrderServiceTest {
     );
 
     when(shopService.existsById(shopId)).thenReturn(true);
-    when(menuService.getAvailableItemIds(shopId)).thenReturn(availableItems);
+    when(menuService.getCatalog(shopId)).thenReturn(MenuCatalog.of(shopId, availableItems));
 
     // When & Then
     MenuItemNotFoundException exception = assertThrows(MenuItemNotFoundException.class, () -> {
@@ -165,8 +316,23 @@ class OrderServiceTest {
 
     // Verify interactions
     verify(shopService).existsById(shopId);
-    verify(menuService).getAvailableItemIds(shopId);
-    verifyNoInteractions(queueService, orderRepository, orderMapper);
+    verify(menuService).getCatalog(shopId);
+    verify(queueService).checkAdmission(shopId);
+    verifyNoMoreInteractions(queueService);
+    verifyNoInteractions(orderRepository, orderMapper);
+  }
+
+  @Test
+  void createOrder_shouldRejectBeforeLookupsAndLock_whenShopIsSaturated() {
+    UUID shopId = UUID.randomUUID();
+    CreateOrderRequest request = new CreateOrderRequest(shopId, List.of(new OrderItemRequest(UUID.randomUUID(), 1)));
+    doThrow(new QueueSaturatedException(shopId, Duration.ofSeconds(4))).when(queueService).checkAdmission(shopId);
+
+    QueueSaturatedException exception = assertThrows(QueueSaturatedException.class,
+        () -> orderService.createOrder(request));
+
+    assertEquals(Duration.ofSeconds(4), exception.getRetryAfter());
+    verifyNoInteractions(shopService, menuService, lock, orderRepository);
   }
   // createOrder_shouldPersistOrder_whenValidRequestGiven
   // createOrder_shouldAssignOrderToQueue_whenValidRequestGiven
@@ -185,31 +351,19 @@ class OrderServiceTest {
 
     assertThat(order.isWaiting()).isTrue(); // sanity check
 
-    when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
-
-    when(lock.doWithLock(
-        eq(QueueLockKey.of(shopId)),
-        any(),
-        any(),
-        any()
-    )).thenAnswer(invocation -> {
-      Supplier<?> supplier = invocation.getArgument(3);
-      return supplier.get();
-    });
+    when(orderRepository.findWithoutItemsById(orderId)).thenReturn(Optional.of(order));
+    when(orderRepository.transitionStatus(orderId, OrderStatus.WAITING, OrderStatus.SERVED)).thenReturn(true);
 
     // When
     orderService.serveOrder(orderId);
 
     // Then
     assertThat(order.getStatus()).isEqualTo(OrderStatus.SERVED);
-    verify(orderRepository).findById(orderId);
-    verify(orderRepository).save(order);
-    verify(lock).doWithLock(
-        eq(QueueLockKey.of(shopId)),
-        any(),
-        any(),
-        any()
-    );
+    verify(orderRepository).findWithoutItemsById(orderId);
+    verify(orderRepository).transitionStatus(orderId, OrderStatus.WAITING, OrderStatus.SERVED);
+    verify(queueService).releaseQueuedOrder(order);
+    verifyNoMoreInteractions(orderRepository);
+    verifyNoInteractions(lock);
   }
 
   @Test
@@ -217,14 +371,14 @@ class OrderServiceTest {
     // Given
     Long orderId = 123L;
 
-    when(orderRepository.findById(orderId)).thenReturn(Optional.empty());
+    when(orderRepository.findWithoutItemsById(orderId)).thenReturn(Optional.empty());
 
     // When / Then
     assertThatThrownBy(() -> orderService.serveOrder(orderId))
         .isInstanceOf(OrderNotFoundException.class)
         .hasMessageContaining("Order not found");
 
-    verify(orderRepository).findById(orderId);
+    verify(orderRepository).findWithoutItemsById(orderId);
     verifyNoMoreInteractions(orderRepository, lock);
   }
 
@@ -239,42 +393,58 @@ class OrderServiceTest {
     order.markAsServed(); // simulate status is already SERVED
     ReflectionTestUtils.setField(order, "id", orderId);
 
-    when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+    when(orderRepository.findWithoutItemsById(orderId)).thenReturn(Optional.of(order));
 
     // When / Then
     assertThatThrownBy(() -> orderService.serveOrder(orderId))
         .isInstanceOf(InvalidOrderStateException.class)
         .hasMessageContaining("is in state SERVED");
 
-    verify(orderRepository).findById(orderId);
+    verify(orderRepository).findWithoutItemsById(orderId);
     verifyNoMoreInteractions(orderRepository, lock);
   }
 
+  @Test
+  void serveOrder_shouldThrowException_whenOrderLeftWaitingConcurrently() {
+    // Given
+    Long orderId = 789L;
+    Order waiting = Order.createNew(UUID.randomUUID(), List.of());
+    waiting.assignQueue(1);
+    ReflectionTestUtils.setField(waiting, "id", orderId);
+    Order canceled = Order.createNew(waiting.getShopId(), List.of());
+    canceled.markAsCanceled();
+
+    when(orderRepository.findWithoutItemsById(orderId)).thenReturn(Optional.of(waiting), Optional.of(canceled));
+    when(orderRepository.transitionStatus(orderId, OrderStatus.WAITING, OrderStatus.SERVED)).thenReturn(false);
+
+    // When / Then
+    assertThatThrownBy(() -> orderService.serveOrder(orderId))
+        .isInstanceOf(InvalidOrderStateException.class)
+        .hasMessageContaining("is in state CANCELED");
+
+    verify(queueService, never()).releaseQueuedOrder(any());
+  }
+
   @Test
   void cancelOrder_shouldMarkOrderAsCanceled_whenOrderIsWaiting() {
     // Arrange
     Long orderId = 1L;
     UUID shopId = UUID.randomUUID();
-    List<OrderItem> items = List.of(
-        new OrderItem(1l, UUID.randomUUID(), 1, 20.0)
-    );
-    Order order = Order.createNew(shopId, items);
+    Order order = Order.createNew(shopId, List.of());
     order.assignQueue(1);
 
-    given(orderRepository.findById(orderId)).willReturn(Optional.of(order));
-    given(lock.doWithLock(anyString(), any(), any(), any()))
-        .willAnswer(invocation -> {
-          Supplier<?> supplier = invocation.getArgument(3);
-          return supplier.get();
-        });
+    given(orderRepository.findWithoutItemsById(orderId)).willReturn(Optional.of(order));
+    given(orderRepository.transitionStatus(orderId, OrderStatus.WAITING, OrderStatus.CANCELED)).willReturn(true);
 
     // Act
     orderService.cancelOrder(orderId);
 
     // Assert
     assertEquals(OrderStatus.CANCELED, order.getStatus());
-    verify(lock).doWithLock(eq(QueueLockKey.of(shopId)), any(), any(), any());
-    verify(orderRepository).save(order);
+    verify(orderRepository).transitionStatus(orderId, OrderStatus.WAITING, OrderStatus.CANCELED);
+    verify(queueService).releaseQueuedOrder(order);
+    verify(orderRepository, never()).save(any());
+    verifyNoInteractions(lock);
   }
 
   @Test
@@ -283,7 +453,7 @@ class OrderServiceTest {
     Long orderId = 2L;
     Order order = Order.createNew(UUID.randomUUID(), List.of());
     order.markAsServed();
-    given(orderRepository.findById(orderId)).willReturn(Optional.of(order));
+    given(orderRepository.findWithoutItemsById(orderId)).willReturn(Optional.of(order));
 
     // Act + Assert
     InvalidOrderStateException ex = assertThrows(
@@ -292,18 +462,18 @@ class OrderServiceTest {
     );
 
     assertTrue(ex.getMessage().contains("is in state"));
-    verify(orderRepository, never()).save(any());
+    verify(orderRepository, never()).transitionStatus(any(), any(), any());
   }
 
   @Test
   void cancelOrder_shouldThrowException_whenOrderDoesNotExist() {
     // Arrange
     Long orderId = 99L;
-    given(orderRepository.findById(orderId)).willReturn(Optional.empty());
+    given(orderRepository.findWithoutItemsById(orderId)).willReturn(Optional.empty());
 
     // Act + Assert
     assertThrows(OrderNotFoundException.class, () -> orderService.cancelOrder(orderId));
-    verify(orderRepository, never()).save(any());
+    verify(orderRepository, never()).transitionStatus(any(), any(), any());
     verify(lock, never()).doWithLock(any(), any(), any(), any());
   }
 
@@ -336,7 +506,7 @@ class OrderServiceTest {
     );
 
     given(orderRepository.findById(orderId)).willReturn(Optional.of(order));
-    given(orderRepository.findPositionInQueueOrderById(order.getId())).willReturn(livePosition);
+    given(queueService.getLivePosition(order)).willReturn(livePosition);
     given(orderMapper.toOrderStatusResponse(eq(order), eq(livePosition), any()))
         .willReturn(expectedResponse);
 
@@ -346,7 +516,33 @@ class OrderServiceTest {
     // Assert
     assertEquals(expectedResponse, actualResponse);
     verify(orderRepository).findById(orderId);
-    verify(orderRepository).findPositionInQueueOrderById(order.getId());
+    verify(queueService).getLivePosition(order);
+    verify(orderRepository, never()).findPositionInQueueOrderById(any());
     verify(orderMapper).toOrderStatusResponse(eq(order), eq(livePosition), any());
   }
+
+  private void stubLockFreeCreate(UUID shopId, boolean rankedByTier) {
+    when(shopService.existsById(shopId)).thenReturn(true);
+    when(menuService.getCatalog(shopId))
+        .thenReturn(MenuCatalog.of(shopId, Set.of(new MenuItem(latteId, "Latte", 50.0, true))));
+    when(queueService.ranksByMembership(shopId)).thenReturn(rankedByTier);
+    when(queueService.isLockFree(shopId)).thenReturn(true);
+    when(queueService.assignOrderToQueue(any())).thenReturn(new QueueAssignmentResult(1));
+    when(orderRepository.save(any())).thenAnswer(invocation -> {
+      Order order = invocation.getArgument(0);
+      order.setId(2L);
+      return order;
+    });
+  }
+
+  private Order createPlatinumOrder(UUID shopId) {
+    CreateOrderRequest request = new CreateOrderRequest(shopId, List.of(new OrderItemRequest(latteId, 1)))
+        .membershipTier(CreateOrderRequest.MembershipTierEnum.PLATINUM);
+
+    orderService.createOrder(request);
+
+    ArgumentCaptor<Order> saved = ArgumentCaptor.forClass(Order.class);
+    verify(orderRepository).save(saved.capture());
+    return saved.getValue();
+  }
 }
@@ -0,0 +1,55 @@
+package com.digital.pos.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.when;
+
+import com.digital.pos.domain.model.QueueEntry;
+import com.digital.pos.domain.model.ShopQueueState;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class QueueDepthMetricsTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  @Mock
+  private QueueStateRegistry queueStateRegistry;
+
+  private static ShopQueueState state(UUID shopId, int waiting) {
+    List<QueueEntry> entries = new ArrayList<>();
+    for (int i = 0; i < waiting; i++) {
+      entries.add(new QueueEntry(i + 1, 1 + i % 2));
+    }
+    return ShopQueueState.fromEntries(shopId, 0, entries);
+  }
+
+  private double depth(String shop) {
+    return meterRegistry.get("pos.queue.depth").tag("shop", shop).gauge().value();
+  }
+
+  @Test
+  void update_shouldTagDeepestShopsAndSumTheRest() {
+    UUID deep = UUID.randomUUID();
+    UUID medium = UUID.randomUUID();
+    UUID shallow = UUID.randomUUID();
+    when(queueStateRegistry.loadedShops()).thenReturn(Set.of(deep, medium, shallow));
+    when(queueStateRegistry.get(deep)).thenReturn(state(deep, 7));
+    when(queueStateRegistry.get(medium)).thenReturn(state(medium, 4));
+    when(queueStateRegistry.get(shallow)).thenReturn(state(shallow, 1));
+
+    new QueueDepthMetrics(queueStateRegistry, meterRegistry, 2).update();
+
+    assertEquals(7, depth(deep.toString()));
+    assertEquals(4, depth(medium.toString()));
+    assertEquals(1, depth(QueueDepthMetrics.OTHER_SHOPS));
+    assertNull(meterRegistry.find("pos.queue.depth").tag("shop", shallow.toString()).gauge());
+  }
+}
@@ -0,0 +1,115 @@
+package com.digital.pos.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+class QueueEventSubscriberTest {
+
+  private final SseEmitter emitter = mock(SseEmitter.class);
+  private final List<Runnable> scheduled = new ArrayList<>();
+  private final SseEventBuilder fullState = SseEmitter.event().name("snapshot");
+  private final AtomicInteger fullStateReads = new AtomicInteger();
+
+  private QueueEventSubscriber subscriber(int maxPending) {
+    return new QueueEventSubscriber(emitter, scheduled::add, maxPending, () -> {
+      fullStateReads.incrementAndGet();
+      return fullState;
+    });
+  }
+
+  private void runSender() {
+    while (!scheduled.isEmpty()) {
+      scheduled.remove(0).run();
+    }
+  }
+
+  @Test
+  void send_shouldWriteEventsInOrderOnSenderThread() throws IOException {
+    QueueEventSubscriber subscriber = subscriber(10);
+    SseEventBuilder first = SseEmitter.event().name("delta");
+    SseEventBuilder second = SseEmitter.event().name("delta");
+
+    subscriber.send(first);
+    subscriber.send(second);
+    verify(emitter, never()).send(any(SseEventBuilder.class));
+
+    runSender();
+
+    InOrder inOrder = inOrder(emitter);
+    inOrder.verify(emitter).send(first);
+    inOrder.verify(emitter).send(second);
+  }
+
+  @Test
+  void send_shouldReplaceBacklogWithFullState_whenSubscriberFallsBehind() throws IOException {
+    QueueEventSubscriber subscriber = subscriber(2);
+
+    for (int i = 0; i < 5; i++) {
+      subscriber.send(SseEmitter.event().name("delta"));
+    }
+    runSender();
+
+    verify(emitter, times(1)).send(any(SseEventBuilder.class));
+    verify(emitter).send(fullState);
+  }
+
+  @Test
+  void resync_shouldCollapseRepeatedRequestsIntoOneRead() throws IOException {
+    QueueEventSubscriber subscriber = subscriber(10);
+
+    subscriber.resync();
+    subscriber.resync();
+    subscriber.resync();
+    runSender();
+
+    verify(emitter, times(1)).send(fullState);
+    assertEquals(1, fullStateReads.get());
+  }
+
+  @Test
+  void finish_shouldCompleteStreamAfterLastEvent() throws IOException {
+    QueueEventSubscriber subscriber = subscriber(10);
+    SseEventBuilder last = SseEmitter.event().name("position");
+
+    subscriber.finish(last);
+    runSender();
+
+    InOrder inOrder = inOrder(emitter);
+    inOrder.verify(emitter).send(last);
+    inOrder.verify(emitter).complete();
+    assertTrue(subscriber.isClosed());
+  }
+
+  @Test
+  void send_shouldCloseSubscriber_whenClientIsGone() throws IOException {
+    QueueEventSubscriber subscriber = subscriber(10);
+    AtomicInteger closed = new AtomicInteger();
+    subscriber.onClose(closed::incrementAndGet);
+    doThrow(new IOException("Broken pipe")).when(emitter).send(any(SseEventBuilder.class));
+
+    subscriber.send(SseEmitter.event().comment("heartbeat"));
+    runSender();
+    subscriber.send(SseEmitter.event().comment("heartbeat"));
+    runSender();
+
+    assertTrue(subscriber.isClosed());
+    assertEquals(1, closed.get());
+    verify(emitter, times(1)).send(any(SseEventBuilder.class));
+  }
+}
@@ -1,7 +1,13 @@
 package com.digital.pos.application.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.digital.pos.adapter.in.rest.model.QueueInfo;
@@ -12,14 +18,19 @@ import com.digital.pos.application.port.out.ShopService;
 import com.digital.pos.domain.exception.ShopNotFoundException;
 import com.digital.pos.domain.model.Order;
 import com.digital.pos.domain.model.OrderStatus;
+import com.digital.pos.domain.model.QueueChange;
 import com.digital.pos.domain.model.ShopConfiguration;
+import com.digital.pos.domain.model.ShopQueueState;
+import com.digital.pos.domain.service.CompiledShopConfigurations;
 import java.util.List;
 import java.util.Map;
+import java.util.OptionalInt;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,6 +41,14 @@ class QueueServiceTest {
   private ShopService shopService;
   @Mock
   private OrderRepository orderRepository;
+  @Mock
+  private QueueStateRegistry queueStateRegistry;
+  @Mock
+  private SlotReservationQueueAssignmentEngine slotReservationEngine;
+  @Mock
+  private ServiceRateTracker serviceRateTracker;
+  @Spy
+  private CompiledShopConfigurations shopConfigurations = new CompiledShopConfigurations();
   @InjectMocks
   private QueueService queueService;
 
@@ -42,6 +61,32 @@ class QueueServiceTest {
     });
   }
 
+  @Test
+  void releaseQueuedOrder_shouldNotFetchShopConfig_whenSlotReservationIsOff() {
+    Order order = Order.createNew(shopId, List.of());
+    order.setId(1L);
+    order.assignQueue(1);
+    order.markAsCanceled();
+
+    queueService.releaseQueuedOrder(order);
+
+    verify(queueStateRegistry).orderLeftQueue(order);
+    verify(shopService, never()).getShopConfig(any());
+    verify(slotReservationEngine, never()).release(any());
+  }
+
+  @Test
+  void ranksByMembership_shouldOnlyHoldForVipMembershipShops() {
+    when(shopService.getShopConfig(shopId)).thenReturn(
+        new ShopConfiguration(shopId, "VIP_MEMBERSHIP", Map.of(1, 5)),
+        new ShopConfiguration(shopId, "MOST_AVAILABLE", Map.of(1, 5)),
+        new ShopConfiguration(shopId, "POWER_OF_TWO_CHOICES", Map.of(1, 5)));
+
+    assertTrue(queueService.ranksByMembership(shopId));
+    assertFalse(queueService.ranksByMembership(shopId));
+    assertFalse(queueService.ranksByMembership(shopId));
+  }
+
   @Test
   void shouldReturnSortedOrdersWithLivePositionBasedOnId() {
     when(shopService.existsById(shopId)).thenReturn(true);
@@ -63,15 +108,16 @@ class QueueServiceTest {
     order3.assignQueue(1);
     order3.setId(200L);
 
-    // Return the orders (unordered)
-    when(orderRepository.findByShopIdAndStatus(shopId, OrderStatus.WAITING))
-        .thenReturn(List.of(order1, order2, order3));
+    // Queue state built from the orders (unordered)
+    when(queueStateRegistry.get(shopId))
+        .thenReturn(ShopQueueState.fromOrders(shopId, 7L, List.of(order1, order2, order3)));
 
     // Act
     ShopQueueResponse response = queueService.getShopQueueSnapshot(shopId);
 
     // Assert
     assertEquals(shopId, response.getShopId());
+    assertEquals(7L, response.getVersion());
     assertEquals(1, response.getQueues().size());
 
     QueueInfo queue = response.getQueues().get(0);
@@ -91,4 +137,47 @@ class QueueServiceTest {
     assertEquals(300L, summaries.get(2).getOrderId());
     assertEquals(3, summaries.get(2).getLivePosition());
   }
+
+  @Test
+  void getShopQueueSnapshot_shouldReuseRenderedResponse_untilQueueStateChanges() {
+    when(shopService.existsById(shopId)).thenReturn(true);
+    when(shopService.getShopConfig(shopId)).thenReturn(new ShopConfiguration(shopId, "ROUND_ROBIN", Map.of(1, 5)));
+    ShopQueueState state = new ShopQueueState(shopId, 3L);
+    state.add(1, 100L);
+    when(queueStateRegistry.get(shopId)).thenReturn(state);
+
+    ShopQueueResponse first = queueService.getShopQueueSnapshot(shopId);
+    ShopQueueResponse second = queueService.getShopQueueSnapshot(shopId);
+
+    state.apply(new QueueChange(shopId, 1, 200L, OrderStatus.WAITING, 4L));
+    ShopQueueResponse afterChange = queueService.getShopQueueSnapshot(shopId);
+
+    assertSame(first, second);
+    assertEquals(4L, afterChange.getVersion());
+    assertEquals(2, afterChange.getQueues().get(0).getSize());
+    assertEquals(2, afterChange.getQueues().get(0).getOrders().get(1).getLivePosition());
+    verify(orderRepository, never()).findWaitingQueueEntries(shopId);
+  }
+
+  @Test
+  void getLivePosition_shouldUseQueueState_whenOrderIsIndexed() {
+    Order order = Order.createNew(shopId, List.of());
+    order.assignQueue(1);
+    order.setId(200L);
+    when(queueStateRegistry.position(order)).thenReturn(OptionalInt.of(2));
+
+    assertEquals(2, queueService.getLivePosition(order));
+    verify(orderRepository, never()).findPositionInQueueOrderById(200L);
+  }
+
+  @Test
+  void getLivePosition_shouldFallBackToQuery_whenOrderIsNotIndexed() {
+    Order order = Order.createNew(shopId, List.of());
+    order.assignQueue(1);
+    order.setId(200L);
+    when(queueStateRegistry.position(order)).thenReturn(OptionalInt.empty());
+    when(orderRepository.findPositionInQueueOrderById(200L)).thenReturn(4);
+
+    assertEquals(4, queueService.getLivePosition(order));
+  }
 }
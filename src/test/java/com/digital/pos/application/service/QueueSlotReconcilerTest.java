@@ -0,0 +1,71 @@
+package com.digital.pos.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.digital.pos.application.port.out.OrderRepository;
+import com.digital.pos.application.port.out.QueueSlotStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class QueueSlotReconcilerTest {
+
+  private final UUID idleShop = UUID.randomUUID();
+  private final UUID busyShop = UUID.randomUUID();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  @Mock
+  private QueueSlotStore slotStore;
+  @Mock
+  private OrderRepository orderRepository;
+  private QueueSlotReconciler reconciler;
+
+  @BeforeEach
+  void setUp() {
+    reconciler = new QueueSlotReconciler(slotStore, orderRepository, meterRegistry, Duration.ofSeconds(5),
+        Duration.ofMinutes(10));
+  }
+
+  @Test
+  void reconcile_shouldReportShops_thatWereNotReconciledForTooLong() {
+    when(slotStore.trackedShops()).thenReturn(Set.of(idleShop, busyShop));
+    when(slotStore.sequence(any())).thenReturn(4L);
+    when(orderRepository.countWaitingByQueue(any())).thenReturn(Map.of(1, 2));
+    when(slotStore.reconcile(eq(idleShop), anyLong(), any(), any())).thenReturn(true);
+    when(slotStore.reconcile(eq(busyShop), anyLong(), any(), any())).thenReturn(false);
+    when(slotStore.lastReconciled(busyShop)).thenReturn(Optional.of(Instant.now().minus(Duration.ofMinutes(11))));
+
+    reconciler.reconcile();
+
+    assertEquals(1.0, meterRegistry.get("pos.queue.slots.unreconciled").gauge().value());
+    verify(slotStore, never()).lastReconciled(idleShop);
+  }
+
+  @Test
+  void reconcile_shouldNotReport_aBusyShopReconciledRecently() {
+    when(slotStore.trackedShops()).thenReturn(Set.of(busyShop));
+    when(slotStore.sequence(busyShop)).thenReturn(4L);
+    when(orderRepository.countWaitingByQueue(busyShop)).thenReturn(Map.of(1, 2));
+    when(slotStore.reconcile(busyShop, 4L, Map.of(1, 2), Duration.ofSeconds(5))).thenReturn(false);
+    when(slotStore.lastReconciled(busyShop)).thenReturn(Optional.of(Instant.now().minus(Duration.ofMinutes(1))));
+
+    reconciler.reconcile();
+
+    assertEquals(0.0, meterRegistry.get("pos.queue.slots.unreconciled").gauge().value());
+  }
+}
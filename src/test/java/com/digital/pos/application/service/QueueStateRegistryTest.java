@@ -0,0 +1,222 @@
+package com.digital.pos.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.digital.pos.application.port.out.OrderRepository;
+import com.digital.pos.application.port.out.QueueChangeBus;
+import com.digital.pos.application.port.out.QueueStateVersionStore;
+import com.digital.pos.domain.model.Order;
+import com.digital.pos.domain.model.OrderStatus;
+import com.digital.pos.domain.model.QueueChange;
+import com.digital.pos.domain.model.QueueEntry;
+import com.digital.pos.domain.model.ShopQueueState;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.UUID;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class QueueStateRegistryTest {
+
+  private final UUID shopId = UUID.randomUUID();
+  @Mock
+  private OrderRepository orderRepository;
+  @Mock
+  private QueueStateVersionStore versionStore;
+  @Mock
+  private QueueChangeBus changeBus;
+  @Captor
+  private ArgumentCaptor<Consumer<QueueChange>> changeListener;
+  private QueueStateRegistry registry;
+
+  @BeforeEach
+  void setUp() {
+    registry = new QueueStateRegistry(orderRepository, versionStore, changeBus, Duration.ofHours(1));
+    verify(changeBus).subscribe(changeListener.capture());
+  }
+
+  @Test
+  void get_shouldLoadFromRepositoryOnlyOnce_whenVersionIsUnchanged() {
+    when(versionStore.currentVersion(shopId)).thenReturn(3L);
+    when(orderRepository.findWaitingQueueEntries(shopId))
+        .thenReturn(List.of(new QueueEntry(1L, 1), new QueueEntry(2L, 1), new QueueEntry(3L, 2)));
+
+    ShopQueueState first = registry.get(shopId);
+    ShopQueueState second = registry.get(shopId);
+
+    assertSame(first, second);
+    assertEquals(2, first.size(1));
+    assertEquals(1, first.size(2));
+    verify(orderRepository, times(1)).findWaitingQueueEntries(shopId);
+    // within max-staleness reads do not go to Redis
+    verify(versionStore, times(1)).currentVersion(shopId);
+  }
+
+  @Test
+  void get_shouldApplyChangesBroadcastByOtherNodes() {
+    when(versionStore.currentVersion(shopId)).thenReturn(3L);
+    when(orderRepository.findWaitingQueueEntries(shopId)).thenReturn(List.of(new QueueEntry(1L, 1)));
+    ShopQueueState state = registry.get(shopId);
+
+    changeListener.getValue().accept(new QueueChange(shopId, 1, 2L, 0, OrderStatus.WAITING, 4L));
+    changeListener.getValue().accept(new QueueChange(shopId, 1, 1L, 0, OrderStatus.SERVED, 5L));
+
+    assertSame(state, registry.get(shopId));
+    assertEquals(5L, state.getVersion());
+    assertEquals(List.of(2L), state.orderIds(1));
+    verify(versionStore, times(1)).currentVersion(shopId);
+    verify(orderRepository, times(1)).findWaitingQueueEntries(shopId);
+  }
+
+  @Test
+  void get_shouldRebuild_whenABroadcastChangeWasMissed() {
+    when(versionStore.currentVersion(shopId)).thenReturn(3L, 6L);
+    when(orderRepository.findWaitingQueueEntries(shopId))
+        .thenReturn(List.of(new QueueEntry(1L, 1)), List.of(new QueueEntry(1L, 1), new QueueEntry(2L, 1)));
+    ShopQueueState stale = registry.get(shopId);
+
+    // version 5 never arrived
+    changeListener.getValue().accept(new QueueChange(shopId, 1, 3L, 0, OrderStatus.WAITING, 6L));
+    ShopQueueState fresh = registry.get(shopId);
+
+    assertNotSame(stale, fresh);
+    assertEquals(6L, fresh.getVersion());
+    assertEquals(2, fresh.size(1));
+  }
+
+  @Test
+  void getForAssignment_shouldRebuild_whenAnotherNodeChangedTheShop() {
+    when(versionStore.currentVersion(shopId)).thenReturn(3L, 5L);
+    when(orderRepository.findWaitingQueueEntries(shopId))
+        .thenReturn(List.of(new QueueEntry(1L, 1)), List.of(new QueueEntry(1L, 1), new QueueEntry(2L, 1)));
+
+    ShopQueueState stale = registry.get(shopId);
+    ShopQueueState fresh = registry.getForAssignment(shopId);
+
+    assertNotSame(stale, fresh);
+    assertEquals(5L, fresh.getVersion());
+    assertEquals(2, fresh.size(1));
+  }
+
+  @Test
+  void orderQueuedAndLeftQueue_shouldPatchStateWithoutReloading_whenNotInATransaction() {
+    when(versionStore.currentVersion(shopId)).thenReturn(0L);
+    when(versionStore.nextVersion(shopId)).thenReturn(1L, 2L);
+    when(orderRepository.findWaitingQueueEntries(shopId)).thenReturn(List.of());
+    ShopQueueState state = registry.get(shopId);
+
+    Order order = waitingOrder(10L, 2);
+    registry.orderQueued(order);
+    assertEquals(1, state.size(2));
+
+    order.markAsServed();
+    registry.orderLeftQueue(order);
+
+    assertSame(state, registry.get(shopId));
+    assertEquals(0, state.size(2));
+    assertEquals(2L, state.getVersion());
+    verify(orderRepository, times(1)).findWaitingQueueEntries(shopId);
+    verify(changeBus).publish(new QueueChange(shopId, 2, 10L, OrderStatus.WAITING, 1L));
+    verify(changeBus).publish(new QueueChange(shopId, 2, 10L, OrderStatus.SERVED, 2L));
+  }
+
+  @Test
+  void orderQueued_shouldOnlyBeCountedForAssignment_untilTheTransactionCommits() {
+    when(versionStore.currentVersion(shopId)).thenReturn(0L, 0L, 1L);
+    when(orderRepository.findWaitingQueueEntries(shopId)).thenReturn(List.of(new QueueEntry(1L, 2)));
+    ShopQueueState state = registry.get(shopId);
+    Order order = waitingOrder(10L, 2);
+
+    List<TransactionSynchronization> synchronizations = inTransaction(() -> registry.orderQueued(order));
+
+    assertEquals(1, state.size(2));
+    assertEquals(2, registry.getForAssignment(shopId).size(2));
+    assertEquals(1, state.size(2), "the assignment view is a copy");
+    assertEquals(OptionalInt.of(2), registry.position(order));
+    verify(versionStore, never()).nextVersion(shopId);
+
+    when(versionStore.nextVersion(shopId)).thenReturn(1L);
+    complete(synchronizations, TransactionSynchronization.STATUS_COMMITTED);
+
+    assertEquals(List.of(1L, 10L), state.orderIds(2));
+    assertEquals(2, registry.getForAssignment(shopId).size(2), "counted once after commit");
+    verify(changeBus).publish(new QueueChange(shopId, 2, 10L, OrderStatus.WAITING, 1L));
+  }
+
+  @Test
+  void orderQueued_shouldLeaveStateUntouched_whenTheTransactionRollsBack() {
+    when(versionStore.currentVersion(shopId)).thenReturn(0L);
+    when(orderRepository.findWaitingQueueEntries(shopId)).thenReturn(List.of());
+    ShopQueueState state = registry.get(shopId);
+    Order order = waitingOrder(10L, 2);
+
+    List<TransactionSynchronization> synchronizations = inTransaction(() -> registry.orderQueued(order));
+    complete(synchronizations, TransactionSynchronization.STATUS_ROLLED_BACK);
+
+    assertEquals(0, state.size(2));
+    assertEquals(0, registry.getForAssignment(shopId).size(2));
+    assertEquals(OptionalInt.empty(), registry.position(order));
+    verify(versionStore, never()).nextVersion(shopId);
+    verify(changeBus, never()).publish(any());
+  }
+
+  @Test
+  void orderLeftQueue_shouldApplyTheChange_onlyAfterCommit() {
+    when(versionStore.currentVersion(shopId)).thenReturn(0L);
+    when(orderRepository.findWaitingQueueEntries(shopId)).thenReturn(List.of(new QueueEntry(10L, 2)));
+    ShopQueueState state = registry.get(shopId);
+    Order order = waitingOrder(10L, 2);
+    order.markAsServed();
+
+    List<TransactionSynchronization> synchronizations = inTransaction(() -> registry.orderLeftQueue(order));
+    assertEquals(1, state.size(2));
+
+    when(versionStore.nextVersion(shopId)).thenReturn(1L);
+    complete(synchronizations, TransactionSynchronization.STATUS_COMMITTED);
+
+    assertEquals(0, state.size(2));
+    assertEquals(1L, state.getVersion());
+    verify(changeBus).publish(new QueueChange(shopId, 2, 10L, OrderStatus.SERVED, 1L));
+  }
+
+  private List<TransactionSynchronization> inTransaction(Runnable action) {
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      action.run();
+      return TransactionSynchronizationManager.getSynchronizations();
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  private void complete(List<TransactionSynchronization> synchronizations, int status) {
+    if (status == TransactionSynchronization.STATUS_COMMITTED) {
+      synchronizations.forEach(TransactionSynchronization::afterCommit);
+    }
+    synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+  }
+
+  private Order waitingOrder(long id, int queueNumber) {
+    Order order = Order.createNew(shopId, List.of());
+    order.setId(id);
+    order.assignQueue(queueNumber);
+    return order;
+  }
+}
@@ -0,0 +1,113 @@
+package com.digital.pos.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.digital.pos.application.port.out.ServiceRateStore;
+import com.digital.pos.application.port.out.ShopService;
+import com.digital.pos.domain.model.Order;
+import com.digital.pos.domain.model.ShopConfiguration;
+import com.digital.pos.domain.service.CompiledShopConfigurations;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceRateTrackerTest {
+
+  private final UUID shopId = UUID.randomUUID();
+  private final Instant queuedAt = Instant.parse("2025-01-01T10:00:00Z");
+  @Mock
+  private ServiceRateStore store;
+  @Mock
+  private ShopService shopService;
+
+  private ServiceRateTracker tracker;
+
+  @BeforeEach
+  void setUp() {
+    tracker = new ServiceRateTracker(store, shopService, new CompiledShopConfigurations(), 0.1, Duration.ofMinutes(5), Duration.ofHours(1));
+  }
+
+  @Test
+  void meanServiceMillis_shouldReadRedisOnce_perRefreshInterval() {
+    when(store.meanServiceMillis(shopId)).thenReturn(Map.of(1, 30_000.0));
+
+    assertEquals(30_000.0, tracker.meanServiceMillis(shopId, 1));
+    assertTrue(Double.isNaN(tracker.meanServiceMillis(shopId, 2)));
+
+    verify(store, times(1)).meanServiceMillis(shopId);
+  }
+
+  @Test
+  void orderServed_shouldRecordInRedis_andUpdateLocalEstimate() {
+    givenStrategy("SHORTEST_EXPECTED_WAIT");
+    when(store.meanServiceMillis(shopId)).thenReturn(Map.of(1, 30_000.0));
+    when(store.recordServed(shopId, 1, queuedAt, 0.1, Duration.ofMinutes(5)))
+        .thenReturn(OptionalDouble.of(25_000.0));
+    tracker.meanServiceMillis(shopId, 1);
+
+    tracker.orderServed(servedOrder(1));
+
+    assertEquals(25_000.0, tracker.meanServiceMillis(shopId, 1));
+  }
+
+  @Test
+  void orderServed_shouldNotRecord_whenShopDoesNotAssignByExpectedWait() {
+    givenStrategy("MOST_AVAILABLE");
+
+    tracker.orderServed(servedOrder(1));
+
+    verify(store, never()).recordServed(any(), anyInt(), any(), anyDouble(), any());
+  }
+
+  @Test
+  void orderServed_shouldNotFail_whenShopConfigIsUnavailable() {
+    when(shopService.getShopConfig(shopId)).thenThrow(new IllegalStateException("down"));
+
+    tracker.orderServed(servedOrder(1));
+
+    verify(store, never()).recordServed(any(), anyInt(), any(), anyDouble(), any());
+  }
+
+  @Test
+  void shouldKeepLocalEstimates_whenRedisFails() {
+    givenStrategy("SHORTEST_EXPECTED_WAIT");
+    when(store.meanServiceMillis(shopId)).thenReturn(Map.of(1, 30_000.0));
+    when(store.recordServed(shopId, 1, queuedAt, 0.1, Duration.ofMinutes(5)))
+        .thenThrow(new IllegalStateException("down"));
+    tracker.meanServiceMillis(shopId, 1);
+
+    tracker.orderServed(servedOrder(1));
+
+    assertEquals(30_000.0, tracker.meanServiceMillis(shopId, 1));
+  }
+
+  private void givenStrategy(String strategy) {
+    when(shopService.getShopConfig(shopId)).thenReturn(new ShopConfiguration(shopId, strategy, Map.of(1, 5)));
+  }
+
+  private Order servedOrder(int queueNumber) {
+    Order order = Order.createNew(shopId, List.of());
+    order.setId(1L);
+    order.assignQueue(queueNumber);
+    order.setStatusChangedAt(queuedAt);
+    order.markAsServed();
+    return order;
+  }
+}
@@ -0,0 +1,100 @@
+package com.digital.pos.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.digital.pos.application.port.out.QueueStateVersionStore;
+import com.digital.pos.domain.exception.QueueSaturatedException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ShopSaturationTest {
+
+  private final UUID shopId = UUID.randomUUID();
+  private final Map<Integer, Double> serviceMillis = new HashMap<>();
+  @Mock
+  private QueueStateVersionStore versionStore;
+
+  private ShopSaturation saturation;
+
+  @BeforeEach
+  void setUp() {
+    saturation = new ShopSaturation(versionStore,
+        (shop, queueNumber) -> serviceMillis.getOrDefault(queueNumber, Double.NaN), Duration.ofSeconds(10));
+  }
+
+  @Test
+  void checkAdmission_shouldNotReadVersion_forShopsNeverFull() {
+    assertDoesNotThrow(() -> saturation.checkAdmission(shopId));
+
+    verifyNoInteractions(versionStore);
+  }
+
+  @Test
+  void checkAdmission_shouldReject_untilTheQueuesChange() {
+    when(versionStore.currentVersion(shopId)).thenReturn(7L, 7L, 7L, 8L);
+    saturation.saturated(shopId, List.of(1, 2));
+
+    assertThrows(QueueSaturatedException.class, () -> saturation.checkAdmission(shopId));
+    assertThrows(QueueSaturatedException.class, () -> saturation.checkAdmission(shopId));
+    assertDoesNotThrow(() -> saturation.checkAdmission(shopId));
+    // the mark is gone, no further version reads
+    assertDoesNotThrow(() -> saturation.checkAdmission(shopId));
+  }
+
+  @Test
+  void saturated_shouldHintTheExpectedTimeUntilAnyQueueServes() {
+    // one serve every 30s and one every 15s: together one every 10s
+    serviceMillis.put(1, 30_000.0);
+    serviceMillis.put(2, 15_000.0);
+    when(versionStore.currentVersion(shopId)).thenReturn(3L);
+
+    assertEquals(Duration.ofSeconds(10), saturation.saturated(shopId, List.of(1, 2)).getRetryAfter());
+    QueueSaturatedException rejected = assertThrows(QueueSaturatedException.class,
+        () -> saturation.checkAdmission(shopId));
+    assertEquals(Duration.ofSeconds(10), rejected.getRetryAfter());
+  }
+
+  @Test
+  void saturated_shouldHintTheTtl_whenNoServiceTimeIsKnown() {
+    assertEquals(Duration.ofSeconds(10), saturation.saturated(shopId, List.of(1, 2)).getRetryAfter());
+  }
+
+  @Test
+  void saturated_shouldHintAtLeastOneSecond_forFastQueues() {
+    serviceMillis.put(1, 200.0);
+
+    assertEquals(Duration.ofSeconds(1), saturation.saturated(shopId, List.of(1)).getRetryAfter());
+  }
+
+  @Test
+  void checkAdmission_shouldAdmit_whenTheVersionCannotBeRead() {
+    when(versionStore.currentVersion(shopId)).thenReturn(3L).thenThrow(new IllegalStateException("redis down"));
+    saturation.saturated(shopId, List.of(1));
+
+    assertDoesNotThrow(() -> saturation.checkAdmission(shopId));
+  }
+
+  @Test
+  void saturated_shouldStillReject_butNotMark_whenTheVersionCannotBeRead() {
+    when(versionStore.currentVersion(shopId)).thenThrow(new IllegalStateException("redis down"));
+
+    assertEquals(Duration.ofSeconds(10), saturation.saturated(shopId, List.of(1)).getRetryAfter());
+    assertDoesNotThrow(() -> saturation.checkAdmission(shopId));
+    verify(versionStore, times(1)).currentVersion(shopId);
+  }
+}
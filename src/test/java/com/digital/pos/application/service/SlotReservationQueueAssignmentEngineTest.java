@@ -0,0 +1,77 @@
+package com.digital.pos.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.digital.pos.application.port.out.OrderRepository;
+import com.digital.pos.application.port.out.QueueSlotStore;
+import com.digital.pos.domain.exception.AllQueueFullException;
+import com.digital.pos.domain.model.Order;
+import com.digital.pos.domain.model.ShopConfiguration;
+import com.digital.pos.domain.model.ShopQueueState;
+import com.digital.pos.domain.service.CompiledShopConfigurations;
+import com.digital.pos.domain.service.QueueAssignmentContext;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class SlotReservationQueueAssignmentEngineTest {
+
+  private final UUID shopId = UUID.randomUUID();
+  private final Map<Integer, Integer> capacities = Map.of(1, 5, 2, 5);
+  private final ShopConfiguration config = new ShopConfiguration(shopId, "MOST_AVAILABLE", capacities);
+  @Mock
+  private QueueSlotStore slotStore;
+  @Mock
+  private OrderRepository orderRepository;
+  private SlotReservationQueueAssignmentEngine engine;
+
+  @BeforeEach
+  void setUp() {
+    engine = new SlotReservationQueueAssignmentEngine(slotStore, orderRepository, new CompiledShopConfigurations(),
+        QueueAssignmentMode.SLOT_RESERVATION);
+  }
+
+  @Test
+  void supports_shouldOnlyAcceptMostAvailableShops_whenModeIsEnabled() {
+    assertTrue(engine.supports(config));
+    assertFalse(engine.supports(new ShopConfiguration(shopId, "VIP_MEMBERSHIP", capacities)));
+    assertFalse(new SlotReservationQueueAssignmentEngine(slotStore, orderRepository, new CompiledShopConfigurations(),
+        QueueAssignmentMode.LOCKED).supports(config));
+  }
+
+  @Test
+  void assign_shouldSeedCountersFromDatabase_whenShopIsNotInitialized() {
+    when(slotStore.isInitialized(shopId)).thenReturn(false);
+    when(orderRepository.countWaitingByQueue(shopId)).thenReturn(Map.of(1, 3));
+    when(slotStore.reserve(shopId, capacities)).thenReturn(OptionalInt.of(2));
+
+    assertEquals(2, engine.assign(context()).queueNumber());
+    verify(slotStore).initialize(shopId, Map.of(1, 3));
+  }
+
+  @Test
+  void assign_shouldThrow_whenNoSlotIsLeft() {
+    when(slotStore.isInitialized(shopId)).thenReturn(true);
+    when(slotStore.reserve(shopId, capacities)).thenReturn(OptionalInt.empty());
+
+    assertThrows(AllQueueFullException.class, () -> engine.assign(context()));
+    verify(orderRepository, never()).countWaitingByQueue(shopId);
+  }
+
+  private QueueAssignmentContext context() {
+    return new QueueAssignmentContext(Order.createNew(shopId, List.of()), config, new ShopQueueState(shopId, 0));
+  }
+}
@@ -0,0 +1,124 @@
+package com.digital.pos.domain.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+
+class OrderRankTreeTest {
+
+  @Test
+  void position_shouldShiftLaterOrders_whenAnEarlierOrderIsRemoved() {
+    OrderRankTree tree = new OrderRankTree();
+    tree.add(300L);
+    tree.add(100L);
+    tree.add(200L);
+
+    assertEquals(OptionalInt.of(1), tree.position(100L));
+    assertEquals(OptionalInt.of(3), tree.position(300L));
+
+    assertTrue(tree.remove(100L));
+
+    assertEquals(OptionalInt.of(1), tree.position(200L));
+    assertEquals(OptionalInt.of(2), tree.position(300L));
+    assertEquals(OptionalInt.empty(), tree.position(100L));
+    assertEquals(List.of(200L, 300L), tree.toList());
+  }
+
+  @Test
+  void add_shouldIgnoreDuplicates() {
+    OrderRankTree tree = new OrderRankTree();
+
+    assertTrue(tree.add(1L));
+    assertFalse(tree.add(1L));
+    assertEquals(1, tree.size());
+  }
+
+  @Test
+  void position_shouldRankHigherPriorityFirst_thenByArrival() {
+    OrderRankTree tree = new OrderRankTree();
+    tree.add(1L);
+    tree.add(2L, 2);
+    tree.add(3L);
+    tree.add(4L, 2);
+    tree.add(5L, 1);
+
+    assertEquals(List.of(2L, 4L, 5L, 1L, 3L), tree.toList());
+    assertEquals(OptionalInt.of(3), tree.position(5L));
+
+    assertTrue(tree.remove(4L));
+
+    assertEquals(OptionalInt.of(2), tree.position(5L));
+    assertEquals(OptionalInt.of(4), tree.position(3L));
+  }
+
+  @Test
+  void countAhead_shouldCountOrdersOfSameOrHigherPriority() {
+    OrderRankTree tree = new OrderRankTree();
+    tree.add(1L);
+    tree.add(2L, 3);
+    tree.add(3L, 1);
+    tree.add(4L, 1);
+
+    assertEquals(4, tree.countAhead(0));
+    assertEquals(3, tree.countAhead(1));
+    assertEquals(1, tree.countAhead(2));
+    assertEquals(1, tree.countAhead(3));
+  }
+
+  @Test
+  void rank_shouldPlaceAbsentOrdersWhereTheyWouldBeAdded() {
+    OrderRankTree tree = new OrderRankTree();
+    tree.add(1L);
+    tree.add(4L);
+    tree.add(2L, 2);
+
+    assertEquals(3, tree.rank(4L, 0));
+    assertEquals(3, tree.rank(3L, 0), "absent id ranks between 1 and 4");
+    assertEquals(4, tree.rank(5L, 0));
+    assertEquals(1, tree.rank(7L, 3));
+    assertEquals(1, new OrderRankTree().rank(1L, 0));
+  }
+
+  @Test
+  void copy_shouldBeIndependentOfTheOriginal() {
+    OrderRankTree tree = new OrderRankTree();
+    tree.add(1L);
+    tree.add(2L, 1);
+
+    OrderRankTree copy = tree.copy();
+    copy.remove(2L);
+
+    assertEquals(List.of(2L, 1L), tree.toList());
+    assertEquals(List.of(1L), copy.toList());
+  }
+
+  @Test
+  void shouldMatchSortedSet_forRandomOperations() {
+    Random random = new Random(42);
+    OrderRankTree tree = new OrderRankTree();
+    TreeSet<Long> expected = new TreeSet<>();
+
+    for (int i = 0; i < 20_000; i++) {
+      long key = random.nextInt(1_000);
+      if (random.nextBoolean()) {
+        assertEquals(expected.add(key), tree.add(key));
+      } else {
+        assertEquals(expected.remove(key), tree.remove(key));
+      }
+      OptionalInt expectedPosition = expected.contains(key)
+          ? OptionalInt.of(expected.headSet(key).size() + 1)
+          : OptionalInt.empty();
+      assertEquals(expectedPosition, tree.position(key));
+    }
+
+    assertEquals(expected.size(), tree.size());
+    assertEquals(new ArrayList<>(expected), tree.toList());
+  }
+}
@@ -0,0 +1,43 @@
+package com.digital.pos.domain.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.digital.pos.domain.model.ShopConfiguration;
+import com.digital.pos.domain.service.strategy.StrategyType;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class CompiledShopConfigurationsTest {
+
+  private final UUID shopId = UUID.randomUUID();
+  private final CompiledShopConfigurations configurations = new CompiledShopConfigurations();
+
+  @Test
+  void compile_shouldReuseCompiledConfig_untilTheShopConfigChanges() {
+    ShopConfiguration config = new ShopConfiguration(shopId, "MOST_AVAILABLE", Map.of(1, 5));
+
+    CompiledShopConfiguration first = configurations.compile(config);
+    CompiledShopConfiguration sameInstance = configurations.compile(config);
+    CompiledShopConfiguration equalConfig = configurations.compile(new ShopConfiguration(shopId, "MOST_AVAILABLE",
+        Map.of(1, 5)));
+    CompiledShopConfiguration changed = configurations.compile(new ShopConfiguration(shopId, "VIP_MEMBERSHIP",
+        Map.of(1, 8)));
+
+    assertSame(first, sameInstance);
+    assertSame(first, equalConfig);
+    assertEquals(StrategyType.VIP_MEMBERSHIP, changed.strategyType());
+    assertEquals(8, changed.capacities().capacity(0));
+  }
+
+  @Test
+  void compile_shouldKeepABoundedNumberOfShops() {
+    for (int i = 0; i < CompiledShopConfigurations.MAX_COMPILED_SHOPS + 500; i++) {
+      configurations.compile(new ShopConfiguration(UUID.randomUUID(), "MOST_AVAILABLE", Map.of(1, 5)));
+    }
+
+    assertTrue(configurations.compiledShops() <= CompiledShopConfigurations.MAX_COMPILED_SHOPS);
+  }
+}
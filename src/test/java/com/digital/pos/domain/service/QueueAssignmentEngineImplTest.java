@@ -2,12 +2,18 @@ package com.digital.pos.domain.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.digital.pos.domain.exception.InvalidShopConfigurationException;
 import com.digital.pos.domain.model.Order;
 import com.digital.pos.domain.model.QueueAssignmentResult;
+import com.digital.pos.domain.model.QueueCapacities;
 import com.digital.pos.domain.model.ShopConfiguration;
+import com.digital.pos.domain.model.ShopQueueState;
 import com.digital.pos.domain.service.strategy.QueueAssignmentStrategy;
 import com.digital.pos.domain.service.strategy.StrategyType;
 import java.util.List;
@@ -22,56 +28,65 @@ import org.mockito.junit.jupiter.MockitoExtension;
 @ExtendWith(MockitoExtension.class)
 class QueueAssignmentEngineImplTest {
 
+  private final UUID shopId = UUID.randomUUID();
   @Mock
   private QueueAssignmentStrategy mostAvailableStrategy;
+  @Mock
+  private QueueAssignmentStrategy vipStrategy;
 
   private QueueAssignmentEngineImpl engine;
 
   @BeforeEach
   void setUp() {
-    engine = new QueueAssignmentEngineImpl(List.of(mostAvailableStrategy));
+    when(mostAvailableStrategy.type()).thenReturn(StrategyType.MOST_AVAILABLE);
+    when(vipStrategy.type()).thenReturn(StrategyType.VIP_MEMBERSHIP);
+    engine = new QueueAssignmentEngineImpl(List.of(mostAvailableStrategy, vipStrategy));
   }
 
   @Test
-  void assign_shouldUseMatchingStrategy_whenOneSupportsConfig() {
+  void assign_shouldUseStrategyOfShop_withCompiledCapacities() {
     // Arrange
-    UUID shopId = UUID.randomUUID();
-    ShopConfiguration config = new ShopConfiguration(shopId,
-        StrategyType.MOST_AVAILABLE.name(), Map.of(1, 5, 2, 5, 3, 5));
-    Order order = new Order(); // mock or real
-    List<Order> waitingOrders = List.of();
-
+    ShopConfiguration config = new ShopConfiguration(shopId, "vip_membership", Map.of(3, 5, 1, 5, 2, 5));
+    QueueAssignmentContext context = new QueueAssignmentContext(new Order(), config, new ShopQueueState(shopId, 0));
     QueueAssignmentResult expectedResult = new QueueAssignmentResult(2);
-
-    when(mostAvailableStrategy.supports(config)).thenReturn(true);
-    when(mostAvailableStrategy.assign(new QueueAssignmentContext(order, config, waitingOrders)))
-        .thenReturn(expectedResult);
+    when(vipStrategy.assign(eq(context), any(QueueCapacities.class))).thenReturn(expectedResult);
 
     // Act
-    QueueAssignmentResult result = engine.assign(new QueueAssignmentContext(order, config, waitingOrders));
+    QueueAssignmentResult result = engine.assign(context);
 
     // Assert
     assertEquals(expectedResult, result);
-    verify(mostAvailableStrategy).assign(new QueueAssignmentContext(order, config, waitingOrders));
+    verify(vipStrategy).assign(context, QueueCapacities.of(Map.of(1, 5, 2, 5, 3, 5)));
+    verify(mostAvailableStrategy, never()).assign(any(), any());
   }
 
   @Test
-  void assign_shouldThrow_whenNoStrategySupportsConfig() {
+  void assign_shouldThrow_whenStrategyIsUnknown() {
     // Arrange
-    UUID shopId = UUID.randomUUID();
-    ShopConfiguration config = new ShopConfiguration(shopId, "UNKNOWN", Map.of());
-    Order order = new Order();
-    List<Order> waitingOrders = List.of();
-
-    when(mostAvailableStrategy.supports(config)).thenReturn(false);
+    ShopConfiguration config = new ShopConfiguration(shopId, "UNKNOWN", Map.of(1, 5));
+    QueueAssignmentContext context = new QueueAssignmentContext(new Order(), config, new ShopQueueState(shopId, 0));
 
     // Act & Assert
-    IllegalStateException ex = assertThrows(IllegalStateException.class, () ->
-        engine.assign(new QueueAssignmentContext(order, config, waitingOrders))
-    );
+    InvalidShopConfigurationException ex = assertThrows(InvalidShopConfigurationException.class,
+        () -> engine.assign(context));
 
-    assertEquals("No matching strategy for shop", ex.getMessage());
+    assertEquals("Invalid configuration of shop " + shopId + ": unknown queue strategy UNKNOWN", ex.getMessage());
   }
 
+  @Test
+  void compile_shouldRejectInvalidCapacities() {
+    assertThrows(InvalidShopConfigurationException.class,
+        () -> CompiledShopConfiguration.compile(new ShopConfiguration(shopId, "MOST_AVAILABLE", Map.of())));
+    assertThrows(InvalidShopConfigurationException.class,
+        () -> CompiledShopConfiguration.compile(new ShopConfiguration(shopId, "MOST_AVAILABLE", Map.of(1, 0))));
+    assertThrows(InvalidShopConfigurationException.class,
+        () -> CompiledShopConfiguration.compile(new ShopConfiguration(shopId, "MOST_AVAILABLE", Map.of(0, 5))));
+  }
+
+  @Test
+  void constructor_shouldReject_twoStrategiesOfTheSameType() {
+    List<QueueAssignmentStrategy> strategies = List.of(mostAvailableStrategy, mostAvailableStrategy);
 
+    assertThrows(IllegalStateException.class, () -> new QueueAssignmentEngineImpl(strategies));
+  }
 }
@@ -2,6 +2,7 @@ package com.digital.pos.domain.service.strategy;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -9,6 +10,7 @@ import com.digital.pos.domain.exception.AllQueueFullException;
 import com.digital.pos.domain.model.Order;
 import com.digital.pos.domain.model.QueueAssignmentResult;
 import com.digital.pos.domain.model.ShopConfiguration;
+import com.digital.pos.domain.model.ShopQueueState;
 import com.digital.pos.domain.service.QueueAssignmentContext;
 import java.util.List;
 import java.util.Map;
@@ -19,6 +21,7 @@ import org.junit.jupiter.api.Test;
 class MostAvailableQueueAssignmentStrategyTest {
 
   private MostAvailableQueueAssignmentStrategy strategy;
+  private long nextOrderId = 1;
 
   @BeforeEach
   void setUp() {
@@ -48,7 +51,7 @@ class MostAvailableQueueAssignmentStrategyTest {
 
     Order newOrder = createOrder(null); // unassigned
 
-    QueueAssignmentResult result = strategy.assign(new QueueAssignmentContext(newOrder, config, waitingOrders));
+    QueueAssignmentResult result = strategy.assign(new QueueAssignmentContext(newOrder, config, stateOf(waitingOrders)));
 
     assertEquals(2, result.queueNumber());
   }
@@ -73,7 +76,7 @@ class MostAvailableQueueAssignmentStrategyTest {
         orderWith(shopId, 2)
     );
 
-    QueueAssignmentContext context = new QueueAssignmentContext(order, config, waitingOrders);
+    QueueAssignmentContext context = new QueueAssignmentContext(order, config, stateOf(waitingOrders));
 
     // When / Then
     assertThrows(AllQueueFullException.class, () -> strategy.assign(context));
@@ -94,7 +97,7 @@ class MostAvailableQueueAssignmentStrategyTest {
 
     Order newOrder = createOrder(null); // unassigned
 
-    QueueAssignmentResult result = strategy.assign(new QueueAssignmentContext(newOrder, config, waitingOrders));
+    QueueAssignmentResult result = strategy.assign(new QueueAssignmentContext(newOrder, config, stateOf(waitingOrders)));
 
     assertEquals(2, result.queueNumber());
   }
@@ -116,7 +119,7 @@ class MostAvailableQueueAssignmentStrategyTest {
 
     Order newOrder = createOrder(null); // unassigned
 
-    QueueAssignmentResult result = strategy.assign(new QueueAssignmentContext(newOrder, config, waitingOrders));
+    QueueAssignmentResult result = strategy.assign(new QueueAssignmentContext(newOrder, config, stateOf(waitingOrders)));
 
     assertEquals(1, result.queueNumber());
   }
@@ -124,14 +127,20 @@ class MostAvailableQueueAssignmentStrategyTest {
   private Order orderWith(UUID shopId, int queueNumber) {
     Order o = Order.createNew(shopId, List.of());
     o.assignQueue(queueNumber);
+    o.setId(nextOrderId++);
     return o;
   }
 
 
   private Order createOrder(Integer queueNumber) {
     Order order = mock(Order.class);
-    when(order.getQueueNumber()).thenReturn(queueNumber);
+    lenient().when(order.getQueueNumber()).thenReturn(queueNumber);
+    lenient().when(order.getId()).thenReturn(nextOrderId++);
     return order;
   }
 
+  private ShopQueueState stateOf(List<Order> waitingOrders) {
+    return ShopQueueState.fromOrders(UUID.randomUUID(), 0, waitingOrders);
+  }
+
 }
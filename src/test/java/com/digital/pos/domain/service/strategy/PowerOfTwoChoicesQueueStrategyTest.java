@@ -0,0 +1,96 @@
+package com.digital.pos.domain.service.strategy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.digital.pos.domain.exception.AllQueueFullException;
+import com.digital.pos.domain.model.Order;
+import com.digital.pos.domain.model.ShopConfiguration;
+import com.digital.pos.domain.model.ShopQueueState;
+import com.digital.pos.domain.service.QueueAssignmentContext;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class PowerOfTwoChoicesQueueStrategyTest {
+
+  private final UUID shopId = UUID.randomUUID();
+  private final SplittableRandom random = new SplittableRandom(42);
+  private final PowerOfTwoChoicesQueueStrategy strategy = new PowerOfTwoChoicesQueueStrategy(() -> random);
+  private final ShopQueueState state = new ShopQueueState(shopId, 0);
+  private long nextOrderId = 1;
+
+  @Test
+  void assign_shouldPickTheSampledQueueWithMoreFreeSlots() {
+    // with two queues both are always sampled
+    waiting(1, 3);
+    waiting(2, 1);
+
+    for (int i = 0; i < 20; i++) {
+      assertEquals(2, assign(Map.of(1, 10, 2, 10)));
+    }
+  }
+
+  @Test
+  void assign_shouldNeverPickTheFullestQueue_whenAnotherIsSampledWithIt() {
+    Map<Integer, Integer> capacities = capacities(5, 10);
+    waiting(3, 9);
+
+    for (int i = 0; i < 100; i++) {
+      assertNotEquals(3, assign(capacities));
+    }
+  }
+
+  @Test
+  void assign_shouldFallBackToAnyFreeQueue_whenBothSamplesAreFull() {
+    Map<Integer, Integer> capacities = capacities(50, 1);
+    IntStream.rangeClosed(1, 50).filter(queue -> queue != 37).forEach(queue -> waiting(queue, 1));
+
+    assertEquals(37, assign(capacities));
+  }
+
+  @Test
+  void assign_shouldThrow_whenAllQueuesAreFull() {
+    waiting(1, 1);
+    waiting(2, 1);
+
+    assertThrows(AllQueueFullException.class, () -> assign(Map.of(1, 1, 2, 1)));
+  }
+
+  @Test
+  void assign_shouldKeepQueuesBalanced_acrossManyQueues() {
+    Map<Integer, Integer> capacities = capacities(50, 1_000);
+
+    for (int i = 0; i < 10_000; i++) {
+      waiting(assign(capacities), 1);
+    }
+
+    // 200 per queue on average; two choices keep the spread to a few orders
+    IntStream.rangeClosed(1, 50).forEach(queue -> assertTrue(Math.abs(state.size(queue) - 200) <= 5,
+        "queue " + queue + " has " + state.size(queue) + " orders"));
+  }
+
+  private Map<Integer, Integer> capacities(int queues, int capacity) {
+    Map<Integer, Integer> capacities = new HashMap<>();
+    IntStream.rangeClosed(1, queues).forEach(queue -> capacities.put(queue, capacity));
+    return capacities;
+  }
+
+  private int assign(Map<Integer, Integer> capacities) {
+    ShopConfiguration config = new ShopConfiguration(shopId, "POWER_OF_TWO_CHOICES", capacities);
+    Order order = Order.createNew(shopId, List.of());
+    return strategy.assign(new QueueAssignmentContext(order, config, state)).queueNumber();
+  }
+
+  private void waiting(int queueNumber, int count) {
+    for (int i = 0; i < count; i++) {
+      state.add(queueNumber, nextOrderId++);
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package com.digital.pos.domain.service.strategy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.digital.pos.domain.exception.AllQueueFullException;
+import com.digital.pos.domain.model.Order;
+import com.digital.pos.domain.model.ShopConfiguration;
+import com.digital.pos.domain.model.ShopQueueState;
+import com.digital.pos.domain.service.QueueAssignmentContext;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class ShortestExpectedWaitQueueStrategyTest {
+
+  private final UUID shopId = UUID.randomUUID();
+  private final Map<Integer, Double> serviceMillis = new HashMap<>();
+  private final ShortestExpectedWaitQueueStrategy strategy = new ShortestExpectedWaitQueueStrategy(
+      (shop, queueNumber) -> serviceMillis.getOrDefault(queueNumber, Double.NaN));
+  private final ShopQueueState state = new ShopQueueState(shopId, 0);
+  private long nextOrderId = 1;
+
+  @Test
+  void assign_shouldPreferFasterQueue_overShorterOne() {
+    // queue 1: 2 waiting at 60s each -> 3 min, queue 2: 4 waiting at 20s each -> 100s
+    waiting(1, 2);
+    waiting(2, 4);
+    serviceMillis.put(1, 60_000.0);
+    serviceMillis.put(2, 20_000.0);
+
+    assertEquals(2, assign(Map.of(1, 10, 2, 10)));
+  }
+
+  @Test
+  void assign_shouldPickShortestQueue_whenNoQueueWasObserved() {
+    waiting(1, 3);
+    waiting(2, 1);
+
+    assertEquals(2, assign(Map.of(1, 10, 2, 10)));
+  }
+
+  @Test
+  void assign_shouldAssumeShopAverage_forQueuesNotObservedYet() {
+    // queue 3 is new and assumed as fast as the average of 1 and 2 (40s): 1 x 40s ties with queue 2 at 2 x 20s and
+    // wins on free slots
+    waiting(1, 1);
+    waiting(2, 1);
+    serviceMillis.put(1, 60_000.0);
+    serviceMillis.put(2, 20_000.0);
+
+    assertEquals(3, assign(Map.of(1, 10, 2, 10, 3, 10)));
+  }
+
+  @Test
+  void assign_shouldSkipFullQueues() {
+    waiting(1, 2);
+    waiting(2, 5);
+    serviceMillis.put(1, 1_000.0);
+    serviceMillis.put(2, 60_000.0);
+
+    assertEquals(2, assign(Map.of(1, 2, 2, 10)));
+  }
+
+  @Test
+  void assign_shouldThrow_whenAllQueuesAreFull() {
+    waiting(1, 1);
+
+    assertThrows(AllQueueFullException.class, () -> assign(Map.of(1, 1)));
+  }
+
+  private int assign(Map<Integer, Integer> capacities) {
+    ShopConfiguration config = new ShopConfiguration(shopId, "SHORTEST_EXPECTED_WAIT", capacities);
+    Order order = Order.createNew(shopId, List.of());
+    return strategy.assign(new QueueAssignmentContext(order, config, state)).queueNumber();
+  }
+
+  private void waiting(int queueNumber, int count) {
+    for (int i = 0; i < count; i++) {
+      state.add(queueNumber, nextOrderId++);
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package com.digital.pos.domain.service.strategy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.digital.pos.domain.exception.AllQueueFullException;
+import com.digital.pos.domain.model.MembershipTier;
+import com.digital.pos.domain.model.Order;
+import com.digital.pos.domain.model.ShopConfiguration;
+import com.digital.pos.domain.model.ShopQueueState;
+import com.digital.pos.domain.service.QueueAssignmentContext;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class VipMemberShipQueueStrategyTest {
+
+  private final UUID shopId = UUID.randomUUID();
+  private final VipMemberShipQueueStrategy strategy = new VipMemberShipQueueStrategy();
+  private final ShopQueueState state = new ShopQueueState(shopId, 0);
+  private long nextOrderId = 1;
+
+  @Test
+  void assign_shouldIgnoreLowerTiers_whenCountingOrdersAhead() {
+    // queue 1: three regular orders, queue 2: one gold order
+    waiting(1, MembershipTier.REGULAR, 3);
+    waiting(2, MembershipTier.GOLD, 1);
+    ShopConfiguration config = config("VIP_MEMBERSHIP", Map.of(1, 10, 2, 4));
+
+    assertEquals(1, assign(MembershipTier.PLATINUM, config));
+    assertEquals(1, assign(MembershipTier.GOLD, config));
+    assertEquals(2, assign(MembershipTier.REGULAR, config));
+  }
+
+  @Test
+  void assign_shouldPreferMoreFreeSlots_whenAsManyOrdersAreAhead() {
+    waiting(1, MembershipTier.REGULAR, 2);
+    waiting(2, MembershipTier.REGULAR, 2);
+    ShopConfiguration config = config("VIP_MEMBERSHIP", Map.of(1, 4, 2, 6));
+
+    assertEquals(2, assign(MembershipTier.SILVER, config));
+  }
+
+  @Test
+  void assign_shouldSkipFullQueues() {
+    waiting(1, MembershipTier.REGULAR, 2);
+    waiting(2, MembershipTier.PLATINUM, 1);
+    ShopConfiguration config = config("VIP_MEMBERSHIP", Map.of(1, 2, 2, 5));
+
+    assertEquals(2, assign(MembershipTier.PLATINUM, config));
+  }
+
+  @Test
+  void assign_shouldThrow_whenAllQueuesAreFull() {
+    waiting(1, MembershipTier.REGULAR, 1);
+    ShopConfiguration config = config("VIP_MEMBERSHIP", Map.of(1, 1));
+
+    assertThrows(AllQueueFullException.class, () -> assign(MembershipTier.PLATINUM, config));
+  }
+
+  private int assign(MembershipTier tier, ShopConfiguration config) {
+    Order order = Order.createNew(shopId, List.of(), tier);
+    return strategy.assign(new QueueAssignmentContext(order, config, state)).queueNumber();
+  }
+
+  private void waiting(int queueNumber, MembershipTier tier, int count) {
+    for (int i = 0; i < count; i++) {
+      state.add(queueNumber, nextOrderId++, tier.priority());
+    }
+  }
+
+  private ShopConfiguration config(String strategyName, Map<Integer, Integer> capacities) {
+    return new ShopConfiguration(shopId, strategyName, capacities);
+  }
+}
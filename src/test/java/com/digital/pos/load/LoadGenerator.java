@@ -0,0 +1,186 @@
+package com.digital.pos.load;
+
+import com.digital.pos.load.LoadSettings.Operation;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends a weighted mix of order operations at a fixed rate (open loop), so a slow service builds up in-flight requests
+ * instead of silently lowering the offered load. Latency is measured from the scheduled send time, which keeps queueing
+ * delay in the client from being hidden (coordinated omission).
+ * <p>
+ * Shops, menus and queue capacities come from {@code FakeShopController} and {@code FakeMenuController}: the first shop
+ * is the hot one.
+ */
+class LoadGenerator {
+
+  private static final List<Shop> SHOPS = List.of(
+      new Shop(UUID.fromString("11111111-1111-1111-1111-111111111111"), List.of(
+          UUID.fromString("aaaa1111-aaaa-1111-aaaa-111111111111"),
+          UUID.fromString("bbbb2222-bbbb-2222-bbbb-222222222222"),
+          UUID.fromString("cccc3333-cccc-3333-cccc-333333333333"))),
+      new Shop(UUID.fromString("123e4567-e89b-12d3-a456-426614174000"), List.of(
+          UUID.fromString("123e4567-e89b-12d3-a456-426614174001"),
+          UUID.fromString("123e4567-e89b-12d3-a456-426614174002"),
+          UUID.fromString("ffff6666-ffff-6666-ffff-666666666666"))));
+
+  private final URI baseUri;
+  private final LoadSettings settings;
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final ExecutorService callbacks = Executors.newFixedThreadPool(8);
+  private final HttpClient httpClient;
+  // WAITING orders created by this run, oldest first, used as serve/cancel/get targets
+  private final Map<UUID, Deque<Long>> waitingOrders = new ConcurrentHashMap<>();
+  private final Operation[] weightedOperations;
+
+  LoadGenerator(URI baseUri, LoadSettings settings) {
+    this.baseUri = baseUri;
+    this.settings = settings;
+    this.httpClient = HttpClient.newBuilder()
+        .executor(callbacks)
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+    List<Operation> operations = new ArrayList<>();
+    settings.mix().forEach((operation, weight) -> {
+      for (int i = 0; i < weight; i++) {
+        operations.add(operation);
+      }
+    });
+    this.weightedOperations = operations.toArray(Operation[]::new);
+    SHOPS.forEach(shop -> waitingOrders.put(shop.id(), new ConcurrentLinkedDeque<>()));
+  }
+
+  LoadReport run() throws InterruptedException {
+    LoadReport discarded = new LoadReport();
+    LoadReport report = new LoadReport();
+    send(settings.warmup(), discarded);
+    report.measured(settings.duration());
+    send(settings.duration(), report);
+    callbacks.shutdown();
+    callbacks.awaitTermination(30, TimeUnit.SECONDS);
+    return report;
+  }
+
+  private void send(Duration period, LoadReport report) {
+    long intervalNanos = TimeUnit.SECONDS.toNanos(1) / settings.rps();
+    long requests = period.toNanos() / intervalNanos;
+    long start = System.nanoTime();
+    List<CompletableFuture<Void>> inFlight = new ArrayList<>();
+    for (long i = 0; i < requests; i++) {
+      long scheduledAt = start + i * intervalNanos;
+      long delay = scheduledAt - System.nanoTime();
+      if (delay > 0) {
+        LockSupport.parkNanos(delay);
+      }
+      inFlight.add(sendOne(scheduledAt, report));
+      inFlight.removeIf(CompletableFuture::isDone);
+    }
+    CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).orTimeout(30, TimeUnit.SECONDS).join();
+  }
+
+  private CompletableFuture<Void> sendOne(long scheduledAt, LoadReport report) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    Shop shop = random.nextDouble() < settings.hotShopShare() ? SHOPS.get(0) : SHOPS.get(1);
+    Operation operation = weightedOperations[random.nextInt(weightedOperations.length)];
+    Deque<Long> waiting = waitingOrders.get(shop.id());
+
+    HttpRequest request = switch (operation) {
+      case CREATE -> post("/api/orders", createOrderBody(shop, random));
+      case SNAPSHOT -> get("/api/shops/" + shop.id() + "/queue");
+      case GET -> {
+        Long orderId = waiting.peekLast();
+        yield orderId == null ? null : get("/api/orders/" + orderId);
+      }
+      case SERVE -> patchOrNull(waiting.pollFirst(), "/serve");
+      case CANCEL -> patchOrNull(waiting.pollLast(), "/cancel");
+    };
+    if (request == null) {
+      // no waiting order of this run in the shop yet, place one instead
+      operation = Operation.CREATE;
+      request = post("/api/orders", createOrderBody(shop, random));
+    }
+
+    Operation sent = operation;
+    return httpClient.sendAsync(request, BodyHandlers.ofString())
+        .handle((response, failure) -> {
+          long latency = System.nanoTime() - scheduledAt;
+          report.record(sent, latency, failure != null ? failure.getClass().getSimpleName() : outcome(response));
+          if (failure == null && sent == Operation.CREATE && response.statusCode() == 200) {
+            waiting.addLast(orderId(response));
+          }
+          return null;
+        });
+  }
+
+  private String outcome(HttpResponse<String> response) {
+    int status = response.statusCode();
+    if (status == 409 || status == 503) {
+      try {
+        return objectMapper.readTree(response.body()).path("code").asText(String.valueOf(status));
+      } catch (Exception e) {
+        return String.valueOf(status);
+      }
+    }
+    return String.valueOf(status);
+  }
+
+  private long orderId(HttpResponse<String> response) {
+    try {
+      JsonNode body = objectMapper.readTree(response.body());
+      return body.path("orderId").asLong();
+    } catch (Exception e) {
+      throw new IllegalStateException("Unexpected create response: " + response.body(), e);
+    }
+  }
+
+  private String createOrderBody(Shop shop, ThreadLocalRandom random) {
+    UUID menuItemId = shop.menuItemIds().get(random.nextInt(shop.menuItemIds().size()));
+    return """
+        {"shopId": "%s", "items": [{"menuItemId": "%s", "quantity": %d}]}
+        """.formatted(shop.id(), menuItemId, 1 + random.nextInt(3));
+  }
+
+  private HttpRequest get(String path) {
+    return HttpRequest.newBuilder(baseUri.resolve(path)).GET().build();
+  }
+
+  private HttpRequest post(String path, String json) {
+    return HttpRequest.newBuilder(baseUri.resolve(path))
+        .header("Content-Type", "application/json")
+        .POST(BodyPublishers.ofString(json))
+        .build();
+  }
+
+  private HttpRequest patchOrNull(Long orderId, String action) {
+    if (orderId == null) {
+      return null;
+    }
+    return HttpRequest.newBuilder(baseUri.resolve("/api/orders/" + orderId + action))
+        .method("PATCH", BodyPublishers.noBody())
+        .build();
+  }
+
+  private record Shop(UUID id, List<UUID> menuItemIds) {
+
+  }
+}
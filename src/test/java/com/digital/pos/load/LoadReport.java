@@ -0,0 +1,140 @@
+package com.digital.pos.load;
+
+import com.digital.pos.load.LoadSettings.Operation;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and outcomes per operation. Outcomes are the HTTP status, or the error code of the body for the statuses the
+ * service maps from several exceptions ({@code ALL_QUEUES_FULL}, {@code LOCK_TIMEOUT}).
+ */
+class LoadReport {
+
+  private final Map<Operation, ConcurrentLinkedQueue<Long>> latencies = new EnumMap<>(Operation.class);
+  private final Map<Operation, Map<String, LongAdder>> outcomes = new EnumMap<>(Operation.class);
+  private Duration measured = Duration.ZERO;
+  private String threads = "platform";
+
+  LoadReport() {
+    for (Operation operation : Operation.values()) {
+      latencies.put(operation, new ConcurrentLinkedQueue<>());
+      outcomes.put(operation, new ConcurrentHashMap<>());
+    }
+  }
+
+  private static long percentile(long[] sorted, double percentile) {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+    return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+  }
+
+  private static double millis(long nanos) {
+    return nanos / 1_000_000.0;
+  }
+
+  void record(Operation operation, long latencyNanos, String outcome) {
+    latencies.get(operation).add(latencyNanos);
+    outcomes.get(operation).computeIfAbsent(outcome, key -> new LongAdder()).increment();
+  }
+
+  void measured(Duration measured) {
+    this.measured = measured;
+  }
+
+  /**
+   * Records whether the service ran request handling on virtual or platform threads.
+   */
+  void threads(String threads) {
+    this.threads = threads;
+  }
+
+  long count(String outcome) {
+    return outcomes.values().stream()
+        .map(byOutcome -> byOutcome.get(outcome))
+        .filter(adder -> adder != null)
+        .mapToLong(LongAdder::sum)
+        .sum();
+  }
+
+  private double createRate(String outcome) {
+    long creates = latencies.get(Operation.CREATE).size();
+    LongAdder count = outcomes.get(Operation.CREATE).get(outcome);
+    return creates == 0 || count == null ? 0 : (double) count.sum() / creates;
+  }
+
+  long total() {
+    return latencies.values().stream().mapToLong(ConcurrentLinkedQueue::size).sum();
+  }
+
+  /**
+   * Share of requests that failed with a 5xx other than a lock timeout.
+   */
+  double serverErrorRate() {
+    long total = total();
+    return total == 0 ? 0 : (double) (count("500") + count("502") + count("504")) / total;
+  }
+
+  Map<String, Object> summary() {
+    Map<String, Object> summary = new LinkedHashMap<>();
+    long total = total();
+    summary.put("threads", threads);
+    summary.put("requests", total);
+    summary.put("throughputPerSecond", measured.isZero() ? 0 : total / (measured.toMillis() / 1000.0));
+    // only creates assign queues and take the shop lock
+    summary.put("allQueuesFullRate", createRate("ALL_QUEUES_FULL"));
+    summary.put("lockTimeoutRate", createRate("LOCK_TIMEOUT"));
+    summary.put("serverErrorRate", serverErrorRate());
+
+    Map<String, Object> operations = new LinkedHashMap<>();
+    latencies.forEach((operation, values) -> {
+      long[] sorted = values.stream().mapToLong(Long::longValue).toArray();
+      Arrays.sort(sorted);
+      Map<String, Object> stats = new LinkedHashMap<>();
+      stats.put("count", sorted.length);
+      stats.put("p50Ms", millis(percentile(sorted, 50)));
+      stats.put("p99Ms", millis(percentile(sorted, 99)));
+      stats.put("p999Ms", millis(percentile(sorted, 99.9)));
+      stats.put("maxMs", millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1]));
+      Map<String, Long> byOutcome = new LinkedHashMap<>();
+      outcomes.get(operation).forEach((outcome, count) -> byOutcome.put(outcome, count.sum()));
+      stats.put("outcomes", byOutcome);
+      operations.put(operation.name().toLowerCase(), stats);
+    });
+    summary.put("operations", operations);
+    return summary;
+  }
+
+  void print(PrintStream out) {
+    Map<String, Object> summary = summary();
+    out.printf("%n%-10s %8s %10s %10s %10s %10s  %s%n", "operation", "count", "p50 ms", "p99 ms", "p99.9 ms", "max ms",
+        "outcomes");
+    @SuppressWarnings("unchecked")
+    Map<String, Map<String, Object>> operations = (Map<String, Map<String, Object>>) summary.get("operations");
+    operations.forEach((operation, stats) -> out.printf("%-10s %8d %10.2f %10.2f %10.2f %10.2f  %s%n", operation,
+        stats.get("count"), stats.get("p50Ms"), stats.get("p99Ms"), stats.get("p999Ms"), stats.get("maxMs"),
+        stats.get("outcomes")));
+    out.printf("threads %s, requests %d, throughput %.1f/s, creates rejected as all queues full %.2f%%, creates with lock timeout "
+            + "%.2f%%, server errors %.2f%%%n%n",
+        summary.get("threads"), summary.get("requests"), summary.get("throughputPerSecond"),
+        100 * (double) summary.get("allQueuesFullRate"), 100 * (double) summary.get("lockTimeoutRate"),
+        100 * (double) summary.get("serverErrorRate"));
+  }
+
+  void writeJson(Path file) throws IOException {
+    Files.createDirectories(file.getParent());
+    new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file.toFile(), summary());
+  }
+}
@@ -0,0 +1,46 @@
+package com.digital.pos.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Load test parameters, read from {@code -Dload.*} system properties.
+ *
+ * @param rps            requests per second, sent open-loop at a fixed rate whatever the response times
+ * @param duration       measured period
+ * @param warmup         period before it whose results are discarded
+ * @param hotShopShare   share of the traffic that goes to the hot shop, the rest goes to the other shop
+ * @param mix            relative weight of each operation
+ * @param maxErrorRate   highest accepted share of 5xx responses other than lock timeouts
+ * @param report         file the JSON report is written to, so runs with different settings can be compared
+ */
+record LoadSettings(int rps, Duration duration, Duration warmup, double hotShopShare,
+                    Map<Operation, Integer> mix, double maxErrorRate, Path report) {
+
+  static LoadSettings fromSystemProperties() {
+    return new LoadSettings(
+        Integer.getInteger("load.rps", 200),
+        Duration.parse(System.getProperty("load.duration", "PT60S")),
+        Duration.parse(System.getProperty("load.warmup", "PT10S")),
+        Double.parseDouble(System.getProperty("load.hot-shop-share", "0.8")),
+        parseMix(System.getProperty("load.mix", "create=30,get=25,snapshot=15,serve=25,cancel=5")),
+        Double.parseDouble(System.getProperty("load.max-error-rate", "0.01")),
+        Path.of(System.getProperty("load.report", "target/load-test-report.json")));
+  }
+
+  // e.g. "create=30,get=25,snapshot=15,serve=25,cancel=5"
+  private static Map<Operation, Integer> parseMix(String mix) {
+    Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+    for (String entry : mix.split(",")) {
+      String[] parts = entry.trim().split("=");
+      weights.put(Operation.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+    }
+    return weights;
+  }
+
+  enum Operation {
+    CREATE, GET, SNAPSHOT, SERVE, CANCEL
+  }
+}
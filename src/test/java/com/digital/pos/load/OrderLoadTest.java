@@ -0,0 +1,77 @@
+package com.digital.pos.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Drives mixed create/get/snapshot/serve/cancel traffic against the whole service backed by Postgres and Redis
+ * containers, with the fake shop and menu controllers of the same instance as downstream services. Run with
+ * {@code mvn -Pload-test test}; the parameters are described in {@link LoadSettings}. The report is printed and written
+ * to {@code load.report}. Adding {@code -Dspring.threads.virtual.enabled=true} runs the service on virtual threads.
+ */
+@Tag("load")
+@Testcontainers
+@SpringBootTest(webEnvironment = WebEnvironment.DEFINED_PORT)
+class OrderLoadTest {
+
+  // the service calls its own fake controllers, so the port must be known before the context starts
+  private static final int PORT = freePort();
+
+  @Container
+  private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+  @Container
+  private static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+  private static int freePort() {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @DynamicPropertySource
+  static void properties(DynamicPropertyRegistry registry) {
+    String localUrl = "http://localhost:" + PORT;
+    registry.add("server.port", () -> PORT);
+    registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+    registry.add("spring.datasource.username", POSTGRES::getUsername);
+    registry.add("spring.datasource.password", POSTGRES::getPassword);
+    registry.add("spring.data.redis.host", REDIS::getHost);
+    registry.add("spring.data.redis.port", () -> REDIS.getMappedPort(6379));
+    registry.add("clients.shop-service.url", () -> localUrl);
+    registry.add("clients.menu-service.url", () -> localUrl);
+    registry.add("spring.jpa.show-sql", () -> false);
+  }
+
+  @Value("${spring.threads.virtual.enabled:false}")
+  private boolean virtualThreads;
+
+  @Test
+  void mixedOrderTraffic() throws Exception {
+    LoadSettings settings = LoadSettings.fromSystemProperties();
+
+    LoadReport report = new LoadGenerator(URI.create("http://localhost:" + PORT), settings).run();
+    report.threads(virtualThreads ? "virtual" : "platform");
+    report.print(System.out);
+    report.writeJson(settings.report());
+
+    assertThat(report.total()).isPositive();
+    assertThat(report.serverErrorRate()).isLessThanOrEqualTo(settings.maxErrorRate());
+  }
+}